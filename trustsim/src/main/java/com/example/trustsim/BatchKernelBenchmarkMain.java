@@ -0,0 +1,175 @@
+package com.example.trustsim;
+
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.WindowAccessStats;
+import com.example.trustsim.modules.BatchKernels;
+import com.example.trustsim.modules.RiskAnalyzer;
+import com.example.trustsim.modules.TrustDecayEngine;
+import com.example.trustsim.workload.WorkloadGenerator;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Checks {@link BatchKernels} against the per-object risk and trust updates, then times
+ * both on one thread.
+ *
+ * The per-object path runs {@link RiskAnalyzer#updateRisk} and
+ * {@link TrustDecayEngine#updateTrust} on {@link DataObject}s. The batch path runs the
+ * kernels over arrays whose window inputs (legit and suspicious counts, burst flag) were
+ * gathered beforehand, which is what a struct-of-arrays population would keep current.
+ * Exits with status 1 on any mismatch.
+ */
+public final class BatchKernelBenchmarkMain {
+    private static final int OBJECTS = 1_000_000;
+    private static final int VERIFY_TICKS = 50;
+    private static final int BENCH_ROUNDS = 30;
+
+    private BatchKernelBenchmarkMain() {}
+
+    public static void main(final String[] args) {
+        final Random rnd = new Random(11);
+        final List<DataObject> objects = createObjects(rnd);
+        final int n = objects.size();
+        final int firstTick = 40;
+
+        final State s = State.gather(objects, firstTick);
+        final RiskAnalyzer risk = new RiskAnalyzer();
+        final TrustDecayEngine trust = new TrustDecayEngine();
+
+        // correctness: both paths advance tick by tick and must agree exactly
+        long mismatches = 0;
+        for (int now = firstTick; now < firstTick + VERIFY_TICKS; now++) {
+            gatherBursts(objects, s, now);
+            for (final DataObject obj : objects) {
+                risk.updateRisk(obj, now);
+                trust.updateTrust(obj, now);
+            }
+            BatchKernels.updateRisk(s.sensitivity, s.suspiciousCount, s.burst, s.risk, s.highRisk, s.anomaly, 0, n);
+            BatchKernels.updateTrust(s.trust, s.lastAccessTime, s.legitCount, s.risk, s.anomaly, now, 0, n);
+            for (int i = 0; i < n; i++) {
+                final DataObject obj = objects.get(i);
+                if (obj.trust != s.trust[i]
+                    || obj.riskStats.risk != s.risk[i]
+                    || obj.riskStats.anomalyScore != s.anomaly[i]
+                    || obj.riskStats.highRiskFlag != s.highRisk[i]) {
+                    if (mismatches++ < 5) {
+                        System.out.println(String.format(Locale.ROOT, "Mismatch at tick %d, object %d: trust %s vs %s, risk %s vs %s",
+                            now, i, obj.trust, s.trust[i], obj.riskStats.risk, s.risk[i]));
+                    }
+                }
+            }
+        }
+        System.out.println(String.format(Locale.ROOT, "Verified %d objects over %d ticks: %d mismatches",
+            n, VERIFY_TICKS, mismatches));
+        if (mismatches > 0) System.exit(1);
+
+        // throughput: same work per round on both paths
+        final int now = firstTick + VERIFY_TICKS;
+        for (int warm = 0; warm < 10; warm++) {
+            perObject(objects, risk, trust, now);
+            batch(s, now, n);
+        }
+        long perObjectNanos = 0;
+        long batchNanos = 0;
+        long gatherNanos = 0;
+        for (int r = 0; r < BENCH_ROUNDS; r++) {
+            long t = System.nanoTime();
+            perObject(objects, risk, trust, now);
+            perObjectNanos += System.nanoTime() - t;
+            t = System.nanoTime();
+            batch(s, now, n);
+            batchNanos += System.nanoTime() - t;
+            t = System.nanoTime();
+            gatherBursts(objects, s, now);
+            gatherNanos += System.nanoTime() - t;
+        }
+        final double perObjectNs = ((double) perObjectNanos) / BENCH_ROUNDS / n;
+        final double batchNs = ((double) batchNanos) / BENCH_ROUNDS / n;
+        final double gatherNs = ((double) gatherNanos) / BENCH_ROUNDS / n;
+        System.out.println("Risk + trust update, one thread, " + n + " objects x " + BENCH_ROUNDS + " rounds");
+        System.out.println(String.format(Locale.ROOT, " - Per object: %.2f ns/object (%.1f M objects/s)", perObjectNs, 1e3 / perObjectNs));
+        System.out.println(String.format(Locale.ROOT, " - Batch kernels: %.2f ns/object (%.1f M objects/s)", batchNs, 1e3 / batchNs));
+        System.out.println(String.format(Locale.ROOT, " - Burst flags from object windows: %.2f ns/object", gatherNs));
+        System.out.println(String.format(Locale.ROOT, " - Speedup: %.2fx kernels only, %.2fx including burst gather",
+            perObjectNs / batchNs, perObjectNs / (batchNs + gatherNs)));
+    }
+
+    private static void perObject(final List<DataObject> objects, final RiskAnalyzer risk, final TrustDecayEngine trust, final int now) {
+        for (final DataObject obj : objects) {
+            risk.updateRisk(obj, now);
+            trust.updateTrust(obj, now);
+        }
+    }
+
+    private static void gatherBursts(final List<DataObject> objects, final State s, final int now) {
+        for (int i = 0; i < s.burst.length; i++) s.burst[i] = objects.get(i).accessStats.burstDetected(now);
+    }
+
+    private static void batch(final State s, final int now, final int n) {
+        BatchKernels.updateRisk(s.sensitivity, s.suspiciousCount, s.burst, s.risk, s.highRisk, s.anomaly, 0, n);
+        BatchKernels.updateTrust(s.trust, s.lastAccessTime, s.legitCount, s.risk, s.anomaly, now, 0, n);
+    }
+
+    private static List<DataObject> createObjects(final Random rnd) {
+        final WorkloadGenerator.Profile[] profiles = WorkloadGenerator.assignProfiles(rnd, OBJECTS);
+        final List<DataObject> objects = TrustDecaySimMain.createObjects(OBJECTS, rnd, profiles);
+        // some access history so window counts, bursts and inactivity vary; the kernels take window counts
+        for (final DataObject obj : objects) {
+            obj.accessStats = WindowAccessStats.EMPTY;
+            final int accesses = rnd.nextInt(Config.ACCESS_WINDOW_W + 5);
+            int time = rnd.nextInt(10);
+            for (int a = 0; a < accesses; a++) {
+                time += rnd.nextInt(3);
+                final boolean suspicious = rnd.nextDouble() < 0.2;
+                obj.recordAccess(time, !suspicious, suspicious);
+                obj.lastAccessTime = time;
+            }
+        }
+        return objects;
+    }
+
+    /** Struct-of-arrays copy of the fields the kernels read and write. */
+    private static final class State {
+        final byte[] sensitivity;
+        final int[] suspiciousCount;
+        final int[] legitCount;
+        final int[] lastAccessTime;
+        final boolean[] burst;
+        final double[] risk;
+        final boolean[] highRisk;
+        final double[] anomaly;
+        final double[] trust;
+
+        private State(final int n) {
+            sensitivity = new byte[n];
+            suspiciousCount = new int[n];
+            legitCount = new int[n];
+            lastAccessTime = new int[n];
+            burst = new boolean[n];
+            risk = new double[n];
+            highRisk = new boolean[n];
+            anomaly = new double[n];
+            trust = new double[n];
+        }
+
+        static State gather(final List<DataObject> objects, final int now) {
+            final State s = new State(objects.size());
+            for (int i = 0; i < objects.size(); i++) {
+                final DataObject obj = objects.get(i);
+                s.sensitivity[i] = (byte) obj.sensitivity.ordinal();
+                final WindowAccessStats window = (WindowAccessStats) obj.accessStats;
+                s.suspiciousCount[i] = window.getSuspiciousCount();
+                s.legitCount[i] = window.getLegitCount();
+                s.lastAccessTime[i] = obj.lastAccessTime;
+                s.burst[i] = obj.accessStats.burstDetected(now);
+                s.risk[i] = obj.riskStats.risk;
+                s.highRisk[i] = obj.riskStats.highRiskFlag;
+                s.anomaly[i] = obj.riskStats.anomalyScore;
+                s.trust[i] = obj.trust;
+            }
+            return s;
+        }
+    }
+}
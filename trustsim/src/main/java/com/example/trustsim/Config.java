@@ -40,14 +40,126 @@ public final class Config {
     public static final int ML_EPOCHS = 200;
     public static final double ML_LEARNING_RATE = 0.01;
     public static final double ML_L2 = 1e-4;
+    public static final String ML_TRAIN_FILE = ""; // train the logistic model from this TrainingDataFile instead
+    public static final long ML_STREAM_CHUNK_BYTES = 64L << 20; // read chunk size for training from a file
+    // Relevance model: gradient-boosted trees instead of logistic regression
+    public static final boolean ML_MODEL_GBT = false;
+    public static final int GBT_TREES = 12;
+    public static final int GBT_DEPTH = 4;
+    public static final double GBT_LEARNING_RATE = 0.3;
+    public static final int GBT_BINS = 64;
+    public static final double GBT_BUDGET_NANOS = 300.0; // per-object inference budget checked by the benchmark
 
     // Logging
     public static final boolean LOG_CHANGED_ONLY = false;
     public static final String DEFAULT_CSV_PATH = "trustsim_audit.csv";
+    // Summary-only audit: one AuditSummaryFile record per AUDIT_SUMMARY_EVERY_TICKS ticks (decision
+    // counts, trust/risk quantiles, a sample of rows) instead of the per-object CSV trail
+    public static final boolean AUDIT_SUMMARY_ONLY = false;
+    public static final String AUDIT_SUMMARY_PATH = "trustsim_audit_summary.bin";
+    public static final int AUDIT_SUMMARY_EVERY_TICKS = 1;
+    public static final int AUDIT_SUMMARY_SAMPLE = 32; // audit rows sampled per record
+
+    // Per-tick time series (histograms, action/reason counts) exported at the end of the run
+    public static final boolean TIME_SERIES_ENABLED = false;
+    public static final int TIME_SERIES_BUCKETS = 10;
+    public static final String TIME_SERIES_PATH = "trustsim_timeseries.bin";
+
+    // JFR stage instrumentation (events are only emitted while a recording enables them)
+    public static final boolean JFR_STAGE_EVENTS = true;
+    public static final int JFR_OBJECT_SAMPLE_EVERY = 1000; // 0 disables per-object events
+
+    // Live Prometheus endpoint on localhost (http://127.0.0.1:<port>/metrics)
+    public static final boolean METRICS_ENDPOINT_ENABLED = false;
+    public static final int METRICS_ENDPOINT_PORT = 9464;
+
+    // Tiered storage backend: real payloads, off-heap HOT arena, compressed COLD segments
+    public static final boolean STORAGE_BACKEND_ENABLED = false;
+    public static final int STORAGE_PAYLOAD_BYTES = 4096;
+    public static final String STORAGE_COLD_DIR = "trustsim_cold";
+    public static final long STORAGE_SEGMENT_BYTES = 16L << 20;
+    public static final double STORAGE_COMPACT_THRESHOLD = 0.5; // compact sealed segments below this live fraction
+
+    // Batched retention actions: ARCHIVE/ANONYMIZE/DELETE queue up and run under a per-tick budget
+    public static final boolean ACTION_QUEUE_ENABLED = false;
+    public static final int ACTION_OPS_PER_TICK = 2000;
+    public static final long ACTION_BYTES_PER_TICK = 8L << 20;
+
+    // Adaptive evaluation cadence: objects are re-evaluated when they could next cross a decision
+    // threshold (or are accessed) instead of every tick
+    public static final boolean ADAPTIVE_CADENCE_ENABLED = false;
+    public static final int ADAPTIVE_MAX_INTERVAL = 32;
+    public static final boolean ADAPTIVE_DRIFT_REPORT = true; // rerun exhaustive vs adaptive and compare
+
+    // Concurrent access-event ingestion: producer threads striped by object id, merged per tick
+    public static final boolean INGEST_CONCURRENT = false;
+    public static final int INGEST_STRIPES = 4;
+    public static final int INGEST_RING_CAPACITY = 1 << 14;
+
+    // Real-time service mode (RetentionServiceMain): wall-clock ticks fed by concurrent event sources
+    public static final int SERVICE_TICK_MILLIS = 100;
+    public static final double SERVICE_DEADLINE_FRACTION = 0.8; // evaluation must finish within this share of a period
+    public static final int SERVICE_TICKS = 200;
+    public static final int SERVICE_SOURCES = 64;
+    public static final int SERVICE_EVENTS_PER_SECOND = 20_000; // across all sources
+    public static final int SERVICE_RING_CAPACITY = 1 << 12;
+
+    // Workload events
+    // Generate access events as packed primitive batches (8 bytes per event) instead of
+    // AccessEvent object lists. Request scores are quantized to multiples of 2^-30.
+    public static final boolean PACKED_EVENTS = true;
+
+    // Memory-mapped object state: per-object records live in a file instead of on the heap
+    public static final boolean STATE_STORE_ENABLED = false;
+    public static final String STATE_STORE_PATH = "trustsim_state.bin";
+
+    // Coordinated campaign detection: sketches of suspicious events per (role, sensitivity) window
+    public static final boolean CAMPAIGN_DETECTION_ENABLED = false;
+    public static final int CAMPAIGN_WINDOW_TICKS = 3;
+    public static final double CAMPAIGN_SIGMAS = 4.0;      // flag counts above baseline mean + k * sd
+    public static final int CAMPAIGN_MIN_EVENTS = 20;      // ... and above this many per window
+    public static final int CAMPAIGN_SKETCH_WIDTH = 4096;  // count-min counters per row
+    public static final int CAMPAIGN_TOP_K = 32;
+    public static final double CAMPAIGN_RISK_WEIGHT = 0.2; // risk add-on at campaign score 1
+    // Add thin campaigns to the workload: one suspicious access each on many sensitive objects
+    public static final boolean WORKLOAD_THIN_CAMPAIGNS = false;
+
+    // Splittable workload: per-(object, tick block) RNG streams, generated in parallel
+    public static final boolean WORKLOAD_SPLITTABLE = false;
+    public static final int WORKLOAD_BLOCK_TICKS = 50;
+    public static final int WORKLOAD_THREADS = 0;          // 0 = all processors
+
+    // Pipelined workload: a producer thread generates ticks ahead while the simulation evaluates
+    public static final boolean WORKLOAD_PIPELINED = false;
+    public static final int WORKLOAD_LOOKAHEAD_TICKS = 4;
+
+    // Live population: drop deleted objects from the tick loop, optionally create objects mid-run
+    public static final boolean POPULATION_COMPACTION = false;
+    public static final int CHURN_CREATE_PER_TICK = 0;     // new objects per tick (with compaction)
+
+    // Initial population from an InventoryFile export (CSV or binary) instead of synthesized objects
+    public static final String INVENTORY_PATH = "";
+    public static final int INVENTORY_LOAD_THREADS = 0;    // 0 = all processors
+
+    // Heap footprint: estimated retained bytes per component, printed at startup, after workload
+    // generation, at the end and every HEAP_REPORT_EVERY_TICKS ticks (0 = no periodic reports)
+    public static final boolean HEAP_REPORT_ENABLED = false;
+    public static final int HEAP_REPORT_EVERY_TICKS = 100;
+
+    // Access statistics: exponentially decayed counters and burst score (constant memory, O(1)
+    // per event) instead of the W-event window
+    public static final boolean ACCESS_STATS_DECAYED = false;
+    public static final double ACCESS_DECAY_HALF_LIFE = 20.0; // ticks, for the access/legit/suspicious counts
+    public static final double ACCESS_BURST_HALF_LIFE = 2.0;  // ticks, for the burst score
+    public static final double ACCESS_BURST_THRESHOLD = 3.0;  // decayed suspicious events
+    public static final boolean ACCESS_STATS_COMPARISON = true; // rerun window vs decayed and compare
 
     // Simulation
     public static final int NUM_OBJECTS = 10_000;
     public static final int SIM_DURATION = 300;
     public static final int TICK_INTERVAL = 1;
+
+    // What-if branching: fork the run at this tick into threshold variants (-1 disables)
+    public static final int FORK_TICK = -1;
 }
 
@@ -0,0 +1,113 @@
+package com.example.trustsim;
+
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.InventoryFile;
+import com.example.trustsim.model.Tier;
+import com.example.trustsim.workload.WorkloadGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes a synthetic inventory in CSV and binary form, then times loading each with one
+ * thread and with all of them. Every load must reproduce the written objects; exits
+ * with status 1 otherwise.
+ *
+ * Usage: {@code InventoryLoadMain [objects] [threads] [dir]}, default 50,000,000 objects,
+ * all processors, the working directory. Objects take about 220 bytes of heap each, so
+ * the default needs a heap of about 12 GiB. Existing files of the same size are reused.
+ */
+public final class InventoryLoadMain {
+    private static final int BLOCK = 1_000_000;
+
+    private InventoryLoadMain() {}
+
+    public static void main(final String[] args) throws IOException {
+        final int numObjects = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final Path dir = Path.of(args.length > 2 ? args[2] : ".");
+        final Path csv = dir.resolve("trustsim_inventory_" + numObjects + ".csv");
+        final Path bin = dir.resolve("trustsim_inventory_" + numObjects + ".bin");
+
+        final long expected = write(numObjects, csv, bin);
+
+        boolean ok = true;
+        for (final Path path : List.of(csv, bin)) {
+            for (final int t : threads > 1 ? new int[] {1, threads} : new int[] {1}) {
+                final InventoryFile.Loader loader = new InventoryFile.Loader(t);
+                List<DataObject> objects = loader.load(path);
+                final long fingerprint = fingerprint(objects);
+                objects = null;
+                System.out.println(" - " + loader.report() + (fingerprint == expected ? "" : ", MISMATCH"));
+                ok &= fingerprint == expected;
+            }
+        }
+        if (!ok) {
+            System.out.println("Loaded objects differ from the written ones");
+            System.exit(1);
+        }
+    }
+
+    /** Writes both files unless present, in blocks of objects; returns the fingerprint of what is written. */
+    private static long write(final int numObjects, final Path csv, final Path bin) throws IOException {
+        final boolean exists = Files.exists(csv) && Files.exists(bin)
+            && Files.size(bin) == InventoryFile.HEADER + (long) numObjects * InventoryFile.RECORD_BYTES;
+        final long t = System.nanoTime();
+        final Random rnd = new Random(7);
+        final Random state = new Random(11);
+        final WorkloadGenerator.Profile[] profiles = WorkloadGenerator.assignProfiles(rnd, numObjects);
+        long fingerprint = 1125899906842597L;
+        try (InventoryFile.Writer c = exists ? null : new InventoryFile.Writer(csv, false);
+             InventoryFile.Writer b = exists ? null : new InventoryFile.Writer(bin, true)) {
+            for (int first = 0; first < numObjects; first += BLOCK) {
+                final int n = Math.min(BLOCK, numObjects - first);
+                for (final DataObject o : TrustDecaySimMain.createObjects(first, n, rnd, profiles)) {
+                    // a population exported mid-life, times relative to the run start; six decimals, as the CSV stores them
+                    final int createdAt = -state.nextInt(1000);
+                    final DataObject obj = new DataObject(
+                        o.id,
+                        o.sensitivity,
+                        Math.round(o.trust * 1e6) / 1e6,
+                        state.nextInt(4) == 0 ? Tier.COLD : Tier.HOT,
+                        state.nextInt(10) == 0,
+                        Math.round(o.baseBusinessValue * 1e6) / 1e6,
+                        createdAt,
+                        createdAt + state.nextInt(1 - createdAt),
+                        o.keepLabelGroundTruth
+                    );
+                    fingerprint = 31 * fingerprint + hash(obj);
+                    if (c != null) {
+                        c.write(obj);
+                        b.write(obj);
+                    }
+                }
+            }
+        }
+        System.out.println(String.format(Locale.ROOT, "Inventory of %d objects %s %s (%.1f MiB) and %s (%.1f MiB) in %.1f s",
+            numObjects, exists ? "reused:" : "written to", csv, Files.size(csv) / (double) (1 << 20),
+            bin, Files.size(bin) / (double) (1 << 20), (System.nanoTime() - t) / 1e9));
+        return fingerprint;
+    }
+
+    private static long fingerprint(final List<DataObject> objects) {
+        long h = 1125899906842597L;
+        for (final DataObject obj : objects) h = 31 * h + hash(obj);
+        return h;
+    }
+
+    private static long hash(final DataObject obj) {
+        long h = obj.id;
+        h = 31 * h + obj.sensitivity.ordinal();
+        h = 31 * h + Double.doubleToLongBits(obj.trust);
+        h = 31 * h + obj.tier.ordinal();
+        h = 31 * h + (obj.anonymized ? 1 : 0);
+        h = 31 * h + Double.doubleToLongBits(obj.baseBusinessValue);
+        h = 31 * h + obj.createdAt;
+        h = 31 * h + obj.lastAccessTime;
+        return 31 * h + (obj.keepLabelGroundTruth ? 1 : 0);
+    }
+}
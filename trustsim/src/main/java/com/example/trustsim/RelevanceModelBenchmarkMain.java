@@ -0,0 +1,56 @@
+package com.example.trustsim;
+
+import com.example.trustsim.ml.GradientBoostedRelevanceModel;
+import com.example.trustsim.ml.MLRelevancePredictor;
+import com.example.trustsim.ml.RelevanceModelBenchmark;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.workload.WorkloadGenerator;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Trains both relevance models and checks the gradient-boosted one against the
+ * per-object inference budget {@link Config#GBT_BUDGET_NANOS}; exits with status 1 when
+ * it is over budget or allocates per call.
+ */
+public final class RelevanceModelBenchmarkMain {
+    private static final int OBJECTS = 200_000;
+    private static final int ROUNDS = 20;
+
+    private RelevanceModelBenchmarkMain() {}
+
+    public static void main(final String[] args) {
+        long t = System.nanoTime();
+        final MLRelevancePredictor logistic = new MLRelevancePredictor();
+        logistic.trainSynthetic();
+        final long logisticMillis = (System.nanoTime() - t) / 1_000_000L;
+
+        t = System.nanoTime();
+        final GradientBoostedRelevanceModel gbt = GradientBoostedRelevanceModel.withDefaults();
+        gbt.trainSynthetic();
+        final long gbtMillis = (System.nanoTime() - t) / 1_000_000L;
+        System.out.println("Training: logistic " + logisticMillis + " ms, GBT " + gbtMillis + " ms");
+
+        final Random rnd = new Random(7);
+        final List<DataObject> objects = TrustDecaySimMain.createObjects(OBJECTS, rnd, WorkloadGenerator.assignProfiles(rnd, OBJECTS));
+        for (final DataObject obj : objects) {
+            // varied windows, risk and trust so every tree path is exercised
+            for (int a = rnd.nextInt(Config.ACCESS_WINDOW_W); a > 0; a--) {
+                final boolean suspicious = rnd.nextDouble() < 0.2;
+                obj.recordAccess(a, !suspicious, suspicious);
+            }
+            obj.trust = rnd.nextDouble();
+            obj.riskStats.risk = rnd.nextDouble();
+            obj.riskStats.anomalyScore = rnd.nextDouble();
+        }
+
+        final RelevanceModelBenchmark.Result r = RelevanceModelBenchmark.run(objects, logistic, gbt, ROUNDS);
+        System.out.println(r);
+        final boolean withinBudget = r.gbtNanos <= Config.GBT_BUDGET_NANOS;
+        System.out.println(String.format(Locale.ROOT, "GBT inference budget %.0f ns/object: %s",
+            Config.GBT_BUDGET_NANOS, withinBudget ? "met" : "EXCEEDED"));
+        if (!withinBudget || r.gbtAllocatedBytes > 0.5) System.exit(1);
+    }
+}
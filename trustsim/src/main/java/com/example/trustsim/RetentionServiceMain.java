@@ -0,0 +1,89 @@
+package com.example.trustsim;
+
+import com.example.trustsim.ingest.LiveInbox;
+import com.example.trustsim.logging.EvidenceLogger;
+import com.example.trustsim.metrics.LiveCounters;
+import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.metrics.PrometheusEndpoint;
+import com.example.trustsim.ml.RelevanceModel;
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.modules.DataAccessMonitoringModule;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.modules.RiskAnalyzer;
+import com.example.trustsim.modules.TrustDecayEngine;
+import com.example.trustsim.service.RetentionService;
+import com.example.trustsim.service.StandInEventSource;
+import com.example.trustsim.sim.TickPipeline;
+import com.example.trustsim.workload.WorkloadGenerator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs the retention pipeline as a real-time service: ticks follow the wall clock and
+ * access events arrive from concurrent stand-in sources instead of a pre-generated workload.
+ */
+public final class RetentionServiceMain {
+    private RetentionServiceMain() {}
+
+    public static void main(final String[] args) throws IOException {
+        final int numObjects = Config.NUM_OBJECTS;
+        final int ticks = Config.SERVICE_TICKS;
+        final int firstTick = Config.GRACE_PERIOD;
+
+        final Random rnd = new Random(7);
+        final WorkloadGenerator.Profile[] profiles = WorkloadGenerator.assignProfiles(rnd, numObjects);
+        final List<DataObject> objects = TrustDecaySimMain.createObjects(numObjects, rnd, profiles);
+
+        final RelevanceModel ml = TrustDecaySimMain.trainRelevanceModel();
+
+        final MetricsComputer metrics = new MetricsComputer(numObjects, ticks);
+        metrics.aggregates().trackAll(objects);
+
+        // the same module chain as the batch simulation
+        final EvidenceLogger logger = EvidenceLogger.discarding(numObjects);
+        final TickPipeline pipeline = new TickPipeline(
+            objects,
+            noPregeneratedEvents(),
+            new DataAccessMonitoringModule(0.55),
+            new RiskAnalyzer(metrics.aggregates()),
+            new TrustDecayEngine(),
+            ml,
+            new RetentionDecisionController(RetentionDecisionController.Thresholds.defaults(), metrics.aggregates()),
+            logger,
+            metrics
+        );
+        final LiveInbox inbox = new LiveInbox(firstTick, Config.SERVICE_RING_CAPACITY);
+        pipeline.setEventFeed(inbox);
+
+        PrometheusEndpoint endpoint = null;
+        if (Config.METRICS_ENDPOINT_ENABLED) {
+            final LiveCounters liveCounters = new LiveCounters(metrics.aggregates(), logger);
+            pipeline.addListener(liveCounters);
+            endpoint = PrometheusEndpoint.start(liveCounters, Config.METRICS_ENDPOINT_PORT);
+            System.out.println("Metrics endpoint: http://127.0.0.1:" + endpoint.port() + "/metrics");
+        }
+
+        try (RetentionService service =
+                 new RetentionService(pipeline, Config.SERVICE_TICK_MILLIS, Config.SERVICE_DEADLINE_FRACTION)) {
+            final double perSource = ((double) Config.SERVICE_EVENTS_PER_SECOND) / Config.SERVICE_SOURCES;
+            for (int i = 0; i < Config.SERVICE_SOURCES; i++) {
+                service.addSource(new StandInEventSource(inbox.newSource(), objects, profiles, perSource, 1000L + i, service::isRunning));
+            }
+            service.run(firstTick, ticks);
+
+            System.out.println(metrics.summarize());
+            System.out.print(service.report());
+            System.out.println(inbox.report());
+        } finally {
+            if (endpoint != null) endpoint.close();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<AccessEvent>[] noPregeneratedEvents() {
+        return new List[0];
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.trustsim;
+
+import com.example.trustsim.ml.MLRelevancePredictor;
+import com.example.trustsim.ml.StreamingTrainer;
+import com.example.trustsim.ml.TrainingDataFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Exports synthetic samples to a {@link TrainingDataFile} and trains the logistic model
+ * from it with {@link StreamingTrainer}.
+ *
+ * Arguments: {@code [rows] [path]} (defaults: {@link Config#ML_TRAIN_SAMPLES}, a temp
+ * file). With the default row count the file holds the in-memory training set, and the
+ * streamed weights are compared against {@link MLRelevancePredictor#trainSynthetic()}.
+ */
+public final class StreamingTrainingMain {
+    private StreamingTrainingMain() {}
+
+    public static void main(final String[] args) throws IOException {
+        final long rows = args.length > 0 ? Long.parseLong(args[0]) : Config.ML_TRAIN_SAMPLES;
+        final Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("trustsim-train", ".bin");
+        final int epochs = Config.ML_EPOCHS;
+
+        long t = System.nanoTime();
+        TrainingDataFile.writeSynthetic(file, rows, 123);
+        System.out.println(String.format(Locale.ROOT, "Wrote %d rows (%.1f MiB) to %s in %d ms",
+            rows, Files.size(file) / 1048576.0, file, (System.nanoTime() - t) / 1_000_000L));
+
+        final MLRelevancePredictor streamed = new MLRelevancePredictor();
+        final StreamingTrainer trainer = new StreamingTrainer(Config.ML_STREAM_CHUNK_BYTES);
+        trainer.train(streamed, file, epochs);
+        final double seconds = trainer.trainMillis() / 1000.0;
+        System.out.println(String.format(Locale.ROOT, "Streamed %d epochs in %.1f s: %.1f M rows/s, %.1f%% waiting for prefetch, %.0f MiB chunks, %.1f MiB read buffers",
+            epochs, seconds, trainer.rowsRead() / seconds / 1e6, 100.0 * trainer.waitFraction(), trainer.chunkBytes() / 1048576.0,
+            trainer.bufferBytes() / 1048576.0));
+
+        final Runtime rt = Runtime.getRuntime();
+        System.gc();
+        System.out.println(String.format(Locale.ROOT, "Heap in use after training: %.1f MiB", (rt.totalMemory() - rt.freeMemory()) / 1048576.0));
+
+        if (rows == Config.ML_TRAIN_SAMPLES) {
+            final MLRelevancePredictor inMemory = new MLRelevancePredictor();
+            inMemory.trainSynthetic();
+            final double[] a = streamed.weights();
+            final double[] b = inMemory.weights();
+            double maxDiff = 0;
+            for (int j = 0; j < a.length; j++) maxDiff = Math.max(maxDiff, Math.abs(a[j] - b[j]));
+            System.out.println(String.format(Locale.ROOT, "Max weight difference vs in-memory training: %.3e (features stored as float)", maxDiff));
+        }
+        if (args.length < 2) Files.delete(file);
+    }
+}
@@ -1,16 +1,43 @@
 package com.example.trustsim;
 
+import com.example.trustsim.ingest.ConcurrentIngestor;
+import com.example.trustsim.logging.AuditSummaryFile;
 import com.example.trustsim.logging.EvidenceLogger;
+import com.example.trustsim.metrics.HeapFootprint;
+import com.example.trustsim.metrics.LiveCounters;
 import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.metrics.PrometheusEndpoint;
+import com.example.trustsim.metrics.TimeSeriesRecorder;
+import com.example.trustsim.ml.GradientBoostedRelevanceModel;
 import com.example.trustsim.ml.MLRelevancePredictor;
+import com.example.trustsim.ml.RelevanceModel;
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.AccessEventBatch;
 import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.InventoryFile;
+import com.example.trustsim.model.MappedObjectStore;
+import com.example.trustsim.model.ObjectPopulation;
 import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.model.StateChangeListener;
 import com.example.trustsim.model.Tier;
+import com.example.trustsim.modules.CampaignDetector;
 import com.example.trustsim.modules.DataAccessMonitoringModule;
+import com.example.trustsim.modules.RetentionActionExecutor;
+import com.example.trustsim.modules.RetentionActionQueue;
 import com.example.trustsim.modules.RetentionDecisionController;
 import com.example.trustsim.modules.RiskAnalyzer;
 import com.example.trustsim.modules.TrustDecayEngine;
+import com.example.trustsim.profiling.HeapLayout;
+import com.example.trustsim.profiling.StageTimer;
+import com.example.trustsim.sim.AdaptiveCadence;
+import com.example.trustsim.sim.AccessStatsComparison;
+import com.example.trustsim.sim.CadenceDriftReport;
+import com.example.trustsim.sim.SimulationSnapshot;
+import com.example.trustsim.sim.TickPipeline;
 import com.example.trustsim.sim.TrustSimControllerEntity;
+import com.example.trustsim.sim.WhatIfBrancher;
+import com.example.trustsim.storage.TieredStorageBackend;
+import com.example.trustsim.workload.PipelinedWorkload;
 import com.example.trustsim.workload.WorkloadGenerator;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -24,9 +51,14 @@ import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Random;
+import java.util.function.Supplier;
 
 /**
  * Main entrypoint for "Trust-Decaying Data Retention Management in Cloud Applications using ML".
@@ -36,7 +68,6 @@ public final class TrustDecaySimMain {
         // Reduce CloudSim Plus log noise (slf4j-simple)
         System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
 
-        final int numObjects = Config.NUM_OBJECTS;
         final int duration = Config.SIM_DURATION;
 
         // CloudSim simulation
@@ -50,33 +81,130 @@ public final class TrustDecaySimMain {
             .setRam(1024).setBw(1000).setSize(10_000);
         broker.submitVm(vm);
 
-        // Create data objects
+        // Create data objects, or load them from an inventory export
         final Random rnd = new Random(7);
-        final WorkloadGenerator.Profile[] profiles = WorkloadGenerator.assignProfiles(rnd, numObjects);
-        final List<DataObject> objects = createObjects(numObjects, rnd, profiles);
+        final WorkloadGenerator.Profile[] profiles;
+        final List<DataObject> objects;
+        if (Config.INVENTORY_PATH.isEmpty()) {
+            profiles = WorkloadGenerator.assignProfiles(rnd, Config.NUM_OBJECTS);
+            objects = createObjects(Config.NUM_OBJECTS, rnd, profiles);
+        } else {
+            final InventoryFile.Loader loader = inventoryLoader();
+            objects = loader.load(Path.of(Config.INVENTORY_PATH));
+            System.out.println(loader.report());
+            profiles = WorkloadGenerator.assignProfiles(rnd, objects.size());
+        }
+        final int numObjects = objects.size();
+        if (Config.ACCESS_STATS_DECAYED
+            && (Config.ADAPTIVE_CADENCE_ENABLED || Config.STATE_STORE_ENABLED || Config.FORK_TICK >= 0)) {
+            // adaptive cadence assumes rates fixed between accesses; the store and snapshots hold windows
+            throw new IllegalStateException("Decayed access statistics need exhaustive evaluation, no state store and no fork");
+        }
+        if (Config.FORK_TICK >= 0
+            && (Config.CAMPAIGN_DETECTION_ENABLED || Config.ACTION_QUEUE_ENABLED || Config.STORAGE_BACKEND_ENABLED)) {
+            // branches continue from object state and metrics only; these keep state of their own
+            throw new IllegalStateException("What-if branches run without campaign detection, action queue and storage backend");
+        }
+        if (Config.ADAPTIVE_CADENCE_ENABLED && Config.CAMPAIGN_DETECTION_ENABLED) {
+            // campaign scores move risk without an access, which the cadence does not schedule for
+            throw new IllegalStateException("Adaptive cadence needs campaign detection off");
+        }
+        // the same initial population again, for the comparison reports
+        final Supplier<List<DataObject>> freshObjects = () -> {
+            if (!Config.INVENTORY_PATH.isEmpty()) {
+                try {
+                    return inventoryLoader().load(Path.of(Config.INVENTORY_PATH));
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            final Random r = new Random(7);
+            return createObjects(numObjects, r, WorkloadGenerator.assignProfiles(r, numObjects));
+        };
+
+        // Objects created mid-run: templates from a separate stream, so the initial ones are unchanged
+        final int churned = Config.POPULATION_COMPACTION ? Config.CHURN_CREATE_PER_TICK * duration : 0;
+        final List<DataObject> allObjects = churned == 0 ? objects : new ArrayList<>(objects);
+        WorkloadGenerator.Profile[] allProfiles = profiles;
+        if (churned > 0) {
+            final Random churnRnd = new Random(8);
+            allProfiles = Arrays.copyOf(profiles, numObjects + churned);
+            System.arraycopy(WorkloadGenerator.assignProfiles(churnRnd, churned), 0, allProfiles, numObjects, churned);
+            allObjects.addAll(createObjects(numObjects, churned, churnRnd, allProfiles));
+        }
+
+        final HeapFootprint footprint = Config.HEAP_REPORT_ENABLED
+            ? new HeapFootprint(HeapLayout.current(), objects, Config.HEAP_REPORT_EVERY_TICKS)
+            : null;
+        if (footprint != null) System.out.println(footprint.measure("startup"));
+
+        // Workload: generated up front, or by a producer thread that overlaps training and evaluation
+        final WorkloadGenerator workload = Config.WORKLOAD_SPLITTABLE
+            ? WorkloadGenerator.splittable(99, Config.WORKLOAD_BLOCK_TICKS, Config.WORKLOAD_THREADS, duration, allObjects, allProfiles)
+            : new WorkloadGenerator(new Random(99), duration, allObjects, allProfiles);
+        final boolean needsEventLists =
+            Config.INGEST_CONCURRENT || (Config.ADAPTIVE_CADENCE_ENABLED && Config.ADAPTIVE_DRIFT_REPORT) || Config.FORK_TICK >= 0
+                || (Config.ACCESS_STATS_DECAYED && Config.ACCESS_STATS_COMPARISON);
+        final PipelinedWorkload pipelinedWorkload = Config.WORKLOAD_PIPELINED
+            ? new PipelinedWorkload(workload, duration, Config.WORKLOAD_LOOKAHEAD_TICKS)
+            : null;
+        if (pipelinedWorkload != null) {
+            if (!Config.PACKED_EVENTS || needsEventLists) {
+                throw new IllegalStateException("Pipelined workload needs packed events and no consumer of whole event lists");
+            }
+            pipelinedWorkload.start();
+        }
 
         // Train ML model before sim starts
-        final MLRelevancePredictor ml = new MLRelevancePredictor();
-        ml.trainSynthetic();
+        final RelevanceModel ml = trainRelevanceModel();
 
-        // Generate workload
-        final WorkloadGenerator workload = new WorkloadGenerator(new Random(99), duration, objects, profiles);
-        final var accessEventsByTime = workload.generate();
+        final AccessEventBatch[] eventBatches = Config.PACKED_EVENTS && pipelinedWorkload == null ? workload.generateBatches() : null;
+        // object lists only for the consumers that still take them
+        final List<AccessEvent>[] accessEventsByTime = pipelinedWorkload != null
+            ? null
+            : eventBatches == null
+                ? workload.generate()
+                : needsEventLists ? AccessEventBatch.unpack(eventBatches) : null;
+        if (footprint != null) {
+            footprint.setEvents(eventBatches, accessEventsByTime);
+            footprint.setModel(ml);
+            System.out.println(footprint.measure("workload generated"));
+        }
 
         // Modules
-        final DataAccessMonitoringModule monitoring = new DataAccessMonitoringModule(0.55);
-        final RiskAnalyzer riskAnalyzer = new RiskAnalyzer();
-        final TrustDecayEngine trustEngine = new TrustDecayEngine();
-        final RetentionDecisionController decisionController = new RetentionDecisionController();
-        final EvidenceLogger logger = EvidenceLogger.createDefault(numObjects);
         // Metrics use the effective evaluation window (post-grace)
         final MetricsComputer metrics = new MetricsComputer(numObjects, duration - Config.GRACE_PERIOD);
+        metrics.aggregates().trackAll(objects);
 
-        // Controller entity: schedules evaluation tick every 1 time unit
-        new TrustSimControllerEntity(
-            simulation,
-            duration,
-            objects,
+        final TieredStorageBackend storage = Config.STORAGE_BACKEND_ENABLED ? createStorage(objects) : null;
+        if (storage != null) metrics.useMeasuredStorage(storage);
+        final StateChangeListener stateListener = storage == null
+            ? metrics.aggregates()
+            : StateChangeListener.of(metrics.aggregates(), storage);
+
+        final DataAccessMonitoringModule monitoring = new DataAccessMonitoringModule(0.55);
+        final RiskAnalyzer riskAnalyzer = new RiskAnalyzer(stateListener);
+        final TrustDecayEngine trustEngine = new TrustDecayEngine();
+        final CampaignDetector campaigns = Config.CAMPAIGN_DETECTION_ENABLED
+            ? new CampaignDetector(Config.CAMPAIGN_WINDOW_TICKS, Config.CAMPAIGN_SIGMAS, Config.CAMPAIGN_MIN_EVENTS,
+                Config.CAMPAIGN_SKETCH_WIDTH, Config.CAMPAIGN_TOP_K)
+            : null;
+        if (campaigns != null) {
+            monitoring.setCampaignDetector(campaigns);
+            riskAnalyzer.setCampaignDetector(campaigns);
+        }
+        final RetentionDecisionController decisionController =
+            new RetentionDecisionController(RetentionDecisionController.Thresholds.defaults(), stateListener);
+        final EvidenceLogger logger = Config.AUDIT_SUMMARY_ONLY
+            ? EvidenceLogger.discarding(allObjects.size())
+            : EvidenceLogger.createDefault(allObjects.size());
+
+        final MappedObjectStore stateStore = Config.STATE_STORE_ENABLED
+            ? MappedObjectStore.create(Path.of(Config.STATE_STORE_PATH), objects, Config.ACCESS_WINDOW_W)
+            : null;
+
+        final TickPipeline pipeline = new TickPipeline(
+            stateStore != null ? stateStore.asList() : objects,
             accessEventsByTime,
             monitoring,
             riskAnalyzer,
@@ -87,11 +215,185 @@ public final class TrustDecaySimMain {
             metrics
         );
 
+        final RetentionActionQueue actionQueue = Config.ACTION_QUEUE_ENABLED
+            ? new RetentionActionQueue(
+                decisionController,
+                RetentionActionExecutor.inPlace(
+                    decisionController,
+                    storage != null ? storage.payloadSize() : Config.STORAGE_PAYLOAD_BYTES
+                ),
+                Config.ACTION_OPS_PER_TICK,
+                Config.ACTION_BYTES_PER_TICK
+            )
+            : null;
+        if (actionQueue != null) pipeline.setActionQueue(actionQueue);
+        if (eventBatches != null) pipeline.setEventBatches(eventBatches);
+        if (pipelinedWorkload != null) pipeline.setPipelinedWorkload(pipelinedWorkload);
+        if (stateStore != null) pipeline.setStateStore(stateStore);
+        if (campaigns != null) pipeline.setCampaignDetector(campaigns);
+
+        final ObjectPopulation population = Config.POPULATION_COMPACTION ? new ObjectPopulation(objects) : null;
+        if (population != null) {
+            pipeline.setPopulation(population, churned == 0 ? null : (id, now) -> {
+                if (id >= allObjects.size()) return null;
+                final DataObject t = allObjects.set(id, null); // the template is only needed once
+                final DataObject obj =
+                    new DataObject(id, t.sensitivity, t.trust, Tier.HOT, false, t.baseBusinessValue, now, now, t.keepLabelGroundTruth);
+                if (storage != null) {
+                    try {
+                        storage.materialize(obj);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return obj;
+            }, Config.CHURN_CREATE_PER_TICK);
+        }
+
+        final ConcurrentIngestor ingestor = Config.INGEST_CONCURRENT
+            ? ConcurrentIngestor.replaying(accessEventsByTime, Config.INGEST_STRIPES, Config.INGEST_RING_CAPACITY)
+            : null;
+        if (ingestor != null) pipeline.setEventFeed(ingestor);
+
+        final AdaptiveCadence cadence = Config.ADAPTIVE_CADENCE_ENABLED
+            ? new AdaptiveCadence(decisionController.thresholds(), ml.maxTrustSlope(), Config.ADAPTIVE_MAX_INTERVAL, duration - 1)
+            : null;
+        if (cadence != null) pipeline.setAdaptiveCadence(cadence);
+
+        if (Config.JFR_STAGE_EVENTS) pipeline.setStageTimer(new StageTimer(Config.JFR_OBJECT_SAMPLE_EVERY));
+
+        final TimeSeriesRecorder timeSeries = Config.TIME_SERIES_ENABLED
+            ? new TimeSeriesRecorder(duration, Config.TIME_SERIES_BUCKETS, allProfiles, metrics.aggregates())
+            : null;
+        if (timeSeries != null) pipeline.addListener(timeSeries);
+
+        final AuditSummaryFile.Writer auditSummary = Config.AUDIT_SUMMARY_ONLY
+            ? new AuditSummaryFile.Writer(Path.of(Config.AUDIT_SUMMARY_PATH), Config.AUDIT_SUMMARY_EVERY_TICKS,
+                Config.AUDIT_SUMMARY_SAMPLE, 13, metrics.aggregates())
+            : null;
+        if (auditSummary != null) pipeline.addListener(auditSummary);
+
+        if (footprint != null) {
+            footprint.setLogger(logger);
+            footprint.setPopulation(population);
+            pipeline.addListener(footprint);
+        }
+
+        PrometheusEndpoint endpoint = null;
+        if (Config.METRICS_ENDPOINT_ENABLED) {
+            final LiveCounters liveCounters = new LiveCounters(metrics.aggregates(), logger);
+            if (actionQueue != null) liveCounters.watch(actionQueue);
+            pipeline.addListener(liveCounters);
+            endpoint = PrometheusEndpoint.start(liveCounters, Config.METRICS_ENDPOINT_PORT);
+            System.out.println("Metrics endpoint: http://127.0.0.1:" + endpoint.port() + "/metrics");
+        }
+
+        // Controller entity: schedules evaluation tick every 1 time unit
+        final TrustSimControllerEntity controller = new TrustSimControllerEntity(simulation, duration, pipeline);
+
+        final SimulationSnapshot[] fork = new SimulationSnapshot[1];
+        if (Config.FORK_TICK >= 0) {
+            controller.forkAt(Config.FORK_TICK, snapshot -> fork[0] = snapshot);
+        }
+
+        if (ingestor != null) ingestor.start();
         simulation.start();
+        if (ingestor != null) ingestor.close();
+        if (pipelinedWorkload != null) pipelinedWorkload.close();
+        if (endpoint != null) endpoint.close();
+        if (auditSummary != null) auditSummary.close();
 
-        final MetricsComputer.Summary summary = metrics.summarize(objects);
+        final MetricsComputer.Summary summary = metrics.summarize();
         System.out.println(summary);
-        System.out.println("CSV audit trail written to: " + Config.DEFAULT_CSV_PATH);
+        if (footprint != null) System.out.println(footprint.measure("end"));
+        if (auditSummary == null) {
+            System.out.println("CSV audit trail written to: " + Config.DEFAULT_CSV_PATH);
+        } else {
+            System.out.println(auditSummary.report() + ", written to: " + Config.AUDIT_SUMMARY_PATH);
+            final AuditSummaryFile.Reader audit = new AuditSummaryFile.Reader(Path.of(Config.AUDIT_SUMMARY_PATH));
+            System.out.println("Rebuilt from the audit summary:");
+            System.out.println(AuditSummaryFile.Reader.summarize(audit.records));
+        }
+        if (ingestor != null) System.out.println(ingestor.report());
+        if (pipelinedWorkload != null) System.out.println(pipelinedWorkload.report());
+        if (cadence != null) System.out.println(cadence.report());
+        if (campaigns != null) System.out.println(campaigns.report());
+        if (population != null) {
+            System.out.println(String.format(Locale.ROOT, "Population: %d live, %d created mid-run, %d deleted objects released",
+                population.liveCount(), population.created(), population.released()));
+        }
+        if (actionQueue != null) System.out.println(actionQueue.report());
+        if (storage != null) {
+            System.out.println(storage.report());
+            storage.close();
+        }
+        if (stateStore != null) {
+            stateStore.checkpoint(duration - 1);
+            System.out.println(String.format(Locale.ROOT, "State store: %d records x %d bytes (%.1f MiB) in %s, checkpointed at tick %d",
+                stateStore.size(), stateStore.recordSize(),
+                ((double) stateStore.size()) * stateStore.recordSize() / (1 << 20),
+                Config.STATE_STORE_PATH, stateStore.checkpointTick()));
+            stateStore.close();
+        }
+        if (timeSeries != null) {
+            timeSeries.exportColumnar(Config.TIME_SERIES_PATH);
+            System.out.println("Time series written to: " + Config.TIME_SERIES_PATH);
+        }
+
+        if (cadence != null && Config.ADAPTIVE_DRIFT_REPORT) {
+            System.out.println(CadenceDriftReport.run(
+                freshObjects,
+                duration,
+                accessEventsByTime,
+                ml,
+                monitoring.requestScoreThreshold(),
+                decisionController.thresholds(),
+                Config.ADAPTIVE_MAX_INTERVAL
+            ));
+        }
+
+        if (Config.ACCESS_STATS_DECAYED && Config.ACCESS_STATS_COMPARISON) {
+            System.out.println(AccessStatsComparison.run(
+                freshObjects,
+                duration,
+                accessEventsByTime,
+                ml,
+                monitoring.requestScoreThreshold(),
+                decisionController.thresholds()
+            ));
+        }
+
+        if (fork[0] != null) {
+            final WhatIfBrancher brancher = new WhatIfBrancher(duration, accessEventsByTime, ml, monitoring.requestScoreThreshold());
+            System.out.println();
+            System.out.println("What-if branches forked at tick " + fork[0].tick + ':');
+            for (final WhatIfBrancher.BranchResult r : brancher.run(fork[0], whatIfVariants())) {
+                System.out.println(r);
+            }
+        }
+    }
+
+    /**
+     * Threshold variants evaluated from {@link Config#FORK_TICK} onward.
+     */
+    private static List<RetentionDecisionController.Thresholds> whatIfVariants() {
+        return List.of(
+            RetentionDecisionController.Thresholds.defaults(),
+            new RetentionDecisionController.Thresholds(Config.T_HIGH, 0.35, Config.R_HIGH, Config.R_MID, Config.P_LOW, Config.P_MID),
+            new RetentionDecisionController.Thresholds(Config.T_HIGH, Config.T_MID, 0.65, Config.R_MID, Config.P_LOW, Config.P_MID)
+        );
+    }
+
+    private static TieredStorageBackend createStorage(final List<DataObject> objects) throws IOException {
+        final TieredStorageBackend storage = new TieredStorageBackend(
+            Config.STORAGE_PAYLOAD_BYTES,
+            Path.of(Config.STORAGE_COLD_DIR),
+            Config.STORAGE_SEGMENT_BYTES,
+            Config.STORAGE_COMPACT_THRESHOLD,
+            objects.size()
+        );
+        storage.materializeAll(objects);
+        return storage;
     }
 
     private static Datacenter createMinimalDatacenter(final CloudSim simulation) {
@@ -101,13 +403,45 @@ public final class TrustDecaySimMain {
         return new DatacenterSimple(simulation, hosts);
     }
 
-    private static List<DataObject> createObjects(
+    /**
+     * The relevance model selected by {@link Config#ML_MODEL_GBT}, trained on synthetic data
+     * or on {@link Config#ML_TRAIN_FILE}.
+     */
+    static RelevanceModel trainRelevanceModel() throws IOException {
+        if (Config.ML_MODEL_GBT) {
+            final GradientBoostedRelevanceModel gbt = GradientBoostedRelevanceModel.withDefaults();
+            gbt.trainSynthetic();
+            return gbt;
+        }
+        final MLRelevancePredictor ml = new MLRelevancePredictor();
+        if (Config.ML_TRAIN_FILE.isEmpty()) ml.trainSynthetic();
+        else ml.trainFromFile(Path.of(Config.ML_TRAIN_FILE));
+        return ml;
+    }
+
+    static InventoryFile.Loader inventoryLoader() {
+        return new InventoryFile.Loader(Config.INVENTORY_LOAD_THREADS > 0
+            ? Config.INVENTORY_LOAD_THREADS
+            : Runtime.getRuntime().availableProcessors());
+    }
+
+    static List<DataObject> createObjects(
+        final int numObjects,
+        final Random rnd,
+        final WorkloadGenerator.Profile[] profiles
+    ) {
+        return createObjects(0, numObjects, rnd, profiles);
+    }
+
+    /** Objects with ids {@code firstId} onwards; {@code profiles} is indexed by id. */
+    static List<DataObject> createObjects(
+        final int firstId,
         final int numObjects,
         final Random rnd,
         final WorkloadGenerator.Profile[] profiles
     ) {
         final List<DataObject> list = new ArrayList<>(numObjects);
-        for (int id = 0; id < numObjects; id++) {
+        for (int id = firstId; id < firstId + numObjects; id++) {
             final Sensitivity sensitivity = sampleSensitivity(rnd);
             final double businessValue = rnd.nextDouble();
 
@@ -0,0 +1,78 @@
+package com.example.trustsim;
+
+import com.example.trustsim.model.AccessEventBatch;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.workload.WorkloadGenerator;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Times workload generation for a large population: the serial generator once, then the
+ * splittable generator at 1, 2, 4, ... threads up to the processor count (at least 4,
+ * so partitioning is exercised on small machines). Every splittable run must produce
+ * the same events; exits with status 1 otherwise.
+ *
+ * Usage: {@code WorkloadScalingMain [objects] [ticks]}, default 1,000,000 objects over
+ * 100 ticks.
+ */
+public final class WorkloadScalingMain {
+    private WorkloadScalingMain() {}
+
+    public static void main(final String[] args) {
+        final int numObjects = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final int duration = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        final Random rnd = new Random(42);
+        final WorkloadGenerator.Profile[] profiles = WorkloadGenerator.assignProfiles(rnd, numObjects);
+        final List<DataObject> objects = TrustDecaySimMain.createObjects(numObjects, rnd, profiles);
+        final int processors = Runtime.getRuntime().availableProcessors();
+        System.out.println("Workload generation, " + numObjects + " objects x " + duration + " ticks, "
+            + processors + " processors");
+
+        long t = System.nanoTime();
+        AccessEventBatch[] batches = new WorkloadGenerator(new Random(99), duration, objects, profiles).generateBatches();
+        final double serialMs = (System.nanoTime() - t) / 1e6;
+        System.out.println(String.format(Locale.ROOT, " - Serial Random: %.0f ms, %d events", serialMs, count(batches)));
+        batches = null;
+
+        final int maxThreads = Math.max(4, processors);
+        long reference = 0;
+        double oneThreadMs = 0;
+        for (int threads = 1; ; threads = Math.min(maxThreads, threads * 2)) {
+            t = System.nanoTime();
+            batches = WorkloadGenerator.splittable(99, Config.WORKLOAD_BLOCK_TICKS, threads, duration, objects, profiles)
+                .generateBatches();
+            final double ms = (System.nanoTime() - t) / 1e6;
+            final long fingerprint = fingerprint(batches);
+            if (threads == 1) {
+                reference = fingerprint;
+                oneThreadMs = ms;
+            }
+            System.out.println(String.format(Locale.ROOT, " - Splittable, %2d threads: %.0f ms (%.2fx), %d events, fingerprint %016x",
+                threads, ms, oneThreadMs / ms, count(batches), fingerprint));
+            batches = null;
+            if (fingerprint != reference) {
+                System.out.println("Splittable output depends on the thread count");
+                System.exit(1);
+            }
+            if (threads == maxThreads) break;
+        }
+    }
+
+    private static long count(final AccessEventBatch[] batches) {
+        long n = 0;
+        for (final AccessEventBatch b : batches) n += b.size();
+        return n;
+    }
+
+    /** Order-sensitive hash of every packed event. */
+    private static long fingerprint(final AccessEventBatch[] batches) {
+        long h = 1125899906842597L;
+        for (final AccessEventBatch b : batches) {
+            h = 31 * h + b.time;
+            for (int i = 0; i < b.size(); i++) h = 31 * h + b.get(i);
+        }
+        return h;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.trustsim.ingest;
+
+import com.example.trustsim.model.AccessEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer / single-consumer ring of access events plus the producer's
+ * watermark: the latest tick whose events have all been offered.
+ *
+ * The producer blocks (spin, then park) while the ring is full. Neither side takes a lock.
+ */
+final class AccessEventRing {
+    private final AccessEvent[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // next slot to read, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next slot to write, written by the producer
+    private volatile int watermark = Integer.MIN_VALUE;
+
+    // producer-local
+    private long producerTail;
+    private long cachedHead;
+    private volatile long stalls; // single writer
+
+    // consumer-local
+    private long consumerHead;
+    private long cachedTail;
+
+    AccessEventRing(final int capacity) {
+        final int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.buffer = new AccessEvent[size];
+        this.mask = size - 1;
+    }
+
+    // ---- producer side
+
+    void offer(final AccessEvent e) {
+        if (producerTail - cachedHead == buffer.length) {
+            cachedHead = head.get();
+            if (producerTail - cachedHead == buffer.length) {
+                stalls = stalls + 1;
+                int spins = 0;
+                do {
+                    if (++spins < 100) Thread.onSpinWait();
+                    else LockSupport.parkNanos(10_000L);
+                    cachedHead = head.get();
+                } while (producerTail - cachedHead == buffer.length);
+            }
+        }
+        buffer[(int) (producerTail & mask)] = e;
+        tail.lazySet(++producerTail);
+    }
+
+    /** Declares every event with {@code time <= tick} offered. */
+    void publishWatermark(final int tick) {
+        watermark = tick;
+    }
+
+    /** Times the producer found the ring full. */
+    long stalls() {
+        return stalls;
+    }
+
+    // ---- consumer side
+
+    int watermark() {
+        return watermark;
+    }
+
+    /** Next event without removing it, or null when the ring is empty. */
+    AccessEvent peek() {
+        if (consumerHead == cachedTail) {
+            cachedTail = tail.get();
+            if (consumerHead == cachedTail) return null;
+        }
+        return buffer[(int) (consumerHead & mask)];
+    }
+
+    void pop() {
+        buffer[(int) (consumerHead & mask)] = null;
+        head.lazySet(++consumerHead);
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.trustsim.ingest;
+
+import com.example.trustsim.model.AccessEvent;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Access-event ingestion that runs concurrently with evaluation.
+ *
+ * Events are striped by object id over {@code stripes} producer threads, each writing
+ * its own {@link AccessEventRing}, so producers never contend. At a tick boundary the
+ * tick thread merges the rings: for each stripe it applies every event up to the tick
+ * once that stripe's watermark has reached it, so a tick always sees exactly the events
+ * stamped with its time, never a partial set. Stripes touch disjoint objects and keep
+ * each object's events in order, which makes results independent of thread timing and
+ * lets the stripes be applied in parallel.
+ *
+ * Events stamped earlier than the tick being merged (e.g. before the first evaluation
+ * tick) are dropped, as the sequential loop never looks at them either.
+ */
+public final class ConcurrentIngestor implements EventFeed, Closeable {
+    private final int stripes;
+    private final AccessEventRing[] rings;
+    private final List<Runnable> producers;
+    private final ExecutorService producerThreads;
+    private final ExecutorService applyThreads;
+    private final List<Callable<long[]>> applyTasks = new ArrayList<>();
+
+    // per-merge state read by the apply tasks
+    private volatile int mergeTick;
+    private volatile Sink mergeSink;
+
+    // stats (tick thread)
+    private long applied;
+    private long dropped;
+    private long mergeNanos;
+    private long waitNanos;
+    private long ticks;
+
+    private ConcurrentIngestor(final int stripes, final int ringCapacity, final List<Runnable> producers) {
+        this.stripes = stripes;
+        this.rings = new AccessEventRing[stripes];
+        for (int s = 0; s < stripes; s++) rings[s] = new AccessEventRing(ringCapacity);
+        this.producers = producers;
+        this.producerThreads = Executors.newFixedThreadPool(stripes, daemon("trustsim-ingest-producer"));
+        this.applyThreads = Executors.newFixedThreadPool(stripes, daemon("trustsim-ingest-apply"));
+        for (int s = 0; s < stripes; s++) {
+            final int stripe = s;
+            applyTasks.add(() -> drain(stripe, mergeTick, mergeSink));
+        }
+    }
+
+    /**
+     * Ingestor whose producers replay pre-generated events, one thread per stripe.
+     */
+    public static ConcurrentIngestor replaying(
+        final List<AccessEvent>[] accessEventsByTime,
+        final int stripes,
+        final int ringCapacity
+    ) {
+        final List<Runnable> producers = new ArrayList<>(stripes);
+        final ConcurrentIngestor ingestor = new ConcurrentIngestor(stripes, ringCapacity, producers);
+        for (int s = 0; s < stripes; s++) {
+            final AccessEventRing ring = ingestor.rings[s];
+            final int stripe = s;
+            producers.add(() -> {
+                for (int t = 0; t < accessEventsByTime.length; t++) {
+                    for (final AccessEvent e : accessEventsByTime[t]) {
+                        if (Math.floorMod(e.dataId, stripes) == stripe) ring.offer(e);
+                    }
+                    ring.publishWatermark(t);
+                }
+                ring.publishWatermark(Integer.MAX_VALUE);
+            });
+        }
+        return ingestor;
+    }
+
+    public void start() {
+        for (final Runnable p : producers) producerThreads.execute(p);
+    }
+
+    public int stripes() {
+        return stripes;
+    }
+
+    /**
+     * Applies every event stamped {@code now}, stripe-parallel when {@code parallel},
+     * otherwise on the calling thread. Returns the number applied.
+     */
+    @Override
+    public int mergeThrough(final int now, final Sink sink, final boolean parallel) {
+        final long start = System.nanoTime();
+        long tickApplied = 0;
+        long tickDropped = 0;
+        long tickWait = 0;
+        if (parallel && stripes > 1) {
+            mergeTick = now;
+            mergeSink = sink;
+            try {
+                for (final Future<long[]> f : applyThreads.invokeAll(applyTasks)) {
+                    final long[] r = f.get();
+                    tickApplied += r[0];
+                    tickDropped += r[1];
+                    tickWait += r[2];
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while merging access events", e);
+            } catch (final ExecutionException e) {
+                throw new IllegalStateException("Access event merge failed", e.getCause());
+            }
+        } else {
+            for (int s = 0; s < stripes; s++) {
+                final long[] r = drain(s, now, sink);
+                tickApplied += r[0];
+                tickDropped += r[1];
+                tickWait += r[2];
+            }
+        }
+        applied += tickApplied;
+        dropped += tickDropped;
+        waitNanos += tickWait;
+        mergeNanos += System.nanoTime() - start;
+        ticks++;
+        return (int) tickApplied;
+    }
+
+    /**
+     * Consumes stripe {@code s} up to {@code now}: keeps draining while waiting for the
+     * producer's watermark so a full ring cannot stall it. Returns {applied, dropped, waitNanos}.
+     */
+    private long[] drain(final int s, final int now, final Sink sink) {
+        final AccessEventRing ring = rings[s];
+        long n = 0;
+        long late = 0;
+        long waitStart = 0;
+        int spins = 0;
+        while (true) {
+            // read the watermark first: everything offered before it is visible after it
+            final boolean complete = ring.watermark() >= now;
+            AccessEvent e;
+            while ((e = ring.peek()) != null && e.time <= now) {
+                ring.pop();
+                if (e.time < now) {
+                    late++;
+                } else {
+                    sink.accept(e);
+                    n++;
+                }
+            }
+            if (complete) break;
+            if (waitStart == 0) waitStart = System.nanoTime();
+            if (++spins < 100) Thread.onSpinWait();
+            else LockSupport.parkNanos(10_000L);
+        }
+        return new long[] {n, late, waitStart == 0 ? 0L : System.nanoTime() - waitStart};
+    }
+
+    public String report() {
+        long stalls = 0;
+        for (final AccessEventRing r : rings) stalls += r.stalls();
+        final double seconds = mergeNanos / 1e9;
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Concurrent Ingestion").append('\n');
+        sb.append(String.format(Locale.ROOT, " - Stripes: %d, ring capacity: %d events%n", stripes, rings[0].capacity()));
+        sb.append(String.format(Locale.ROOT, " - Events applied: %d, dropped as stale (stamped before the merged tick): %d%n", applied, dropped));
+        sb.append(String.format(Locale.ROOT, " - Merge: %.2f ms/tick, %.2f ms total waiting for producers, %.0f events/s%n",
+            ticks == 0 ? 0.0 : mergeNanos / 1e6 / ticks, waitNanos / 1e6, seconds <= 0 ? 0.0 : applied / seconds));
+        sb.append(String.format(Locale.ROOT, " - Producer stalls on full ring: %d%n", stalls));
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        producerThreads.shutdownNow();
+        applyThreads.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(final String name) {
+        final AtomicInteger n = new AtomicInteger();
+        return r -> {
+            final Thread t = new Thread(r, name + '-' + n.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
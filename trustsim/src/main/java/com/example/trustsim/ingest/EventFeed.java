@@ -0,0 +1,19 @@
+package com.example.trustsim.ingest;
+
+import com.example.trustsim.model.AccessEvent;
+
+/**
+ * Source of access events that the tick pipeline merges at each tick boundary.
+ */
+public interface EventFeed {
+    /** Applies one access event; must be safe to call concurrently for different stripes. */
+    interface Sink {
+        void accept(AccessEvent event);
+    }
+
+    /**
+     * Hands every event that belongs to tick {@code now} to {@code sink} and returns how
+     * many were applied. {@code parallel} allows applying from several threads at once.
+     */
+    int mergeThrough(int now, Sink sink, boolean parallel);
+}
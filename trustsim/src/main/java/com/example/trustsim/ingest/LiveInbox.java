@@ -0,0 +1,93 @@
+package com.example.trustsim.ingest;
+
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.Role;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Event feed for live traffic: any number of concurrent sources, each with its own
+ * lock-free ring, stamped with the tick that is open when the event arrives.
+ *
+ * Merging tick {@code now} first opens tick {@code now + 1} for new arrivals, then drains
+ * every ring on the calling thread. An event stamped {@code now} that lands in a ring
+ * after its ring was drained is applied at the next merge and counted as lagging.
+ */
+public final class LiveInbox implements EventFeed {
+    private final int ringCapacity;
+    private volatile Source[] sources = new Source[0];
+    private volatile int openTick;
+
+    // stats (merging thread)
+    private long applied;
+    private long lagging;
+    private long lagTicksSum;
+    private int lagTicksMax;
+
+    public LiveInbox(final int firstTick, final int ringCapacity) {
+        this.openTick = firstTick;
+        this.ringCapacity = ringCapacity;
+    }
+
+    /**
+     * Registers a new source; each source must be used by one thread at a time.
+     */
+    public synchronized Source newSource() {
+        final Source s = new Source(new AccessEventRing(ringCapacity));
+        final Source[] grown = Arrays.copyOf(sources, sources.length + 1);
+        grown[grown.length - 1] = s;
+        sources = grown;
+        return s;
+    }
+
+    public final class Source {
+        private final AccessEventRing ring;
+
+        private Source(final AccessEventRing ring) {
+            this.ring = ring;
+        }
+
+        /** Records an access; blocks while this source's ring is full. */
+        public void offer(final int dataId, final Role role, final boolean legitimate, final double requestScore) {
+            ring.offer(new AccessEvent(openTick, dataId, role, legitimate, requestScore));
+        }
+    }
+
+    @Override
+    public int mergeThrough(final int now, final Sink sink, final boolean parallel) {
+        openTick = now + 1;
+        int n = 0;
+        for (final Source s : sources) {
+            AccessEvent e;
+            while ((e = s.ring.peek()) != null && e.time <= now) {
+                s.ring.pop();
+                sink.accept(e);
+                n++;
+                final int lag = now - e.time;
+                if (lag > 0) {
+                    lagging++;
+                    lagTicksSum += lag;
+                    if (lag > lagTicksMax) lagTicksMax = lag;
+                }
+            }
+        }
+        applied += n;
+        return n;
+    }
+
+    public long applied() {
+        return applied;
+    }
+
+    public String report() {
+        long stalls = 0;
+        for (final Source s : sources) stalls += s.ring.stalls();
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, " - Sources: %d, events applied: %d, source stalls on full ring: %d%n",
+            sources.length, applied, stalls));
+        sb.append(String.format(Locale.ROOT, " - Events applied after their tick: %d (avg %.2f, max %d ticks late)%n",
+            lagging, lagging == 0 ? 0.0 : ((double) lagTicksSum) / lagging, lagTicksMax));
+        return sb.toString();
+    }
+}
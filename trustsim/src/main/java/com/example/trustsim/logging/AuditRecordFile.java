@@ -0,0 +1,222 @@
+package com.example.trustsim.logging;
+
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.ReasonCode;
+import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.model.Tier;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary form of the audit trail, for replaying decisions over recorded rows without
+ * parsing CSV again.
+ *
+ * A {@value #HEADER}-byte header (magic, version, object count, row count) is followed
+ * by fixed {@value #ROW_BYTES}-byte little-endian rows, in audit order:
+ *
+ * <pre>
+ *   off  size  field
+ *     0     4  time
+ *     4     4  dataId
+ *     8     4  trust (float)
+ *    12     4  risk (float, as logged: after the decision was applied)
+ *    16     4  predictedRelevance (float)
+ *    20     1  sensitivity ordinal
+ *    21     1  action ordinal
+ *    22     1  reason ordinal
+ *    23     1  flags: 1 anonymized, 2 accessed in window (accessRate > 0), tier ordinal << 2
+ * </pre>
+ *
+ * The CSV holds 4 decimals, so floats lose nothing; the accessors round back to those
+ * decimals, so thresholds such as {@code risk >= 0.7} compare as they did on the logged value.
+ */
+public final class AuditRecordFile {
+    static final long MAGIC = 0x5452535441554431L; // "TRSTAUD1"
+    static final int VERSION = 1;
+    public static final int HEADER = 32;
+    public static final int ROW_BYTES = 24;
+
+    public static final int F_ANONYMIZED = 1;
+    public static final int F_ACCESSED = 2;
+    public static final int TIER_SHIFT = 2;
+
+    private static final Sensitivity[] SENSITIVITIES = Sensitivity.values();
+    private static final ReasonCode[] REASONS = ReasonCode.values();
+
+    private AuditRecordFile() {}
+
+    /**
+     * Converts the CSV audit trail at {@code csv} into {@code out}; returns the row count.
+     * Reason codes are matched on their audit value.
+     */
+    public static long fromCsv(final Path csv, final Path out) throws IOException {
+        long rows = 0;
+        int maxId = -1;
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             FileChannel ch = FileChannel.open(out,
+                 StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final String header = in.readLine();
+            if (header == null || !header.startsWith("time,dataId,")) throw new IOException("Not an audit trail: " + csv);
+            ch.position(HEADER);
+            final ByteBuffer buf = ByteBuffer.allocateDirect(ROW_BYTES * 8192).order(ByteOrder.LITTLE_ENDIAN);
+            final int[] cut = new int[14];
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                int n = 0;
+                for (int i = 0; i < line.length() && n < cut.length; i++) {
+                    if (line.charAt(i) == ',') cut[n++] = i;
+                }
+                if (n != 13) throw new IOException("Malformed audit row " + (rows + 2) + ": " + line);
+                cut[13] = line.length();
+
+                final int id = Integer.parseInt(line, cut[0] + 1, cut[1], 10);
+                final int flags = (Boolean.parseBoolean(line.substring(cut[11] + 1, cut[12])) ? F_ANONYMIZED : 0)
+                    | (Double.parseDouble(line.substring(cut[3] + 1, cut[4])) > 0.0 ? F_ACCESSED : 0)
+                    | Tier.valueOf(line.substring(cut[10] + 1, cut[11])).ordinal() << TIER_SHIFT;
+                if (buf.remaining() < ROW_BYTES) drain(buf, ch);
+                buf.putInt(Integer.parseInt(line, 0, cut[0], 10));
+                buf.putInt(id);
+                buf.putFloat((float) Double.parseDouble(line.substring(cut[2] + 1, cut[3])));
+                buf.putFloat((float) Double.parseDouble(line.substring(cut[6] + 1, cut[7])));
+                buf.putFloat((float) Double.parseDouble(line.substring(cut[8] + 1, cut[9])));
+                buf.put((byte) Sensitivity.valueOf(line.substring(cut[1] + 1, cut[2])).ordinal());
+                buf.put((byte) Action.valueOf(line.substring(cut[9] + 1, cut[10])).ordinal());
+                buf.put((byte) reason(line.substring(cut[12] + 1, cut[13])).ordinal());
+                buf.put((byte) flags);
+                maxId = Math.max(maxId, id);
+                rows++;
+            }
+            drain(buf, ch);
+            final ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            h.putLong(MAGIC).putInt(VERSION).putInt(maxId + 1).putLong(rows);
+            h.clear();
+            while (h.hasRemaining()) ch.write(h, h.position());
+        }
+        return rows;
+    }
+
+    private static void drain(final ByteBuffer buf, final FileChannel ch) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    private static ReasonCode reason(final String code) throws IOException {
+        for (final ReasonCode r : REASONS) {
+            if (r.code.equals(code)) return r;
+        }
+        throw new IOException("Unknown reason code: " + code);
+    }
+
+    /**
+     * Read-only mapping of a record file; rows are read with the static accessors at
+     * {@link #offset(long)} of {@link #segment(long)}.
+     */
+    public static final class Reader implements Closeable {
+        private static final int ROWS_PER_SEGMENT = (1 << 30) / ROW_BYTES;
+
+        private final FileChannel channel;
+        private final MappedByteBuffer[] segments;
+        private final long rows;
+        private final int objects;
+
+        public Reader(final Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                final ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+                while (h.hasRemaining()) {
+                    if (channel.read(h, h.position()) < 0) throw new IOException("Truncated audit record file: " + path);
+                }
+                h.flip();
+                if (h.getLong() != MAGIC || h.getInt() != VERSION) throw new IOException("Not an audit record file: " + path);
+                this.objects = h.getInt();
+                this.rows = h.getLong();
+                if (channel.size() < HEADER + rows * ROW_BYTES) throw new IOException("Truncated audit record file: " + path);
+                final int n = (int) ((rows + ROWS_PER_SEGMENT - 1) / ROWS_PER_SEGMENT);
+                this.segments = new MappedByteBuffer[n];
+                for (int i = 0; i < n; i++) {
+                    final long first = (long) i * ROWS_PER_SEGMENT;
+                    final long count = Math.min(ROWS_PER_SEGMENT, rows - first);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + first * ROW_BYTES, count * ROW_BYTES);
+                    segments[i].order(ByteOrder.LITTLE_ENDIAN);
+                }
+            } catch (final IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        /** One more than the largest object id in the file. */
+        public int objects() {
+            return objects;
+        }
+
+        public MappedByteBuffer segment(final long row) {
+            return segments[(int) (row / ROWS_PER_SEGMENT)];
+        }
+
+        public static int offset(final long row) {
+            return (int) (row % ROWS_PER_SEGMENT) * ROW_BYTES;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    public static int time(final ByteBuffer b, final int off) {
+        return b.getInt(off);
+    }
+
+    public static int dataId(final ByteBuffer b, final int off) {
+        return b.getInt(off + 4);
+    }
+
+    public static double trust(final ByteBuffer b, final int off) {
+        return decimal(b.getFloat(off + 8));
+    }
+
+    public static double risk(final ByteBuffer b, final int off) {
+        return decimal(b.getFloat(off + 12));
+    }
+
+    public static double predictedRelevance(final ByteBuffer b, final int off) {
+        return decimal(b.getFloat(off + 16));
+    }
+
+    public static Sensitivity sensitivity(final ByteBuffer b, final int off) {
+        return SENSITIVITIES[b.get(off + 20)];
+    }
+
+    public static int action(final ByteBuffer b, final int off) {
+        return b.get(off + 21);
+    }
+
+    public static int reason(final ByteBuffer b, final int off) {
+        return b.get(off + 22);
+    }
+
+    public static int flags(final ByteBuffer b, final int off) {
+        return b.get(off + 23);
+    }
+
+    private static double decimal(final float v) {
+        return Math.round(v * 10_000.0) / 10_000.0;
+    }
+}
@@ -0,0 +1,446 @@
+package com.example.trustsim.logging;
+
+import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.metrics.PopulationAggregates;
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.ReasonCode;
+import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.model.Tier;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.sim.TickListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Aggregate audit trail: one record per interval of N ticks instead of one row per
+ * object and tick, so its size grows with ticks, not with the population.
+ *
+ * A record holds the decision counts by (action, reason, sensitivity, tier after the
+ * decision), trust and risk quantiles of the objects still live, a reservoir sample of
+ * full audit rows for spot checks, and the population counters {@link MetricsComputer}
+ * charges per tick. {@link Reader#summarize(List)} rebuilds the headline metrics from
+ * those counters, to rounding, with the synthetic per-tier storage costs.
+ *
+ * Format (big-endian, {@link DataOutputStream}): long magic "TRSTSUM1", int version,
+ * int ticks per record, int sample capacity, then records until the end of the file:
+ *
+ * <pre>
+ *   int first tick, int last tick
+ *   long baseline object-ticks, long object-ticks per tier, double privacy risk exposure,
+ *   long compliance violations                                      -- summed over the ticks
+ *   long keep-labelled, keep-labelled deleted, not-keep, not-keep archived or deleted,
+ *   long converged objects, converged time sum                       -- at the last tick
+ *   long decisions, long live decisions, double trust sum, double risk sum
+ *   float trust quantiles, float risk quantiles                      -- at {@link #QUANTILES}
+ *   short cells, then per non-zero cell: short cell index, long count
+ *   short sampled rows, then per row: int time, int dataId, byte sensitivity, float trust,
+ *   accessRate, legitRate, suspiciousRate, risk, anomalyScore, predictedRelevance,
+ *   byte action, byte tier, byte anonymized, byte reason
+ * </pre>
+ *
+ * The cell index is ((action * reasons + reason) * sensitivities + sensitivity) * tiers + tier.
+ */
+public final class AuditSummaryFile {
+    static final long MAGIC = 0x5452535453554d31L; // "TRSTSUM1"
+    static final int VERSION = 1;
+
+    /** Quantile levels of the trust and risk columns. */
+    public static final double[] QUANTILES = {0.05, 0.25, 0.5, 0.75, 0.95};
+
+    private static final Action[] ACTIONS = Action.values();
+    private static final ReasonCode[] REASONS = ReasonCode.values();
+    private static final Sensitivity[] SENSITIVITIES = Sensitivity.values();
+    private static final Tier[] TIERS = Tier.values();
+    private static final int CELLS = ACTIONS.length * REASONS.length * SENSITIVITIES.length * TIERS.length;
+    private static final int BINS = 1000; // quantile resolution 0.001
+
+    private AuditSummaryFile() {}
+
+    public static int cell(final Action action, final ReasonCode reason, final Sensitivity sensitivity, final Tier tier) {
+        return ((action.ordinal() * REASONS.length + reason.ordinal()) * SENSITIVITIES.length + sensitivity.ordinal())
+            * TIERS.length + tier.ordinal();
+    }
+
+    /**
+     * Writes the records as a tick listener. Register it on the pipeline together with a
+     * discarding {@link EvidenceLogger}; close it after the last tick to flush a partial
+     * interval.
+     */
+    public static final class Writer implements TickListener, Closeable {
+        private final DataOutputStream out;
+        private final int everyTicks;
+        private final PopulationAggregates aggregates;
+        private final SplittableRandom rnd;
+
+        private final long[] cells = new long[CELLS];
+        private final int[] trustHist = new int[BINS];
+        private final int[] riskHist = new int[BINS];
+        private final Sample sample;
+
+        private int firstTick = -1;
+        private int lastTick;
+        private long baseline;
+        private final long[] tierTicks = new long[TIERS.length];
+        private double privacy;
+        private long compliance;
+        private long decisions;
+        private long live;
+        private double trustSum;
+        private double riskSum;
+        private long seen; // rows offered to the reservoir this interval
+
+        private long records;
+        private long bytes;
+
+        /**
+         * @param everyTicks ticks per record
+         * @param sampleSize audit rows sampled per record
+         * @param aggregates the run's population counters, read at the end of each tick
+         */
+        public Writer(
+            final Path path,
+            final int everyTicks,
+            final int sampleSize,
+            final long seed,
+            final PopulationAggregates aggregates
+        ) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+            this.everyTicks = Math.max(1, everyTicks);
+            this.aggregates = aggregates;
+            this.rnd = new SplittableRandom(seed);
+            this.sample = new Sample(sampleSize);
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.everyTicks);
+            out.writeInt(sampleSize);
+        }
+
+        @Override
+        public void onDecision(
+            final int now,
+            final DataObject obj,
+            final double predictedRelevance,
+            final RetentionDecisionController.Decision decision
+        ) {
+            cells[cell(decision.action, decision.reason, obj.sensitivity, obj.tier)]++;
+            decisions++;
+            if (decision.reason == ReasonCode.ALREADY_DELETED) return;
+            live++;
+            trustSum += obj.trust;
+            riskSum += obj.riskStats.risk;
+            trustHist[bin(obj.trust)]++;
+            riskHist[bin(obj.riskStats.risk)]++;
+
+            // reservoir sampling (algorithm R) over this interval's live rows
+            final long k = seen++;
+            final long slot = k < sample.capacity ? k : rnd.nextLong(k + 1);
+            if (slot < sample.capacity) sample.set((int) slot, now, obj, predictedRelevance, decision);
+        }
+
+        @Override
+        public void onTickEnd(final int now) {
+            if (firstTick < 0) firstTick = now;
+            lastTick = now;
+            for (final Tier t : TIERS) {
+                final long n = aggregates.tierCount(t);
+                baseline += n;
+                tierTicks[t.ordinal()] += n;
+            }
+            privacy += aggregates.sensitiveRiskSum();
+            compliance += aggregates.highRiskHotExposed();
+            if (now - firstTick + 1 >= everyTicks) {
+                try {
+                    writeRecord();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void writeRecord() throws IOException {
+            final int start = out.size();
+            out.writeInt(firstTick);
+            out.writeInt(lastTick);
+            out.writeLong(baseline);
+            for (final long n : tierTicks) out.writeLong(n);
+            out.writeDouble(privacy);
+            out.writeLong(compliance);
+            out.writeLong(aggregates.labelCount(true));
+            out.writeLong(aggregates.tierCount(true, Tier.DELETED));
+            out.writeLong(aggregates.labelCount(false));
+            out.writeLong(aggregates.tierCount(false, Tier.COLD) + aggregates.tierCount(false, Tier.DELETED));
+            out.writeLong(aggregates.convergedCount());
+            out.writeLong(aggregates.convergedTimeSum());
+            out.writeLong(decisions);
+            out.writeLong(live);
+            out.writeDouble(trustSum);
+            out.writeDouble(riskSum);
+            for (final double q : QUANTILES) out.writeFloat(quantile(trustHist, live, q));
+            for (final double q : QUANTILES) out.writeFloat(quantile(riskHist, live, q));
+
+            int nonZero = 0;
+            for (final long n : cells) if (n != 0) nonZero++;
+            out.writeShort(nonZero);
+            for (int c = 0; c < CELLS; c++) {
+                if (cells[c] == 0) continue;
+                out.writeShort(c);
+                out.writeLong(cells[c]);
+            }
+            final int rows = (int) Math.min(seen, sample.capacity);
+            out.writeShort(rows);
+            for (int i = 0; i < rows; i++) sample.write(out, i);
+
+            bytes += out.size() - start;
+            records++;
+            reset();
+        }
+
+        private void reset() {
+            firstTick = -1;
+            baseline = 0;
+            Arrays.fill(tierTicks, 0L);
+            privacy = 0.0;
+            compliance = 0;
+            decisions = 0;
+            live = 0;
+            trustSum = 0.0;
+            riskSum = 0.0;
+            seen = 0;
+            Arrays.fill(cells, 0L);
+            Arrays.fill(trustHist, 0);
+            Arrays.fill(riskHist, 0);
+        }
+
+        public String report() {
+            return String.format(Locale.ROOT, "Audit summary: %d records, %.1f KiB (%.0f B/record), every %d ticks",
+                records, bytes / 1024.0, records == 0 ? 0.0 : ((double) bytes) / records, everyTicks);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (firstTick >= 0) writeRecord();
+            out.close();
+        }
+    }
+
+    private static int bin(final double v) {
+        final int b = (int) (v * BINS);
+        if (b < 0) return 0;
+        return b >= BINS ? BINS - 1 : b;
+    }
+
+    /** Midpoint of the bin holding the {@code q}-quantile; NaN without values. */
+    private static float quantile(final int[] hist, final long n, final double q) {
+        if (n == 0) return Float.NaN;
+        final long rank = Math.max(1L, (long) Math.ceil(q * n));
+        long cum = 0;
+        for (int b = 0; b < BINS; b++) {
+            cum += hist[b];
+            if (cum >= rank) return (float) ((b + 0.5) / BINS);
+        }
+        return 1.0f;
+    }
+
+    /** Fixed-capacity columns of sampled audit rows. */
+    private static final class Sample {
+        final int capacity;
+        final int[] time;
+        final int[] dataId;
+        final float[] values; // 7 per row, in audit column order
+        final byte[] codes;   // sensitivity, action, tier, anonymized, reason per row
+
+        Sample(final int capacity) {
+            this.capacity = capacity;
+            this.time = new int[capacity];
+            this.dataId = new int[capacity];
+            this.values = new float[7 * capacity];
+            this.codes = new byte[5 * capacity];
+        }
+
+        void set(
+            final int i,
+            final int now,
+            final DataObject obj,
+            final double predictedRelevance,
+            final RetentionDecisionController.Decision decision
+        ) {
+            time[i] = now;
+            dataId[i] = obj.id;
+            final int v = 7 * i;
+            values[v] = (float) obj.trust;
+            values[v + 1] = (float) obj.accessStats.accessRate();
+            values[v + 2] = (float) obj.accessStats.legitRate();
+            values[v + 3] = (float) obj.accessStats.suspiciousRate();
+            values[v + 4] = (float) obj.riskStats.risk;
+            values[v + 5] = (float) obj.riskStats.anomalyScore;
+            values[v + 6] = (float) predictedRelevance;
+            final int c = 5 * i;
+            codes[c] = (byte) obj.sensitivity.ordinal();
+            codes[c + 1] = (byte) decision.action.ordinal();
+            codes[c + 2] = (byte) obj.tier.ordinal();
+            codes[c + 3] = (byte) (obj.anonymized ? 1 : 0);
+            codes[c + 4] = (byte) decision.reason.ordinal();
+        }
+
+        void write(final DataOutputStream out, final int i) throws IOException {
+            out.writeInt(time[i]);
+            out.writeInt(dataId[i]);
+            out.writeByte(codes[5 * i]);
+            for (int k = 0; k < 7; k++) out.writeFloat(values[7 * i + k]);
+            for (int k = 1; k < 5; k++) out.writeByte(codes[5 * i + k]);
+        }
+    }
+
+    /** One decoded record; counters as described in the class comment. */
+    public static final class Record {
+        public final int firstTick;
+        public final int lastTick;
+        public final long baselineObjectTicks;
+        public final long[] tierObjectTicks;
+        public final double privacyRiskExposure;
+        public final long complianceViolationIncidents;
+        public final long keepLabelled;
+        public final long keepLabelledDeleted;
+        public final long notKeepLabelled;
+        public final long notKeepArchivedOrDeleted;
+        public final long convergedObjects;
+        public final long convergedTimeSum;
+        public final long decisions;
+        public final long liveDecisions;
+        public final double trustSum;
+        public final double riskSum;
+        public final float[] trustQuantiles;
+        public final float[] riskQuantiles;
+        /** Decision counts by {@link #cell(Action, ReasonCode, Sensitivity, Tier)}. */
+        public final long[] cells;
+        /** Sampled audit rows formatted as CSV audit rows. */
+        public final List<String> sample;
+
+        Record(final DataInputStream in, final int firstTick) throws IOException {
+            this.firstTick = firstTick;
+            this.lastTick = in.readInt();
+            this.baselineObjectTicks = in.readLong();
+            this.tierObjectTicks = new long[TIERS.length];
+            for (int t = 0; t < TIERS.length; t++) tierObjectTicks[t] = in.readLong();
+            this.privacyRiskExposure = in.readDouble();
+            this.complianceViolationIncidents = in.readLong();
+            this.keepLabelled = in.readLong();
+            this.keepLabelledDeleted = in.readLong();
+            this.notKeepLabelled = in.readLong();
+            this.notKeepArchivedOrDeleted = in.readLong();
+            this.convergedObjects = in.readLong();
+            this.convergedTimeSum = in.readLong();
+            this.decisions = in.readLong();
+            this.liveDecisions = in.readLong();
+            this.trustSum = in.readDouble();
+            this.riskSum = in.readDouble();
+            this.trustQuantiles = new float[QUANTILES.length];
+            for (int q = 0; q < QUANTILES.length; q++) trustQuantiles[q] = in.readFloat();
+            this.riskQuantiles = new float[QUANTILES.length];
+            for (int q = 0; q < QUANTILES.length; q++) riskQuantiles[q] = in.readFloat();
+            this.cells = new long[CELLS];
+            final int nonZero = in.readUnsignedShort();
+            for (int i = 0; i < nonZero; i++) {
+                final int c = in.readUnsignedShort();
+                if (c >= CELLS) throw new IOException("Cell index out of range: " + c);
+                cells[c] = in.readLong();
+            }
+            final int rows = in.readUnsignedShort();
+            this.sample = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) sample.add(readRow(in));
+        }
+
+        public long count(final Action action, final ReasonCode reason, final Sensitivity sensitivity, final Tier tier) {
+            return cells[cell(action, reason, sensitivity, tier)];
+        }
+
+        private static String readRow(final DataInputStream in) throws IOException {
+            final int time = in.readInt();
+            final int id = in.readInt();
+            final Sensitivity sensitivity = SENSITIVITIES[in.readUnsignedByte()];
+            final StringBuilder sb = new StringBuilder(128);
+            sb.append(time).append(',').append(id).append(',').append(sensitivity.name());
+            for (int k = 0; k < 7; k++) sb.append(String.format(Locale.ROOT, ",%.4f", in.readFloat()));
+            sb.append(',').append(ACTIONS[in.readUnsignedByte()].name());
+            sb.append(',').append(TIERS[in.readUnsignedByte()].name());
+            sb.append(',').append(in.readUnsignedByte() != 0);
+            sb.append(',').append(REASONS[in.readUnsignedByte()].code);
+            return sb.toString();
+        }
+    }
+
+    /** Reads a whole summary file; it holds one record per interval, so it fits in memory. */
+    public static final class Reader {
+        public final int everyTicks;
+        public final int sampleCapacity;
+        public final List<Record> records;
+
+        public Reader(final Path path) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+                if (in.readLong() != MAGIC) throw new IOException("Not an audit summary file: " + path);
+                final int version = in.readInt();
+                if (version != VERSION) throw new IOException("Unsupported audit summary version " + version + ": " + path);
+                this.everyTicks = in.readInt();
+                this.sampleCapacity = in.readInt();
+                final List<Record> list = new ArrayList<>();
+                while (true) {
+                    final int firstTick;
+                    try {
+                        firstTick = in.readInt();
+                    } catch (final EOFException e) {
+                        break;
+                    }
+                    list.add(new Record(in, firstTick));
+                }
+                this.records = List.copyOf(list);
+            }
+        }
+
+        /**
+         * Headline metrics of the run, as {@link MetricsComputer#summarize()} computes them
+         * with synthetic tier costs (HOT 1, COLD 0.2, DELETED 0).
+         */
+        public static MetricsComputer.Summary summarize(final List<Record> records) {
+            long baseline = 0;
+            final long[] tierTicks = new long[TIERS.length];
+            double privacy = 0.0;
+            long compliance = 0;
+            int ticks = 0;
+            for (final Record r : records) {
+                baseline += r.baselineObjectTicks;
+                for (int t = 0; t < TIERS.length; t++) tierTicks[t] += r.tierObjectTicks[t];
+                privacy += r.privacyRiskExposure;
+                compliance += r.complianceViolationIncidents;
+                ticks += r.lastTick - r.firstTick + 1;
+            }
+            final double actual = tierTicks[Tier.HOT.ordinal()] * 1.0 + tierTicks[Tier.COLD.ordinal()] * 0.2;
+            if (records.isEmpty()) return new MetricsComputer.Summary(0.0, 0.0, 0, -1.0, 0.0, 0.0, 0, 0);
+            final Record last = records.get(records.size() - 1);
+            return new MetricsComputer.Summary(
+                baseline <= 0 ? 0.0 : Math.max(0.0, 1.0 - actual / baseline),
+                privacy,
+                compliance,
+                last.convergedObjects <= 0 ? -1.0 : ((double) last.convergedTimeSum) / last.convergedObjects,
+                last.keepLabelled <= 0 ? 0.0 : ((double) last.keepLabelledDeleted) / last.keepLabelled,
+                last.notKeepLabelled <= 0 ? 0.0 : ((double) last.notKeepArchivedOrDeleted) / last.notKeepLabelled,
+                (int) last.convergedObjects,
+                ticks
+            );
+        }
+    }
+}
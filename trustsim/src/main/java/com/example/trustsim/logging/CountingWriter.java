@@ -0,0 +1,50 @@
+package com.example.trustsim.logging;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Pass-through writer that counts the chars written through it.
+ *
+ * The counter is a plain field: it is only read on the thread that writes.
+ */
+final class CountingWriter extends Writer {
+    private final Writer delegate;
+    private long count;
+
+    CountingWriter(final Writer delegate) {
+        this.delegate = delegate;
+    }
+
+    long count() {
+        return count;
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        delegate.write(c);
+        count++;
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        delegate.write(cbuf, off, len);
+        count += len;
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        delegate.write(str, off, len);
+        count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -3,32 +3,50 @@ package com.example.trustsim.logging;
 import com.example.trustsim.Config;
 import com.example.trustsim.model.Action;
 import com.example.trustsim.model.DataObject;
+import com.example.trustsim.profiling.HeapLayout;
 
 import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
 public final class EvidenceLogger implements Closeable {
-    private final BufferedWriter out;
+    private final Writer out;
+    // chars accepted from callers / chars handed to the file writer
+    private final CountingWriter accepted;
+    private final CountingWriter drained;
     private final boolean logChangedOnly;
     private final Action[] lastActionById;
 
     public EvidenceLogger(final String path, final int numObjects, final boolean logChangedOnly) throws IOException {
-        this.out = new BufferedWriter(new FileWriter(path, StandardCharsets.UTF_8));
+        this(new FileWriter(path, StandardCharsets.UTF_8), numObjects, logChangedOnly);
+    }
+
+    private EvidenceLogger(final Writer sink, final int numObjects, final boolean logChangedOnly) throws IOException {
+        this.drained = sink == null ? null : new CountingWriter(sink);
+        this.accepted = drained == null ? null : new CountingWriter(new BufferedWriter(drained));
+        this.out = accepted;
         this.logChangedOnly = logChangedOnly;
         this.lastActionById = new Action[numObjects];
-        writeHeader();
+        if (out != null) writeHeader();
     }
 
     public static EvidenceLogger createDefault(final int numObjects) throws IOException {
         return new EvidenceLogger(Config.DEFAULT_CSV_PATH, numObjects, Config.LOG_CHANGED_ONLY);
     }
 
+    /**
+     * Logger that drops every row without formatting it (what-if branches).
+     */
+    public static EvidenceLogger discarding(final int numObjects) throws IOException {
+        return new EvidenceLogger((Writer) null, numObjects, false);
+    }
+
     private void writeHeader() throws IOException {
         out.write("time,dataId,sensitivity,trust,accessRate,legitRate,suspiciousRate,risk,anomalyScore,predictedRelevance,action,tier,anonymized,reasonCode");
-        out.newLine();
+        out.write(System.lineSeparator());
         out.flush();
     }
 
@@ -39,6 +57,7 @@ public final class EvidenceLogger implements Closeable {
         final Action action,
         final String reasonCode
     ) throws IOException {
+        if (out == null) return;
         if (logChangedOnly) {
             final Action last = lastActionById[obj.id];
             if (last != null && last == action) {
@@ -74,15 +93,42 @@ public final class EvidenceLogger implements Closeable {
         out.write(Boolean.toString(obj.anonymized));
         out.write(',');
         out.write(reasonCode == null ? "" : reasonCode);
-        out.newLine();
+        out.write(System.lineSeparator());
+    }
+
+    /**
+     * Chars of audit output handed to the file so far (ASCII, so equal to bytes).
+     * Read on the logging thread.
+     */
+    public long bytesWritten() {
+        return drained == null ? 0L : drained.count();
+    }
+
+    /**
+     * Chars accepted but still sitting in the write buffer.
+     */
+    public long bufferedChars() {
+        return accepted == null ? 0L : accepted.count() - drained.count();
+    }
+
+    /**
+     * Estimated heap bytes of the logger: the last-action table and, when writing, the
+     * default 8192-char write buffer and the file encoder's 8192-byte buffer.
+     */
+    public long retainedBytes(final HeapLayout layout) {
+        long bytes = layout.shallow(EvidenceLogger.class) + layout.array(Action.class, lastActionById.length);
+        if (out != null) bytes += layout.array(char.class, 8192) + layout.array(byte.class, 8192);
+        return bytes;
     }
 
     public void flush() throws IOException {
+        if (out == null) return;
         out.flush();
     }
 
     @Override
     public void close() throws IOException {
+        if (out == null) return;
         out.flush();
         out.close();
     }
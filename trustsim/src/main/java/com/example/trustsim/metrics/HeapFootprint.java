@@ -0,0 +1,174 @@
+package com.example.trustsim.metrics;
+
+import com.example.trustsim.logging.EvidenceLogger;
+import com.example.trustsim.ml.RelevanceModel;
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.AccessEventBatch;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.ObjectPopulation;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.profiling.HeapLayout;
+import com.example.trustsim.sim.TickListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Estimated retained heap per component: data objects, their access statistics, the
+ * pre-generated access events, the ML training data and the audit logger.
+ *
+ * Estimates come from {@link HeapLayout} and each component's own
+ * {@code retainedBytes}, walking the live objects, so they are deterministic for a
+ * configuration and comparable between builds; the measured heap in use (garbage
+ * included) is printed alongside. Reports are printed on request and, as a tick
+ * listener, every {@code everyTicks} ticks.
+ */
+public final class HeapFootprint implements TickListener {
+    private final HeapLayout layout;
+    private final List<DataObject> objects;
+    private final int everyTicks;
+
+    private ObjectPopulation population;
+    private AccessEventBatch[] eventBatches;
+    private List<AccessEvent>[] eventLists;
+    private RelevanceModel model;
+    private EvidenceLogger logger;
+
+    /**
+     * @param objects    objects to account for, unless {@link #setPopulation(ObjectPopulation)} supplies the live set
+     * @param everyTicks report at the end of every this many ticks; 0 disables periodic reports
+     */
+    public HeapFootprint(final HeapLayout layout, final List<DataObject> objects, final int everyTicks) {
+        this.layout = layout;
+        this.objects = objects;
+        this.everyTicks = everyTicks;
+    }
+
+    public void setPopulation(final ObjectPopulation population) {
+        this.population = population;
+    }
+
+    /** Pre-generated events; either may be null. */
+    public void setEvents(final AccessEventBatch[] batches, final List<AccessEvent>[] lists) {
+        this.eventBatches = batches;
+        this.eventLists = lists;
+    }
+
+    public void setModel(final RelevanceModel model) {
+        this.model = model;
+    }
+
+    public void setLogger(final EvidenceLogger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void onDecision(
+        final int now,
+        final DataObject obj,
+        final double predictedRelevance,
+        final RetentionDecisionController.Decision decision
+    ) {
+        // nothing per object
+    }
+
+    @Override
+    public void onTickEnd(final int now) {
+        if (everyTicks > 0 && (now + 1) % everyTicks == 0) System.out.println(measure("tick " + now));
+    }
+
+    public Snapshot measure(final String label) {
+        final Snapshot s = new Snapshot(label);
+        if (population != null) {
+            for (int i = 0; i < population.liveCount(); i++) addObject(s, population.live(i));
+        } else {
+            for (final DataObject obj : objects) {
+                if (obj != null) addObject(s, obj);
+            }
+        }
+
+        if (eventBatches != null) {
+            s.eventBytes += layout.array(AccessEventBatch.class, eventBatches.length);
+            for (final AccessEventBatch b : eventBatches) {
+                s.eventBytes += b.retainedBytes(layout);
+                s.events += b.size();
+            }
+        }
+        if (eventLists != null) {
+            // lists are sized to their events; with batches too, both are retained but events count once
+            final long perEvent = layout.shallow(AccessEvent.class) + layout.referenceBytes();
+            long listed = 0;
+            s.eventBytes += layout.array(List.class, eventLists.length);
+            for (final List<AccessEvent> list : eventLists) {
+                s.eventBytes += layout.shallow(ArrayList.class) + layout.array(Object.class, 0) + list.size() * perEvent;
+                listed += list.size();
+            }
+            if (eventBatches == null) s.events = listed;
+        }
+
+        if (model != null) s.trainingBytes = model.trainingBytes(layout);
+        if (logger != null) s.loggerBytes = logger.retainedBytes(layout);
+
+        final Runtime rt = Runtime.getRuntime();
+        s.heapUsed = rt.totalMemory() - rt.freeMemory();
+        s.heapMax = rt.maxMemory();
+        return s;
+    }
+
+    private void addObject(final Snapshot s, final DataObject obj) {
+        s.objects++;
+        s.objectBytes += obj.retainedBytes(layout);
+        s.accessStatsBytes += obj.accessStats.retainedBytes(layout);
+        s.windowEntries += obj.accessStats.windowLength();
+    }
+
+    public final class Snapshot {
+        public final String label;
+        public long objects;
+        public long objectBytes;
+        public long accessStatsBytes;
+        public long windowEntries;
+        public long events;
+        public long eventBytes;
+        /** Peak during training, already released. */
+        public long trainingBytes;
+        public long loggerBytes;
+        public long heapUsed;
+        public long heapMax;
+
+        Snapshot(final String label) {
+            this.label = label;
+        }
+
+        /** Estimated bytes still retained; training data is excluded. */
+        public long retainedBytes() {
+            return objectBytes + accessStatsBytes + eventBytes + loggerBytes;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("Heap Footprint (").append(label).append(", estimated, ").append(layout).append(")\n");
+            sb.append(String.format(Locale.ROOT, " - Data objects: %s for %d (%.1f B/object)%n",
+                mib(objectBytes), objects, perUnit(objectBytes, objects)));
+            sb.append(String.format(Locale.ROOT, " - Access statistics: %s, %d window entries (%.1f B/object)%n",
+                mib(accessStatsBytes), windowEntries, perUnit(accessStatsBytes, objects)));
+            sb.append(String.format(Locale.ROOT, " - Pre-generated events: %s for %d (%.1f B/event)%n",
+                mib(eventBytes), events, perUnit(eventBytes, events)));
+            sb.append(String.format(Locale.ROOT, " - ML training data (released after training): %s%n", mib(trainingBytes)));
+            sb.append(String.format(Locale.ROOT, " - Audit logger: %s%n", mib(loggerBytes)));
+            sb.append(String.format(Locale.ROOT, " - Retained: %s (%.1f B/object); heap in use %s of %s max%n",
+                mib(retainedBytes()), perUnit(retainedBytes(), objects), mib(heapUsed), mib(heapMax)));
+            return sb.toString();
+        }
+    }
+
+    private static double perUnit(final long bytes, final long units) {
+        return units == 0 ? 0.0 : ((double) bytes) / units;
+    }
+
+    private static String mib(final long bytes) {
+        return String.format(Locale.ROOT, "%.2f MiB", bytes / (double) (1 << 20));
+    }
+}
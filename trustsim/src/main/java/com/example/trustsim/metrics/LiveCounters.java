@@ -0,0 +1,128 @@
+package com.example.trustsim.metrics;
+
+import com.example.trustsim.logging.EvidenceLogger;
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.Tier;
+import com.example.trustsim.modules.RetentionActionQueue;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.sim.TickListener;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tick-thread counters published for concurrent readers (the metrics endpoint).
+ *
+ * The tick thread accumulates into plain fields and publishes once per tick end
+ * with atomic stores; readers only load, so a scrape never blocks a tick.
+ */
+public final class LiveCounters implements TickListener {
+    private static final Tier[] TIERS = Tier.values();
+    private static final Action[] ACTIONS = Action.values();
+    /** Ticks the published tick rate is averaged over. */
+    static final int RATE_WINDOW = 32;
+
+    private final PopulationAggregates aggregates;
+    private final EvidenceLogger logger;
+    private RetentionActionQueue actionQueue;
+
+    // tick-thread accumulation
+    private final long[] tickActions = new long[ACTIONS.length];
+    private final long[] tickEndNanos = new long[RATE_WINDOW];
+
+    // published state
+    private final AtomicLongArray tierCounts = new AtomicLongArray(TIERS.length);
+    private final AtomicLongArray actionTotals = new AtomicLongArray(ACTIONS.length);
+    private volatile int currentTick = -1;
+    private volatile long ticksCompleted;
+    private volatile long anonymized;
+    private volatile long auditBytes;
+    private volatile long auditBufferedChars;
+    private volatile long actionQueueDepth;
+    private volatile double ticksPerSecond;
+    private final long startNanos = System.nanoTime();
+
+    public LiveCounters(final PopulationAggregates aggregates, final EvidenceLogger logger) {
+        this.aggregates = aggregates;
+        this.logger = logger;
+    }
+
+    /** Also publishes the depth of {@code queue}; call before the run starts. */
+    public void watch(final RetentionActionQueue queue) {
+        this.actionQueue = queue;
+    }
+
+    @Override
+    public void onDecision(
+        final int now,
+        final DataObject obj,
+        final double predictedRelevance,
+        final RetentionDecisionController.Decision decision
+    ) {
+        tickActions[decision.action.ordinal()]++;
+    }
+
+    @Override
+    public void onTickEnd(final int now) {
+        for (int a = 0; a < ACTIONS.length; a++) {
+            if (tickActions[a] != 0) actionTotals.addAndGet(a, tickActions[a]);
+            tickActions[a] = 0;
+        }
+        for (int t = 0; t < TIERS.length; t++) {
+            tierCounts.set(t, aggregates.tierCount(TIERS[t]));
+        }
+        anonymized = aggregates.anonymizedCount();
+        auditBytes = logger.bytesWritten();
+        auditBufferedChars = logger.bufferedChars();
+        if (actionQueue != null) actionQueueDepth = actionQueue.depth();
+        currentTick = now;
+
+        // rate over the last RATE_WINDOW ticks (fewer until that many have run), measured
+        // here so it does not depend on when or how often the endpoint is scraped
+        final long completed = ticksCompleted + 1; // single writer
+        final long endNanos = System.nanoTime();
+        final int slot = (int) (completed % RATE_WINDOW);
+        final long since = completed > RATE_WINDOW ? tickEndNanos[slot] : startNanos;
+        final long span = Math.min(completed, RATE_WINDOW);
+        tickEndNanos[slot] = endNanos;
+        ticksPerSecond = endNanos > since ? span * 1e9 / (endNanos - since) : 0.0;
+        ticksCompleted = completed;
+    }
+
+    public int currentTick() {
+        return currentTick;
+    }
+
+    public long ticksCompleted() {
+        return ticksCompleted;
+    }
+
+    /** Ticks per second over the last {@value #RATE_WINDOW} completed ticks. */
+    public double ticksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public long tierCount(final Tier tier) {
+        return tierCounts.get(tier.ordinal());
+    }
+
+    public long actionTotal(final Action action) {
+        return actionTotals.get(action.ordinal());
+    }
+
+    public long anonymized() {
+        return anonymized;
+    }
+
+    public long auditBytes() {
+        return auditBytes;
+    }
+
+    public long auditBufferedChars() {
+        return auditBufferedChars;
+    }
+
+    public long actionQueueDepth() {
+        return actionQueueDepth;
+    }
+}
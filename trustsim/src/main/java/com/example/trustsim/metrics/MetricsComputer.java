@@ -1,14 +1,18 @@
 package com.example.trustsim.metrics;
 
 import com.example.trustsim.model.DataObject;
-import com.example.trustsim.model.Sensitivity;
 import com.example.trustsim.model.Tier;
-
-import java.util.List;
+import com.example.trustsim.storage.TieredStorageBackend;
 
 public final class MetricsComputer {
-    private final int numObjects;
+    private static final Tier[] TIERS = Tier.values();
+
+    private int numObjects;
     private final int duration;
+    private final PopulationAggregates aggregates;
+
+    // when set, actual storage cost comes from measured resident bytes
+    private TieredStorageBackend storage;
 
     private double baselineStorageCost;
     private double actualStorageCost;
@@ -17,25 +21,65 @@ public final class MetricsComputer {
     private long complianceViolationIncidents;
 
     public MetricsComputer(final int numObjects, final int duration) {
+        this(numObjects, duration, new PopulationAggregates());
+    }
+
+    private MetricsComputer(final int numObjects, final int duration, final PopulationAggregates aggregates) {
         this.numObjects = numObjects;
         this.duration = duration;
+        this.aggregates = aggregates;
     }
 
-    public void onTickAfterDecision(final List<DataObject> objects) {
-        // baseline: all objects in HOT tier for all ticks (even if we'd delete them)
-        baselineStorageCost += numObjects * 1.0;
+    /**
+     * Live counters; register them as the {@code StateChangeListener} of the modules
+     * that mutate object state, after {@link PopulationAggregates#trackAll}.
+     */
+    public PopulationAggregates aggregates() {
+        return aggregates;
+    }
 
-        for (final DataObject obj : objects) {
-            actualStorageCost += tierCost(obj.tier);
+    /**
+     * Charges measured resident bytes (HOT arena plus compressed COLD segments, in units
+     * of one uncompressed payload) instead of the synthetic per-tier costs.
+     */
+    public void useMeasuredStorage(final TieredStorageBackend storage) {
+        this.storage = storage;
+    }
 
-            if (obj.sensitivity != Sensitivity.NON_SENSITIVE && obj.tier != Tier.DELETED) {
-                privacyRiskExposure += obj.riskStats.risk;
-            }
+    /**
+     * Independent copy of the accumulators, used to continue a forked branch.
+     * The copy charges synthetic tier costs, since a branch has no storage backend.
+     */
+    public MetricsComputer copy() {
+        final MetricsComputer c = new MetricsComputer(numObjects, duration, aggregates.copy());
+        c.baselineStorageCost = baselineStorageCost;
+        c.actualStorageCost = actualStorageCost;
+        c.privacyRiskExposure = privacyRiskExposure;
+        c.complianceViolationIncidents = complianceViolationIncidents;
+        return c;
+    }
+
+    /**
+     * Counts an object created mid-run: it joins the aggregates and the all-HOT baseline.
+     */
+    public void onObjectCreated(final DataObject obj) {
+        numObjects++;
+        aggregates.track(obj);
+    }
+
+    public void onTickAfterDecision() {
+        // baseline: all objects in HOT tier for all ticks (even if we'd delete them)
+        baselineStorageCost += numObjects * 1.0;
 
-            if (obj.riskStats.highRiskFlag && obj.tier == Tier.HOT && !obj.anonymized) {
-                complianceViolationIncidents++;
+        if (storage != null) {
+            actualStorageCost += ((double) (storage.hotBytes() + storage.coldBytes())) / storage.payloadSize();
+        } else {
+            for (final Tier tier : TIERS) {
+                actualStorageCost += aggregates.tierCount(tier) * tierCost(tier);
             }
         }
+        privacyRiskExposure += aggregates.sensitiveRiskSum();
+        complianceViolationIncidents += aggregates.highRiskHotExposed();
     }
 
     private static double tierCost(final Tier tier) {
@@ -51,31 +95,17 @@ public final class MetricsComputer {
         }
     }
 
-    public Summary summarize(final List<DataObject> objects) {
-        long keepTrue = 0;
-        long keepTrueDeleted = 0;
-        long keepFalse = 0;
-        long keepFalseArchivedOrDeleted = 0;
-
-        long convergedCount = 0;
-        long convergedTimeSum = 0;
-
-        for (final DataObject obj : objects) {
-            if (obj.keepLabelGroundTruth) {
-                keepTrue++;
-                if (obj.tier == Tier.DELETED) keepTrueDeleted++;
-            } else {
-                keepFalse++;
-                if (obj.tier == Tier.HOT) {
-                }
-                if (obj.tier == Tier.COLD || obj.tier == Tier.DELETED) keepFalseArchivedOrDeleted++;
-            }
-
-            if (obj.trustConvergenceTime >= 0) {
-                convergedCount++;
-                convergedTimeSum += obj.trustConvergenceTime;
-            }
-        }
+    /**
+     * Summary of the run so far; valid at any tick.
+     */
+    public Summary summarize() {
+        final long keepTrue = aggregates.labelCount(true);
+        final long keepTrueDeleted = aggregates.tierCount(true, Tier.DELETED);
+        final long keepFalse = aggregates.labelCount(false);
+        final long keepFalseArchivedOrDeleted = aggregates.tierCount(false, Tier.COLD) + aggregates.tierCount(false, Tier.DELETED);
+
+        final long convergedCount = aggregates.convergedCount();
+        final long convergedTimeSum = aggregates.convergedTimeSum();
 
         final double storageCostReduction = baselineStorageCost <= 0
             ? 0.0
@@ -0,0 +1,132 @@
+package com.example.trustsim.metrics;
+
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.model.StateChangeListener;
+import com.example.trustsim.model.Tier;
+
+import java.util.List;
+
+/**
+ * Population-wide counters kept current on every state transition, so per-tick
+ * metrics and summaries never rescan the object list.
+ *
+ * Risk sums are kept in 32-bit fixed point: removing an object subtracts exactly
+ * what adding it contributed, so the sums do not drift over long runs.
+ */
+public final class PopulationAggregates implements StateChangeListener {
+    private static final double RISK_SCALE = 4294967296.0; // 2^32
+    private static final int TIERS = Tier.values().length;
+
+    private final long[] tierCount = new long[TIERS];
+    // [keepLabelGroundTruth ? 1 : 0][tier]
+    private final long[][] tierCountByLabel = new long[2][TIERS];
+    // live (non-deleted) objects only
+    private final long[] riskSumBySensitivity = new long[Sensitivity.values().length];
+    private long highRiskHotExposed;
+    private long anonymizedCount;
+
+    private long convergedCount;
+    private long convergedTimeSum;
+
+    public void trackAll(final List<DataObject> objects) {
+        for (final DataObject obj : objects) track(obj);
+    }
+
+    /** Adds one object that was not tracked before. */
+    public void track(final DataObject obj) {
+        add(obj, 1);
+        if (obj.trustConvergenceTime >= 0) onTrustConverged(obj);
+    }
+
+    @Override
+    public void beforeChange(final DataObject obj) {
+        add(obj, -1);
+    }
+
+    @Override
+    public void afterChange(final DataObject obj) {
+        add(obj, 1);
+    }
+
+    public void onTrustConverged(final DataObject obj) {
+        convergedCount++;
+        convergedTimeSum += obj.trustConvergenceTime;
+    }
+
+    private void add(final DataObject obj, final int sign) {
+        final int tier = obj.tier.ordinal();
+        tierCount[tier] += sign;
+        tierCountByLabel[obj.keepLabelGroundTruth ? 1 : 0][tier] += sign;
+        if (obj.tier != Tier.DELETED) {
+            riskSumBySensitivity[obj.sensitivity.ordinal()] += sign * Math.round(obj.riskStats.risk * RISK_SCALE);
+        }
+        if (obj.riskStats.highRiskFlag && obj.tier == Tier.HOT && !obj.anonymized) {
+            highRiskHotExposed += sign;
+        }
+        if (obj.anonymized) anonymizedCount += sign;
+    }
+
+    public long tierCount(final Tier tier) {
+        return tierCount[tier.ordinal()];
+    }
+
+    public long tierCount(final boolean keepLabel, final Tier tier) {
+        return tierCountByLabel[keepLabel ? 1 : 0][tier.ordinal()];
+    }
+
+    public long labelCount(final boolean keepLabel) {
+        long n = 0;
+        for (final long c : tierCountByLabel[keepLabel ? 1 : 0]) n += c;
+        return n;
+    }
+
+    /**
+     * Sum of current risk over live objects of the given sensitivity.
+     */
+    public double riskSum(final Sensitivity s) {
+        return riskSumBySensitivity[s.ordinal()] / RISK_SCALE;
+    }
+
+    /**
+     * Sum of current risk over live sensitive (non NON_SENSITIVE) objects.
+     */
+    public double sensitiveRiskSum() {
+        long sum = 0;
+        for (int i = 0; i < riskSumBySensitivity.length; i++) {
+            if (i != Sensitivity.NON_SENSITIVE.ordinal()) sum += riskSumBySensitivity[i];
+        }
+        return sum / RISK_SCALE;
+    }
+
+    /**
+     * Objects that are high-risk, HOT and not anonymized.
+     */
+    public long highRiskHotExposed() {
+        return highRiskHotExposed;
+    }
+
+    public long anonymizedCount() {
+        return anonymizedCount;
+    }
+
+    public long convergedCount() {
+        return convergedCount;
+    }
+
+    public long convergedTimeSum() {
+        return convergedTimeSum;
+    }
+
+    PopulationAggregates copy() {
+        final PopulationAggregates c = new PopulationAggregates();
+        System.arraycopy(tierCount, 0, c.tierCount, 0, TIERS);
+        for (int l = 0; l < 2; l++) System.arraycopy(tierCountByLabel[l], 0, c.tierCountByLabel[l], 0, TIERS);
+        System.arraycopy(riskSumBySensitivity, 0, c.riskSumBySensitivity, 0, riskSumBySensitivity.length);
+        c.highRiskHotExposed = highRiskHotExposed;
+        c.anonymizedCount = anonymizedCount;
+        c.convergedCount = convergedCount;
+        c.convergedTimeSum = convergedTimeSum;
+        return c;
+    }
+}
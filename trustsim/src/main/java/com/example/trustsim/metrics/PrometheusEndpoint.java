@@ -0,0 +1,140 @@
+package com.example.trustsim.metrics;
+
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.Tier;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Localhost-only HTTP endpoint serving {@link LiveCounters} and JVM heap/GC stats in
+ * Prometheus text format at {@code /metrics}.
+ *
+ * Requests are served on one daemon thread and only read published counters.
+ */
+public final class PrometheusEndpoint implements Closeable {
+    private final LiveCounters counters;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PrometheusEndpoint(final LiveCounters counters, final HttpServer server, final ExecutorService executor) {
+        this.counters = counters;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static PrometheusEndpoint start(final LiveCounters counters, final int port) throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            final Thread t = new Thread(r, "trustsim-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        final PrometheusEndpoint endpoint = new PrometheusEndpoint(counters, server, executor);
+        server.createContext("/metrics", endpoint::handle);
+        server.setExecutor(executor);
+        server.start();
+        return endpoint;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    String render() {
+        final StringBuilder sb = new StringBuilder(2048);
+
+        gauge(sb, "trustsim_tick", "Last completed simulation tick", counters.currentTick());
+        counter(sb, "trustsim_ticks_completed_total", "Evaluation ticks completed", counters.ticksCompleted());
+        gauge(sb, "trustsim_ticks_per_second", "Tick rate over the last " + LiveCounters.RATE_WINDOW + " ticks", counters.ticksPerSecond());
+
+        header(sb, "trustsim_objects", "gauge", "Objects per storage tier");
+        for (final Tier tier : Tier.values()) {
+            sample(sb, "trustsim_objects{tier=\"" + tier.name() + "\"}", counters.tierCount(tier));
+        }
+        gauge(sb, "trustsim_objects_anonymized", "Anonymized live objects", counters.anonymized());
+
+        header(sb, "trustsim_actions_total", "counter", "Retention actions decided, by type");
+        for (final Action action : Action.values()) {
+            sample(sb, "trustsim_actions_total{action=\"" + action.name() + "\"}", counters.actionTotal(action));
+        }
+
+        gauge(sb, "trustsim_action_queue_depth", "Retention actions waiting for execution", counters.actionQueueDepth());
+
+        counter(sb, "trustsim_audit_bytes_written_total", "Audit trail bytes handed to the file", counters.auditBytes());
+        gauge(sb, "trustsim_audit_buffered_chars", "Audit chars waiting in the write buffer", counters.auditBufferedChars());
+
+        final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        gauge(sb, "jvm_heap_used_bytes", "Used heap", heap.getUsed());
+        gauge(sb, "jvm_heap_committed_bytes", "Committed heap", heap.getCommitted());
+        gauge(sb, "jvm_heap_max_bytes", "Max heap (-1 if undefined)", heap.getMax());
+
+        header(sb, "jvm_gc_collections_total", "counter", "GC collections by collector");
+        for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(sb, "jvm_gc_collections_total{gc=\"" + gc.getName() + "\"}", gc.getCollectionCount());
+        }
+        header(sb, "jvm_gc_collection_seconds_total", "counter", "GC time by collector");
+        for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(sb, "jvm_gc_collection_seconds_total{gc=\"" + gc.getName() + "\"}", gc.getCollectionTime() / 1000.0);
+        }
+        return sb.toString();
+    }
+
+    private static void gauge(final StringBuilder sb, final String name, final String help, final double value) {
+        header(sb, name, "gauge", help);
+        sample(sb, name, value);
+    }
+
+    private static void counter(final StringBuilder sb, final String name, final String help, final double value) {
+        header(sb, name, "counter", help);
+        sample(sb, name, value);
+    }
+
+    private static void header(final StringBuilder sb, final String name, final String type, final String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(final StringBuilder sb, final String series, final double value) {
+        sb.append(series).append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(String.format(Locale.ROOT, "%.6f", value));
+        }
+        sb.append('\n');
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
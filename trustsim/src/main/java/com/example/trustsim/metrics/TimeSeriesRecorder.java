@@ -0,0 +1,169 @@
+package com.example.trustsim.metrics;
+
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.ReasonCode;
+import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.model.Tier;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.sim.TickListener;
+import com.example.trustsim.workload.WorkloadGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Per-tick time series: fixed-bucket trust and risk histograms by (sensitivity, workload
+ * profile), action and reason counts, tier mix and per-sensitivity risk sums.
+ *
+ * All storage is preallocated for the whole run, so recording is a few array
+ * increments per object and allocates nothing.
+ *
+ * Export format (big-endian, column-major): int magic "TSTS", short version, int rows,
+ * int columns, then for each column its name (modified UTF-8) and type byte
+ * (0 = int, 1 = long, 2 = double), then each column's values in row order.
+ */
+public final class TimeSeriesRecorder implements TickListener {
+    private static final int MAGIC = 0x54535453; // "TSTS"
+    private static final short VERSION = 1;
+    private static final byte INT = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+
+    private static final Sensitivity[] SENSITIVITIES = Sensitivity.values();
+    private static final WorkloadGenerator.Profile[] PROFILES = WorkloadGenerator.Profile.values();
+    private static final Tier[] TIERS = Tier.values();
+    private static final Action[] ACTIONS = Action.values();
+    private static final ReasonCode[] REASONS = ReasonCode.values();
+
+    private final int duration;
+    private final int buckets;
+    private final WorkloadGenerator.Profile[] profileById;
+    private final PopulationAggregates aggregates;
+
+    // histogram cell count per tick: sensitivity x profile x bucket
+    private final int histStride;
+    private final int[] trustHist;
+    private final int[] riskHist;
+    private final int[] actionCounts;
+    private final int[] reasonCounts;
+    private final long[] tierCounts;
+    private final double[] riskSums;
+    private final boolean[] recorded;
+
+    public TimeSeriesRecorder(
+        final int duration,
+        final int buckets,
+        final WorkloadGenerator.Profile[] profileById,
+        final PopulationAggregates aggregates
+    ) {
+        this.duration = duration;
+        this.buckets = buckets;
+        this.profileById = profileById;
+        this.aggregates = aggregates;
+
+        this.histStride = SENSITIVITIES.length * PROFILES.length * buckets;
+        this.trustHist = new int[duration * histStride];
+        this.riskHist = new int[duration * histStride];
+        this.actionCounts = new int[duration * ACTIONS.length];
+        this.reasonCounts = new int[duration * REASONS.length];
+        this.tierCounts = new long[duration * TIERS.length];
+        this.riskSums = new double[duration * SENSITIVITIES.length];
+        this.recorded = new boolean[duration];
+    }
+
+    @Override
+    public void onDecision(
+        final int now,
+        final DataObject obj,
+        final double predictedRelevance,
+        final RetentionDecisionController.Decision decision
+    ) {
+        if (now < 0 || now >= duration) return;
+        actionCounts[now * ACTIONS.length + decision.action.ordinal()]++;
+        reasonCounts[now * REASONS.length + decision.reason.ordinal()]++;
+
+        if (obj.isDeleted()) return;
+        final int cell = now * histStride
+            + (obj.sensitivity.ordinal() * PROFILES.length + profileById[obj.id].ordinal()) * buckets;
+        trustHist[cell + bucket(obj.trust)]++;
+        riskHist[cell + bucket(obj.riskStats.risk)]++;
+    }
+
+    @Override
+    public void onTickEnd(final int now) {
+        if (now < 0 || now >= duration) return;
+        recorded[now] = true;
+        for (int t = 0; t < TIERS.length; t++) {
+            tierCounts[now * TIERS.length + t] = aggregates.tierCount(TIERS[t]);
+        }
+        for (int s = 0; s < SENSITIVITIES.length; s++) {
+            riskSums[now * SENSITIVITIES.length + s] = aggregates.riskSum(SENSITIVITIES[s]);
+        }
+    }
+
+    private int bucket(final double v) {
+        final int b = (int) (v * buckets);
+        if (b < 0) return 0;
+        return b >= buckets ? buckets - 1 : b;
+    }
+
+    public void exportColumnar(final String path) throws IOException {
+        int rows = 0;
+        for (final boolean r : recorded) if (r) rows++;
+        final int[] ticks = new int[rows];
+        for (int t = 0, i = 0; t < duration; t++) if (recorded[t]) ticks[i++] = t;
+
+        final int columns = 1 + TIERS.length + SENSITIVITIES.length + ACTIONS.length + REASONS.length + 2 * histStride;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(rows);
+            out.writeInt(columns);
+
+            // column directory
+            writeColumnHeader(out, "tick", INT);
+            for (final Tier t : TIERS) writeColumnHeader(out, "tier_" + t.name(), LONG);
+            for (final Sensitivity s : SENSITIVITIES) writeColumnHeader(out, "risk_sum_" + s.name(), DOUBLE);
+            for (final Action a : ACTIONS) writeColumnHeader(out, "action_" + a.name(), INT);
+            for (final ReasonCode r : REASONS) writeColumnHeader(out, "reason_" + r.code, INT);
+            for (final String h : new String[] {"trust", "risk"}) {
+                for (final Sensitivity s : SENSITIVITIES) {
+                    for (final WorkloadGenerator.Profile p : PROFILES) {
+                        for (int b = 0; b < buckets; b++) {
+                            writeColumnHeader(out, h + '_' + s.name() + '_' + p.name() + "_b" + b, INT);
+                        }
+                    }
+                }
+            }
+
+            // column data
+            for (final int t : ticks) out.writeInt(t);
+            for (int c = 0; c < TIERS.length; c++) {
+                for (final int t : ticks) out.writeLong(tierCounts[t * TIERS.length + c]);
+            }
+            for (int c = 0; c < SENSITIVITIES.length; c++) {
+                for (final int t : ticks) out.writeDouble(riskSums[t * SENSITIVITIES.length + c]);
+            }
+            writeIntColumns(out, ticks, actionCounts, ACTIONS.length);
+            writeIntColumns(out, ticks, reasonCounts, REASONS.length);
+            writeIntColumns(out, ticks, trustHist, histStride);
+            writeIntColumns(out, ticks, riskHist, histStride);
+        }
+    }
+
+    private static void writeColumnHeader(final DataOutputStream out, final String name, final byte type) throws IOException {
+        out.writeUTF(name);
+        out.writeByte(type);
+    }
+
+    private static void writeIntColumns(final DataOutputStream out, final int[] ticks, final int[] data, final int stride)
+        throws IOException {
+        for (int c = 0; c < stride; c++) {
+            for (final int t : ticks) out.writeInt(data[t * stride + c]);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.trustsim.ml;
+
+import com.example.trustsim.Config;
+import com.example.trustsim.MathUtil;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.profiling.HeapLayout;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Gradient-boosted regression trees on the logistic loss, trained on the same synthetic
+ * samples as {@link MLRelevancePredictor}, so it can pick up interactions such as
+ * "valuable but under attack" that a linear model cannot.
+ *
+ * Every tree is complete to a fixed depth and stored in flat arrays: internal node
+ * {@code i} of tree {@code t} sits at {@code t * INTERNAL + i} in {@code splitFeature}
+ * and {@code splitThreshold}, its children are nodes {@code 2i + 1} and {@code 2i + 2},
+ * and the leaves follow at {@code t * LEAVES} in {@code leafValue}. A walk is
+ * {@code depth} compare-and-index steps per tree with no branches on tree shape.
+ * Nodes that did not split carry an infinite threshold, sending everything left.
+ *
+ * Training is histogram based: each feature is cut into at most {@code bins} quantile
+ * bins once, and split search scans per-node gradient histograms.
+ */
+public final class GradientBoostedRelevanceModel implements RelevanceModel {
+    private static final int FEATURES = SyntheticRelevanceData.DIM - 1; // without the bias term
+    private static final double LAMBDA = 1.0;          // L2 on leaf values
+    private static final double MIN_CHILD_HESSIAN = 1.0;
+
+    private static final ThreadLocal<double[]> FEATURE_SCRATCH =
+        ThreadLocal.withInitial(() -> new double[SyntheticRelevanceData.DIM]);
+
+    private final int trees;
+    private final int depth;
+    private final double learningRate;
+    private final int bins;
+    private final int internal;
+    private final int leaves;
+
+    private double baseScore;
+    private int trainedSamples;
+    private final int[] splitFeature;
+    private final double[] splitThreshold;
+    private final double[] leafValue;
+
+    public GradientBoostedRelevanceModel(final int trees, final int depth, final double learningRate, final int bins) {
+        if (depth < 1 || depth > 12) throw new IllegalArgumentException("Depth: " + depth);
+        if (bins < 2 || bins > 256) throw new IllegalArgumentException("Bins: " + bins);
+        this.trees = trees;
+        this.depth = depth;
+        this.learningRate = learningRate;
+        this.bins = bins;
+        this.internal = (1 << depth) - 1;
+        this.leaves = 1 << depth;
+        this.splitFeature = new int[trees * internal];
+        this.splitThreshold = new double[trees * internal];
+        this.leafValue = new double[trees * leaves];
+        Arrays.fill(splitThreshold, Double.POSITIVE_INFINITY);
+    }
+
+    /** Model with the {@link Config} GBT_* settings. */
+    public static GradientBoostedRelevanceModel withDefaults() {
+        return new GradientBoostedRelevanceModel(Config.GBT_TREES, Config.GBT_DEPTH, Config.GBT_LEARNING_RATE, Config.GBT_BINS);
+    }
+
+    public void trainSynthetic() {
+        train(SyntheticRelevanceData.generate(new Random(123), Config.ML_TRAIN_SAMPLES));
+    }
+
+    void train(final SyntheticRelevanceData data) {
+        final int n = data.size();
+        trainedSamples = n;
+        final double[][] edges = new double[FEATURES][];
+        final byte[][] bin = new byte[FEATURES][n];
+        for (int f = 0; f < FEATURES; f++) {
+            edges[f] = binEdges(data.x, f + 1, bins);
+            for (int i = 0; i < n; i++) bin[f][i] = (byte) binOf(edges[f], data.x[i][f + 1]);
+        }
+
+        double positives = 0;
+        for (final int label : data.y) positives += label;
+        final double prior = MathUtil.clamp(positives / n, 1e-6, 1 - 1e-6);
+        baseScore = Math.log(prior / (1 - prior));
+
+        final double[] score = new double[n];
+        Arrays.fill(score, baseScore);
+        final double[] g = new double[n];
+        final double[] h = new double[n];
+        final int[] node = new int[n];
+        // [node at level][feature][bin]
+        final double[] histG = new double[(leaves / 2) * FEATURES * bins];
+        final double[] histH = new double[histG.length];
+
+        for (int t = 0; t < trees; t++) {
+            for (int i = 0; i < n; i++) {
+                final double p = MathUtil.sigmoid(score[i]);
+                g[i] = p - data.y[i];
+                h[i] = Math.max(p * (1 - p), 1e-12);
+                node[i] = 0;
+            }
+
+            for (int level = 0; level < depth; level++) {
+                final int first = (1 << level) - 1;
+                final int width = 1 << level;
+                Arrays.fill(histG, 0, width * FEATURES * bins, 0.0);
+                Arrays.fill(histH, 0, width * FEATURES * bins, 0.0);
+                for (int i = 0; i < n; i++) {
+                    final int base = (node[i] - first) * FEATURES * bins;
+                    for (int f = 0; f < FEATURES; f++) {
+                        final int k = base + f * bins + (bin[f][i] & 0xff);
+                        histG[k] += g[i];
+                        histH[k] += h[i];
+                    }
+                }
+                for (int w = 0; w < width; w++) split(t, first + w, w, histG, histH, edges);
+                for (int i = 0; i < n; i++) node[i] = child(t, node[i], data.x[i]);
+            }
+
+            // leaf values: Newton step on each leaf, shrunk by the learning rate
+            final double[] leafG = new double[leaves];
+            final double[] leafH = new double[leaves];
+            for (int i = 0; i < n; i++) {
+                leafG[node[i] - internal] += g[i];
+                leafH[node[i] - internal] += h[i];
+            }
+            for (int l = 0; l < leaves; l++) {
+                leafValue[t * leaves + l] = leafH[l] == 0.0 ? 0.0 : -learningRate * leafG[l] / (leafH[l] + LAMBDA);
+            }
+            for (int i = 0; i < n; i++) score[i] += leafValue[t * leaves + node[i] - internal];
+        }
+    }
+
+    /** Picks the best split for internal node {@code nodeIndex} from its histograms. */
+    private void split(
+        final int tree,
+        final int nodeIndex,
+        final int slot,
+        final double[] histG,
+        final double[] histH,
+        final double[][] edges
+    ) {
+        final int base = slot * FEATURES * bins;
+        double totalG = 0;
+        double totalH = 0;
+        for (int b = 0; b < bins; b++) {
+            totalG += histG[base + b];
+            totalH += histH[base + b];
+        }
+        final double parent = totalG * totalG / (totalH + LAMBDA);
+
+        double bestGain = 1e-9;
+        int bestFeature = 0;
+        double bestThreshold = Double.POSITIVE_INFINITY;
+        for (int f = 0; f < FEATURES; f++) {
+            double leftG = 0;
+            double leftH = 0;
+            final int usable = edges[f].length; // bins beyond the last edge cannot split
+            for (int b = 0; b < usable; b++) {
+                leftG += histG[base + f * bins + b];
+                leftH += histH[base + f * bins + b];
+                final double rightG = totalG - leftG;
+                final double rightH = totalH - leftH;
+                if (leftH < MIN_CHILD_HESSIAN || rightH < MIN_CHILD_HESSIAN) continue;
+                final double gain = leftG * leftG / (leftH + LAMBDA) + rightG * rightG / (rightH + LAMBDA) - parent;
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestFeature = f;
+                    bestThreshold = edges[f][b];
+                }
+            }
+        }
+        splitFeature[tree * internal + nodeIndex] = bestFeature;
+        splitThreshold[tree * internal + nodeIndex] = bestThreshold;
+    }
+
+    private int child(final int tree, final int nodeIndex, final double[] x) {
+        return step(x, tree * internal, nodeIndex);
+    }
+
+    /**
+     * Distinct quantile cut points of feature {@code column}; value v falls in the first
+     * bin {@code b} with {@code v <= edges[b]}, or in bin {@code edges.length}.
+     */
+    private static double[] binEdges(final double[][] x, final int column, final int bins) {
+        final double[] v = new double[x.length];
+        for (int i = 0; i < x.length; i++) v[i] = x[i][column];
+        Arrays.sort(v);
+        final double[] edges = new double[bins - 1];
+        int k = 0;
+        for (int b = 1; b < bins; b++) {
+            final double e = v[(int) ((long) b * (v.length - 1) / bins)];
+            if (e < v[v.length - 1] && (k == 0 || e > edges[k - 1])) edges[k++] = e;
+        }
+        return Arrays.copyOf(edges, k);
+    }
+
+    private static int binOf(final double[] edges, final double v) {
+        final int i = Arrays.binarySearch(edges, v);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    @Override
+    public double predict(final DataObject obj) {
+        final double[] x = FEATURE_SCRATCH.get();
+        SyntheticRelevanceData.features(obj, x);
+        return predictFromFeatures(x);
+    }
+
+    /** Prediction for a raw feature vector laid out like {@link SyntheticRelevanceData}. */
+    double predictFromFeatures(final double[] x) {
+        // four independent walks per pass: each walk is a chain of dependent loads, so
+        // interleaving lets their latencies overlap
+        double z = baseScore;
+        int t = 0;
+        for (; t + 4 <= trees; t += 4) {
+            int i0 = 0;
+            int i1 = 0;
+            int i2 = 0;
+            int i3 = 0;
+            for (int d = 0; d < depth; d++) {
+                i0 = step(x, t * internal, i0);
+                i1 = step(x, (t + 1) * internal, i1);
+                i2 = step(x, (t + 2) * internal, i2);
+                i3 = step(x, (t + 3) * internal, i3);
+            }
+            z += leafValue[t * leaves + i0 - internal]
+                + leafValue[(t + 1) * leaves + i1 - internal]
+                + leafValue[(t + 2) * leaves + i2 - internal]
+                + leafValue[(t + 3) * leaves + i3 - internal];
+        }
+        for (; t < trees; t++) {
+            int i = 0;
+            for (int d = 0; d < depth; d++) i = step(x, t * internal, i);
+            z += leafValue[t * leaves + i - internal];
+        }
+        return MathUtil.clamp(MathUtil.sigmoid(z), 0.01, 0.99);
+    }
+
+    private int step(final double[] x, final int base, final int i) {
+        final int k = base + i;
+        // sign bit of (threshold - x) is 1 exactly when x > threshold: no data-dependent branch
+        return 2 * i + 1 + (int) (Double.doubleToRawLongBits(splitThreshold[k] - x[splitFeature[k] + 1]) >>> 63);
+    }
+
+    /**
+     * Trees are step functions of trust, so there is no finite slope bound; adaptive
+     * cadence then re-evaluates objects whose trust can still move every tick.
+     */
+    @Override
+    public double maxTrustSlope() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    public int trees() {
+        return trees;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * The samples plus the per-sample bins, gradients, hessians, scores and node indexes,
+     * and the level histograms.
+     */
+    @Override
+    public long trainingBytes(final HeapLayout layout) {
+        final int n = trainedSamples;
+        if (n == 0) return 0L;
+        return SyntheticRelevanceData.retainedBytes(layout, n)
+            + layout.array(byte[].class, FEATURES) + FEATURES * layout.array(byte.class, n)
+            + 3 * layout.array(double.class, n) + layout.array(int.class, n)
+            + 2 * layout.array(double.class, (leaves / 2) * FEATURES * bins);
+    }
+
+    /** Bytes held by the flat tree arrays. */
+    public long modelBytes() {
+        return 4L * splitFeature.length + 8L * splitThreshold.length + 8L * leafValue.length;
+    }
+}
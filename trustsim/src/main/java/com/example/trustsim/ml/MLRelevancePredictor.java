@@ -3,8 +3,10 @@ package com.example.trustsim.ml;
 import com.example.trustsim.Config;
 import com.example.trustsim.MathUtil;
 import com.example.trustsim.model.DataObject;
-import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.profiling.HeapLayout;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Random;
 
 /**
@@ -20,9 +22,10 @@ import java.util.Random;
  *
  * Predicts "future relevant" probability.
  */
-public final class MLRelevancePredictor {
-    private static final int DIM = 9;
+public final class MLRelevancePredictor implements RelevanceModel {
+    private static final int DIM = SyntheticRelevanceData.DIM;
     private final double[] w = new double[DIM];
+    private int trainedSamples; // in-heap synthetic samples of the last training, 0 when streamed from a file
 
     public MLRelevancePredictor() {
         // small random init
@@ -35,55 +38,13 @@ public final class MLRelevancePredictor {
     public void trainSynthetic() {
         final Random rnd = new Random(123);
         final int n = Config.ML_TRAIN_SAMPLES;
-        final double lr = Config.ML_LEARNING_RATE;
-        final double l2 = Config.ML_L2;
-        final double maxStep = 0.1; // clip per-weight update magnitude
+        trainedSamples = n;
 
-        final double[][] x = new double[n][DIM];
-        final int[] y = new int[n];
-
-        for (int i = 0; i < n; i++) {
-            final double businessValue = rnd.nextDouble(); // 0..1
-
-            // access patterns: mixture for variety
-            final double mix = rnd.nextDouble();
-            final double accessRate = mix < 0.2 ? 0.6 + 0.4 * rnd.nextDouble()
-                : mix < 0.7 ? 0.2 + 0.5 * rnd.nextDouble()
-                : 0.0 + 0.25 * rnd.nextDouble();
-
-            final double legitRate = MathUtil.clamp(accessRate * (0.6 + 0.4 * rnd.nextDouble()), 0.0, 1.0);
-            final double suspiciousRate = MathUtil.clamp(accessRate - legitRate + 0.2 * rnd.nextDouble() * (1.0 - legitRate), 0.0, 1.0);
-            final double trust = MathUtil.clamp(0.5 + 0.4 * legitRate - 0.6 * suspiciousRate + 0.1 * (rnd.nextDouble() - 0.5), 0.0, 1.0);
-
-            final Sensitivity s = sampleSensitivity(rnd);
-            final double sensitivityNumeric = sensitivityNumeric(s);
-
-            final double baseRisk = baseRisk(s);
-            final double burstFlag = rnd.nextDouble() < (suspiciousRate > 0.25 ? 0.25 : 0.05) ? 1.0 : 0.0;
-            final double anomalyScore = MathUtil.clamp(0.5 * suspiciousRate + 0.5 * burstFlag, 0.0, 1.0);
-            double risk = baseRisk;
-            if (suspiciousRate > 0.2) risk += 0.15;
-            if (burstFlag > 0.5) risk += 0.15;
-            risk = MathUtil.clamp(risk, 0.0, 1.0);
-
-            x[i][0] = 1.0;
-            x[i][1] = businessValue;
-            x[i][2] = accessRate;
-            x[i][3] = legitRate;
-            x[i][4] = suspiciousRate;
-            x[i][5] = trust;
-            x[i][6] = sensitivityNumeric;
-            x[i][7] = anomalyScore;
-            x[i][8] = risk;
-
-            // normalize non-bias features explicitly
-            normalizeFeatures(x[i]);
-
-            final boolean hotLike = accessRate > 0.55;
-            boolean relevant = (businessValue > 0.65) || (accessRate > 0.50) || hotLike;
-            if (risk > 0.85 && suspiciousRate > 0.35) relevant = false;
-            y[i] = relevant ? 1 : 0;
-        }
+        final SyntheticRelevanceData data = SyntheticRelevanceData.generate(rnd, n);
+        final double[][] x = data.x;
+        final int[] y = data.y;
+        // normalize non-bias features explicitly
+        for (final double[] row : x) normalizeFeatures(row);
 
         for (int epoch = 0; epoch < Config.ML_EPOCHS; epoch++) {
             final double[] grad = new double[DIM];
@@ -94,22 +55,70 @@ public final class MLRelevancePredictor {
                     grad[j] += err * x[i][j];
                 }
             }
-            for (int j = 0; j < DIM; j++) {
-                grad[j] = grad[j] / n + l2 * w[j];
-                double delta = lr * grad[j];
-                if (delta > maxStep) delta = maxStep;
-                else if (delta < -maxStep) delta = -maxStep;
-                w[j] -= delta;
-            }
+            step(grad, n);
         }
     }
 
+    /**
+     * Trains on a {@link TrainingDataFile} with the same full-batch updates as
+     * {@link #trainSynthetic()}, streaming the file once per epoch.
+     */
+    public void trainFromFile(final Path file) throws IOException {
+        trainedSamples = 0;
+        new StreamingTrainer(Config.ML_STREAM_CHUNK_BYTES).train(this, file, Config.ML_EPOCHS);
+    }
+
+    /**
+     * One gradient-descent update from the logloss gradient summed over {@code n} samples;
+     * {@code grad} is overwritten.
+     */
+    void step(final double[] grad, final long n) {
+        final double lr = Config.ML_LEARNING_RATE;
+        final double l2 = Config.ML_L2;
+        final double maxStep = 0.1; // clip per-weight update magnitude
+        for (int j = 0; j < DIM; j++) {
+            grad[j] = grad[j] / n + l2 * w[j];
+            double delta = lr * grad[j];
+            if (delta > maxStep) delta = maxStep;
+            else if (delta < -maxStep) delta = -maxStep;
+            w[j] -= delta;
+        }
+    }
+
+    @Override
+    public long trainingBytes(final HeapLayout layout) {
+        return trainedSamples == 0 ? 0L : SyntheticRelevanceData.retainedBytes(layout, trainedSamples);
+    }
+
+    /** Copy of the current weights. */
+    public double[] weights() {
+        return w.clone();
+    }
+
+    @Override
     public double predict(final DataObject obj) {
         final double[] f = features(obj);
         return predictFromFeatures(f);
     }
 
-    private double predictFromFeatures(final double[] f) {
+    /**
+     * Upper bound on |d predict / d trust|: trust is scaled by 2 before the sigmoid,
+     * whose slope never exceeds 1/4.
+     */
+    @Override
+    public double maxTrustSlope() {
+        return Math.abs(w[5]) * 2.0 / 4.0;
+    }
+
+    /** Prediction for a raw (not yet normalized) feature vector. */
+    double predictRaw(final double[] raw) {
+        final double[] f = raw.clone();
+        normalizeFeatures(f);
+        return predictFromFeatures(f);
+    }
+
+    /** Prediction for a normalized feature vector. */
+    double predictFromFeatures(final double[] f) {
         double z = 0.0;
         for (int j = 0; j < DIM; j++) z += w[j] * f[j];
         final double p = MathUtil.sigmoid(z);
@@ -119,15 +128,7 @@ public final class MLRelevancePredictor {
 
     private static double[] features(final DataObject obj) {
         final double[] f = new double[DIM];
-        f[0] = 1.0;
-        f[1] = obj.baseBusinessValue;
-        f[2] = obj.accessStats.accessRate();
-        f[3] = obj.accessStats.legitRate();
-        f[4] = obj.accessStats.suspiciousRate();
-        f[5] = obj.trust;
-        f[6] = sensitivityNumeric(obj.sensitivity);
-        f[7] = obj.riskStats.anomalyScore;
-        f[8] = obj.riskStats.risk;
+        SyntheticRelevanceData.features(obj, f);
         normalizeFeatures(f);
         return f;
     }
@@ -137,50 +138,11 @@ public final class MLRelevancePredictor {
      * Current synthetic features are already in [0,1], so we simply
      * shift/scale them to [-1,1] to improve conditioning.
      */
-    private static void normalizeFeatures(final double[] f) {
+    static void normalizeFeatures(final double[] f) {
         for (int j = 1; j < DIM; j++) {
             final double v = f[j];
             // map [0,1] -> [-1,1]
             f[j] = (v - 0.5) * 2.0;
         }
     }
-
-    private static Sensitivity sampleSensitivity(final Random rnd) {
-        final double u = rnd.nextDouble();
-        if (u < 0.55) return Sensitivity.NON_SENSITIVE;
-        if (u < 0.80) return Sensitivity.PII;
-        if (u < 0.92) return Sensitivity.FINANCIAL;
-        return Sensitivity.HEALTH;
-    }
-
-    private static double sensitivityNumeric(final Sensitivity s) {
-        switch (s) {
-            case NON_SENSITIVE:
-                return 0.0;
-            case PII:
-                return 0.4;
-            case FINANCIAL:
-                return 0.7;
-            case HEALTH:
-                return 1.0;
-            default:
-                return 0.5;
-        }
-    }
-
-    private static double baseRisk(final Sensitivity s) {
-        switch (s) {
-            case NON_SENSITIVE:
-                return 0.1;
-            case PII:
-                return 0.6;
-            case FINANCIAL:
-                return 0.7;
-            case HEALTH:
-                return 0.8;
-            default:
-                return 0.5;
-        }
-    }
 }
-
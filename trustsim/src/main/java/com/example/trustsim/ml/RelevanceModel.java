@@ -0,0 +1,29 @@
+package com.example.trustsim.ml;
+
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.profiling.HeapLayout;
+
+/**
+ * Predicts the probability that an object will be relevant in the future.
+ *
+ * Implementations are trained before the run and read-only afterwards, so one model
+ * may be shared by concurrent pipelines.
+ */
+public interface RelevanceModel {
+    /** Probability in [0.01, 0.99]. */
+    double predict(DataObject obj);
+
+    /**
+     * Upper bound on |d predict / d trust|, used to schedule re-evaluation; infinite for
+     * models that are not continuous in trust.
+     */
+    double maxTrustSlope();
+
+    /**
+     * Estimated peak heap bytes of the training data the model was fitted on, released
+     * once training returns; 0 if it was not trained on the heap.
+     */
+    default long trainingBytes(final HeapLayout layout) {
+        return 0L;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.trustsim.ml;
+
+import com.example.trustsim.Config;
+import com.example.trustsim.model.DataObject;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares the logistic and gradient-boosted relevance models: quality on held-out
+ * synthetic samples, and single-thread inference cost on a real population.
+ */
+public final class RelevanceModelBenchmark {
+    private RelevanceModelBenchmark() {}
+
+    public static final class Result {
+        public final double logisticAccuracy;
+        public final double gbtAccuracy;
+        public final double logisticLogLoss;
+        public final double gbtLogLoss;
+        public final double logisticNanos;
+        public final double gbtNanos;
+        /** Bytes allocated per GBT prediction, or -1 when the JVM cannot tell. */
+        public final double gbtAllocatedBytes;
+        private final String modelShape;
+
+        Result(
+            final double logisticAccuracy,
+            final double gbtAccuracy,
+            final double logisticLogLoss,
+            final double gbtLogLoss,
+            final double logisticNanos,
+            final double gbtNanos,
+            final double gbtAllocatedBytes,
+            final String modelShape
+        ) {
+            this.logisticAccuracy = logisticAccuracy;
+            this.gbtAccuracy = gbtAccuracy;
+            this.logisticLogLoss = logisticLogLoss;
+            this.gbtLogLoss = gbtLogLoss;
+            this.logisticNanos = logisticNanos;
+            this.gbtNanos = gbtNanos;
+            this.gbtAllocatedBytes = gbtAllocatedBytes;
+            this.modelShape = modelShape;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("Relevance Models (").append(modelShape).append(')').append('\n');
+            sb.append(String.format(Locale.ROOT, " - Held-out accuracy: logistic %.4f, GBT %.4f%n", logisticAccuracy, gbtAccuracy));
+            sb.append(String.format(Locale.ROOT, " - Held-out log loss: logistic %.4f, GBT %.4f%n", logisticLogLoss, gbtLogLoss));
+            sb.append(String.format(Locale.ROOT, " - Inference, one thread: logistic %.1f ns/object, GBT %.1f ns/object%n", logisticNanos, gbtNanos));
+            sb.append(gbtAllocatedBytes < 0
+                ? " - GBT allocation per call: unknown\n"
+                : String.format(Locale.ROOT, " - GBT allocation per call: %.2f bytes%n", gbtAllocatedBytes));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Scores both models on fresh synthetic samples, then times {@code rounds} passes of
+     * each over {@code objects}.
+     */
+    public static Result run(
+        final List<DataObject> objects,
+        final MLRelevancePredictor logistic,
+        final GradientBoostedRelevanceModel gbt,
+        final int rounds
+    ) {
+        final SyntheticRelevanceData heldOut = SyntheticRelevanceData.generate(new Random(456), Config.ML_TRAIN_SAMPLES);
+        int logisticHits = 0;
+        int gbtHits = 0;
+        double logisticLoss = 0;
+        double gbtLoss = 0;
+        for (int i = 0; i < heldOut.size(); i++) {
+            final double pl = logistic.predictRaw(heldOut.x[i]);
+            final double pg = gbt.predictFromFeatures(heldOut.x[i]);
+            final int y = heldOut.y[i];
+            if ((pl >= 0.5 ? 1 : 0) == y) logisticHits++;
+            if ((pg >= 0.5 ? 1 : 0) == y) gbtHits++;
+            logisticLoss -= y == 1 ? Math.log(pl) : Math.log(1 - pl);
+            gbtLoss -= y == 1 ? Math.log(pg) : Math.log(1 - pg);
+        }
+        final int n = heldOut.size();
+
+        // warm up both, then alternate so neither benefits from a quieter machine
+        for (int r = 0; r < 5; r++) {
+            sweep(objects, logistic);
+            sweep(objects, gbt);
+        }
+        long logisticNanos = 0;
+        long gbtNanos = 0;
+        for (int r = 0; r < rounds; r++) {
+            long t = System.nanoTime();
+            sweep(objects, logistic);
+            logisticNanos += System.nanoTime() - t;
+            t = System.nanoTime();
+            sweep(objects, gbt);
+            gbtNanos += System.nanoTime() - t;
+        }
+
+        final long before = allocatedBytes();
+        sweep(objects, gbt);
+        final long after = allocatedBytes();
+        final double perCall = before < 0 ? -1 : ((double) (after - before)) / objects.size();
+
+        final double calls = (double) rounds * objects.size();
+        return new Result(
+            ((double) logisticHits) / n,
+            ((double) gbtHits) / n,
+            logisticLoss / n,
+            gbtLoss / n,
+            logisticNanos / calls,
+            gbtNanos / calls,
+            perCall,
+            String.format(Locale.ROOT, "GBT: %d trees of depth %d, %d bytes", gbt.trees(), gbt.depth(), gbt.modelBytes())
+        );
+    }
+
+    private static double sink;
+
+    private static void sweep(final List<DataObject> objects, final RelevanceModel model) {
+        double sum = 0;
+        for (final DataObject obj : objects) sum += model.predict(obj);
+        sink += sum;
+    }
+
+    private static long allocatedBytes() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return -1;
+        final com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+        return hotspot.isThreadAllocatedMemorySupported() ? hotspot.getCurrentThreadAllocatedBytes() : -1;
+    }
+}
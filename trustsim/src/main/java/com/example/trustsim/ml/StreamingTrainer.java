@@ -0,0 +1,170 @@
+package com.example.trustsim.ml;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Full-batch training of {@link MLRelevancePredictor} from a {@link TrainingDataFile} of
+ * any size in constant memory.
+ *
+ * Each epoch streams the file in chunks of whole rows. A prefetch thread reads the next
+ * chunks with positional reads while the training thread accumulates the gradient over
+ * the current one. Chunks are read into {@value #PREFETCH_DEPTH} + 1 direct buffers that
+ * are allocated once per run and handed back after use, so memory outside the heap
+ * stays at {@value #PREFETCH_DEPTH} + 1 chunks however large the file is. Rows are visited in file order, so
+ * the result does not depend on timing.
+ */
+public final class StreamingTrainer {
+    private static final int PREFETCH_DEPTH = 2;
+    private static final int BUFFERS = PREFETCH_DEPTH + 1; // queued plus the one being trained on
+    private static final Chunk END_OF_EPOCH = new Chunk(null, 0);
+    private static final Chunk FAILED = new Chunk(null, 0);
+
+    private final int chunkBytes;
+
+    // stats of the last train()
+    private long rowsRead;
+    private long trainNanos;
+    private long waitNanos;
+    private long bufferBytes;
+
+    public StreamingTrainer(final long chunkBytes) {
+        // whole rows, and a single buffer must stay under 2 GiB
+        final long capped = Math.min(chunkBytes, Integer.MAX_VALUE);
+        this.chunkBytes = (int) Math.max(TrainingDataFile.ROW_BYTES, capped - capped % TrainingDataFile.ROW_BYTES);
+    }
+
+    private static final class Chunk {
+        final ByteBuffer buf;
+        final int rows;
+
+        Chunk(final ByteBuffer buf, final int rows) {
+            this.buf = buf;
+            this.rows = rows;
+        }
+    }
+
+    public void train(final MLRelevancePredictor model, final Path file, final int epochs) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long rows = TrainingDataFile.readHeader(ch, file);
+            if (rows == 0) return;
+            final BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(PREFETCH_DEPTH);
+            final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(BUFFERS);
+            final int capacity = (int) Math.min(chunkBytes, rows * TrainingDataFile.ROW_BYTES);
+            for (int i = 0; i < BUFFERS; i++) {
+                free.add(ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN));
+            }
+            bufferBytes = (long) BUFFERS * capacity;
+            final IOException[] failure = new IOException[1];
+            final Thread prefetcher = new Thread(() -> prefetch(ch, rows, epochs, queue, free, failure), "trustsim-train-prefetch");
+            prefetcher.setDaemon(true);
+
+            final long start = System.nanoTime();
+            rowsRead = 0;
+            waitNanos = 0;
+            prefetcher.start();
+            try {
+                final double[] grad = new double[SyntheticRelevanceData.DIM];
+                final double[] f = new double[SyntheticRelevanceData.DIM];
+                for (int epoch = 0; epoch < epochs; epoch++) {
+                    Arrays.fill(grad, 0.0);
+                    while (true) {
+                        final long t = System.nanoTime();
+                        final Chunk c = queue.take();
+                        waitNanos += System.nanoTime() - t;
+                        if (c == END_OF_EPOCH) break;
+                        if (c == FAILED) throw failure[0];
+                        accumulate(model, c, f, grad);
+                        rowsRead += c.rows;
+                        free.put(c.buf);
+                    }
+                    model.step(grad, rows);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while training", e);
+            } finally {
+                prefetcher.interrupt();
+                trainNanos = System.nanoTime() - start;
+            }
+        }
+    }
+
+    private static void accumulate(final MLRelevancePredictor model, final Chunk c, final double[] f, final double[] grad) {
+        final ByteBuffer b = c.buf;
+        final int dim = SyntheticRelevanceData.DIM;
+        for (int r = 0, off = 0; r < c.rows; r++, off += TrainingDataFile.ROW_BYTES) {
+            final double y = b.getFloat(off);
+            f[0] = 1.0;
+            for (int j = 1; j < dim; j++) f[j] = b.getFloat(off + 4 * j);
+            MLRelevancePredictor.normalizeFeatures(f);
+            final double err = model.predictFromFeatures(f) - y; // derivative of logloss
+            for (int j = 0; j < dim; j++) grad[j] += err * f[j];
+        }
+    }
+
+    private void prefetch(
+        final FileChannel ch,
+        final long rows,
+        final int epochs,
+        final BlockingQueue<Chunk> queue,
+        final BlockingQueue<ByteBuffer> free,
+        final IOException[] failure
+    ) {
+        try {
+            final long total = rows * TrainingDataFile.ROW_BYTES;
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                for (long pos = 0; pos < total; pos += chunkBytes) {
+                    final int len = (int) Math.min(chunkBytes, total - pos);
+                    final ByteBuffer buf = free.take();
+                    buf.clear().limit(len);
+                    final long at = TrainingDataFile.HEADER + pos;
+                    while (buf.hasRemaining()) {
+                        if (ch.read(buf, at + buf.position()) < 0) throw new EOFException("Training file ends before row " + rows);
+                    }
+                    queue.put(new Chunk(buf, len / TrainingDataFile.ROW_BYTES));
+                }
+                queue.put(END_OF_EPOCH);
+            }
+        } catch (final IOException e) {
+            failure[0] = e;
+            try {
+                queue.put(FAILED);
+            } catch (final InterruptedException ignored) {
+                // training already stopped
+            }
+        } catch (final InterruptedException e) {
+            // training finished or failed
+        }
+    }
+
+    public long rowsRead() {
+        return rowsRead;
+    }
+
+    public long chunkBytes() {
+        return chunkBytes;
+    }
+
+    /** Direct buffer memory held by the last training run. */
+    public long bufferBytes() {
+        return bufferBytes;
+    }
+
+    /** Share of the last training run spent waiting for the prefetch thread. */
+    public double waitFraction() {
+        return trainNanos == 0 ? 0.0 : ((double) waitNanos) / trainNanos;
+    }
+
+    public long trainMillis() {
+        return trainNanos / 1_000_000L;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.trustsim.ml;
+
+import com.example.trustsim.MathUtil;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.profiling.HeapLayout;
+
+import java.util.Random;
+
+/**
+ * Labelled synthetic samples and the feature vector shared by the relevance models.
+ *
+ * Features (raw, all in [0,1]):
+ *  [1,
+ *   businessValue,
+ *   accessRate, legitRate, suspiciousRate,
+ *   trust,
+ *   sensitivityNumeric,
+ *   anomalyScore, risk]
+ */
+final class SyntheticRelevanceData {
+    static final int DIM = 9;
+
+    final double[][] x;
+    final int[] y;
+
+    private SyntheticRelevanceData(final int n) {
+        this.x = new double[n][DIM];
+        this.y = new int[n];
+    }
+
+    /** Estimated heap bytes of {@code n} samples: one feature array per row plus the labels. */
+    static long retainedBytes(final HeapLayout layout, final int n) {
+        return layout.shallow(SyntheticRelevanceData.class) + layout.array(double[].class, n)
+            + n * layout.array(double.class, DIM) + layout.array(int.class, n);
+    }
+
+    static SyntheticRelevanceData generate(final Random rnd, final int n) {
+        final SyntheticRelevanceData d = new SyntheticRelevanceData(n);
+        for (int i = 0; i < n; i++) d.y[i] = sample(rnd, d.x[i]);
+        return d;
+    }
+
+    /**
+     * Draws one sample: writes its raw features into {@code f} and returns its label.
+     */
+    static int sample(final Random rnd, final double[] f) {
+        final double businessValue = rnd.nextDouble(); // 0..1
+
+        // access patterns: mixture for variety
+        final double mix = rnd.nextDouble();
+        final double accessRate = mix < 0.2 ? 0.6 + 0.4 * rnd.nextDouble()
+            : mix < 0.7 ? 0.2 + 0.5 * rnd.nextDouble()
+            : 0.0 + 0.25 * rnd.nextDouble();
+
+        final double legitRate = MathUtil.clamp(accessRate * (0.6 + 0.4 * rnd.nextDouble()), 0.0, 1.0);
+        final double suspiciousRate = MathUtil.clamp(accessRate - legitRate + 0.2 * rnd.nextDouble() * (1.0 - legitRate), 0.0, 1.0);
+        final double trust = MathUtil.clamp(0.5 + 0.4 * legitRate - 0.6 * suspiciousRate + 0.1 * (rnd.nextDouble() - 0.5), 0.0, 1.0);
+
+        final Sensitivity s = sampleSensitivity(rnd);
+        final double sensitivityNumeric = sensitivityNumeric(s);
+
+        final double baseRisk = baseRisk(s);
+        final double burstFlag = rnd.nextDouble() < (suspiciousRate > 0.25 ? 0.25 : 0.05) ? 1.0 : 0.0;
+        final double anomalyScore = MathUtil.clamp(0.5 * suspiciousRate + 0.5 * burstFlag, 0.0, 1.0);
+        double risk = baseRisk;
+        if (suspiciousRate > 0.2) risk += 0.15;
+        if (burstFlag > 0.5) risk += 0.15;
+        risk = MathUtil.clamp(risk, 0.0, 1.0);
+
+        f[0] = 1.0;
+        f[1] = businessValue;
+        f[2] = accessRate;
+        f[3] = legitRate;
+        f[4] = suspiciousRate;
+        f[5] = trust;
+        f[6] = sensitivityNumeric;
+        f[7] = anomalyScore;
+        f[8] = risk;
+
+        final boolean hotLike = accessRate > 0.55;
+        boolean relevant = (businessValue > 0.65) || (accessRate > 0.50) || hotLike;
+        if (risk > 0.85 && suspiciousRate > 0.35) relevant = false;
+        return relevant ? 1 : 0;
+    }
+
+    int size() {
+        return y.length;
+    }
+
+    /**
+     * Writes the raw feature vector of {@code obj} into {@code f[0 .. DIM)}.
+     */
+    static void features(final DataObject obj, final double[] f) {
+        f[0] = 1.0;
+        f[1] = obj.baseBusinessValue;
+        f[2] = obj.accessStats.accessRate();
+        f[3] = obj.accessStats.legitRate();
+        f[4] = obj.accessStats.suspiciousRate();
+        f[5] = obj.trust;
+        f[6] = sensitivityNumeric(obj.sensitivity);
+        f[7] = obj.riskStats.anomalyScore;
+        f[8] = obj.riskStats.risk;
+    }
+
+    private static Sensitivity sampleSensitivity(final Random rnd) {
+        final double u = rnd.nextDouble();
+        if (u < 0.55) return Sensitivity.NON_SENSITIVE;
+        if (u < 0.80) return Sensitivity.PII;
+        if (u < 0.92) return Sensitivity.FINANCIAL;
+        return Sensitivity.HEALTH;
+    }
+
+    private static double sensitivityNumeric(final Sensitivity s) {
+        switch (s) {
+            case NON_SENSITIVE:
+                return 0.0;
+            case PII:
+                return 0.4;
+            case FINANCIAL:
+                return 0.7;
+            case HEALTH:
+                return 1.0;
+            default:
+                return 0.5;
+        }
+    }
+
+    private static double baseRisk(final Sensitivity s) {
+        switch (s) {
+            case NON_SENSITIVE:
+                return 0.1;
+            case PII:
+                return 0.6;
+            case FINANCIAL:
+                return 0.7;
+            case HEALTH:
+                return 0.8;
+            default:
+                return 0.5;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.trustsim.ml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Binary file of labelled relevance samples for {@link StreamingTrainer}.
+ *
+ * A {@value #HEADER}-byte header (magic, version, features per row, row count) is
+ * followed by fixed {@value #ROW_BYTES}-byte little-endian rows: the label as a float
+ * (0 or 1), then the 8 raw features of {@link SyntheticRelevanceData} (without the bias)
+ * as floats in [0,1]. Any exporter that can compute those features, such as one reading
+ * audit logs, can produce it.
+ */
+public final class TrainingDataFile {
+    static final long MAGIC = 0x5452535452414e31L; // "TRSTRAN1"
+    static final int VERSION = 1;
+    static final int FEATURES = SyntheticRelevanceData.DIM - 1;
+    static final int HEADER = 32;
+    static final int ROW_BYTES = 4 * (1 + FEATURES);
+
+    private TrainingDataFile() {}
+
+    /** Appends rows; the row count is written on {@link #close()}. */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(ROW_BYTES * 8192).order(ByteOrder.LITTLE_ENDIAN);
+        private long rows;
+
+        public Writer(final Path path) throws IOException {
+            this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            channel.position(HEADER);
+        }
+
+        /**
+         * Writes one row from a raw feature vector laid out like {@link SyntheticRelevanceData}
+         * ({@code f[0]} is the bias and is not stored).
+         */
+        public void write(final double[] f, final int label) throws IOException {
+            if (buf.remaining() < ROW_BYTES) flush();
+            buf.putFloat(label);
+            for (int j = 1; j <= FEATURES; j++) buf.putFloat((float) f[j]);
+            rows++;
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                final ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+                h.putLong(MAGIC).putInt(VERSION).putInt(FEATURES).putLong(rows);
+                h.clear();
+                while (h.hasRemaining()) channel.write(h, h.position());
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Writes {@code rows} synthetic samples drawn like {@link MLRelevancePredictor#trainSynthetic()}
+     * does (seed 123 reproduces its training set), one row at a time.
+     */
+    public static void writeSynthetic(final Path path, final long rows, final long seed) throws IOException {
+        final Random rnd = new Random(seed);
+        final double[] f = new double[SyntheticRelevanceData.DIM];
+        try (Writer w = new Writer(path)) {
+            for (long i = 0; i < rows; i++) {
+                final int label = SyntheticRelevanceData.sample(rnd, f);
+                w.write(f, label);
+            }
+        }
+    }
+
+    /** Row count from the header of {@code channel}, after checking it. */
+    static long readHeader(final FileChannel channel, final Path path) throws IOException {
+        final ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        while (h.hasRemaining()) {
+            if (channel.read(h, h.position()) < 0) throw new IOException("Truncated training file: " + path);
+        }
+        h.flip();
+        if (h.getLong() != MAGIC || h.getInt() != VERSION) throw new IOException("Not a training file: " + path);
+        if (h.getInt() != FEATURES) throw new IOException("Feature count mismatch: " + path);
+        final long rows = h.getLong();
+        if (channel.size() < HEADER + rows * ROW_BYTES) throw new IOException("Truncated training file: " + path);
+        return rows;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.trustsim.model;
+
+import com.example.trustsim.profiling.HeapLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The access events of one tick, each packed into a single {@code long}:
+ *
+ * <pre>
+ *   bits 63..33   32..31   30   29..0
+ *        dataId    role    L    score
+ * </pre>
+ *
+ * {@code L} is the generator's legitimate flag and {@code score} is the request score
+ * quantized down to a multiple of 2^-30. Decoded scores differ from the original by
+ * less than 1e-9, so a threshold comparison changes only for scores within that
+ * distance above the threshold.
+ */
+public final class AccessEventBatch {
+    private static final Role[] ROLES = Role.values();
+    private static final int SCORE_BITS = 30;
+    private static final long SCORE_MASK = (1L << SCORE_BITS) - 1;
+    private static final double SCORE_SCALE = 1L << SCORE_BITS;
+    private static final int LEGIT_SHIFT = SCORE_BITS;
+    private static final int ROLE_SHIFT = LEGIT_SHIFT + 1;
+    private static final int ID_SHIFT = ROLE_SHIFT + 2;
+
+    static {
+        if (ROLES.length > 4) throw new ExceptionInInitializerError("Role no longer fits in 2 bits");
+    }
+
+    public final int time;
+    private long[] packed;
+    private int size;
+
+    public AccessEventBatch(final int time) {
+        this(time, 8);
+    }
+
+    public AccessEventBatch(final int time, final int initialCapacity) {
+        this.time = time;
+        this.packed = new long[Math.max(1, initialCapacity)];
+    }
+
+    public void add(final int dataId, final Role role, final boolean legitimate, final double requestScore) {
+        if (size == packed.length) packed = Arrays.copyOf(packed, size * 2);
+        packed[size++] = pack(dataId, role, legitimate, requestScore);
+    }
+
+    public void add(final AccessEvent e) {
+        add(e.dataId, e.role, e.legitimate, e.requestScore);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Packed form of the {@code i}-th event. */
+    public long get(final int i) {
+        return packed[i];
+    }
+
+    /** Estimated heap bytes of this batch and its packed array. */
+    public long retainedBytes(final HeapLayout layout) {
+        return layout.shallow(AccessEventBatch.class) + layout.array(long.class, packed.length);
+    }
+
+    public AccessEvent toEvent(final int i) {
+        final long p = packed[i];
+        return new AccessEvent(time, dataId(p), role(p), legitimate(p), requestScore(p));
+    }
+
+    public static long pack(final int dataId, final Role role, final boolean legitimate, final double requestScore) {
+        if (dataId < 0) throw new IllegalArgumentException("Negative dataId: " + dataId);
+        final long score = Math.min(SCORE_MASK, (long) Math.floor(Math.max(0.0, requestScore) * SCORE_SCALE));
+        return ((long) dataId << ID_SHIFT)
+            | ((long) role.ordinal() << ROLE_SHIFT)
+            | (legitimate ? 1L << LEGIT_SHIFT : 0L)
+            | score;
+    }
+
+    public static int dataId(final long p) {
+        return (int) (p >>> ID_SHIFT);
+    }
+
+    public static Role role(final long p) {
+        return ROLES[(int) (p >>> ROLE_SHIFT) & 3];
+    }
+
+    public static boolean legitimate(final long p) {
+        return (p & (1L << LEGIT_SHIFT)) != 0;
+    }
+
+    public static double requestScore(final long p) {
+        return (p & SCORE_MASK) / SCORE_SCALE;
+    }
+
+    /**
+     * Object form of {@code batches}, for consumers that still take event lists.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static List<AccessEvent>[] unpack(final AccessEventBatch[] batches) {
+        final List<AccessEvent>[] byTime = new List[batches.length];
+        for (int t = 0; t < batches.length; t++) {
+            final AccessEventBatch b = batches[t];
+            final List<AccessEvent> list = new ArrayList<>(b.size);
+            for (int i = 0; i < b.size; i++) list.add(b.toEvent(i));
+            byTime[t] = list;
+        }
+        return byTime;
+    }
+}
@@ -1,93 +1,38 @@
 package com.example.trustsim.model;
 
-import com.example.trustsim.Config;
-
-import java.util.ArrayDeque;
-import java.util.Deque;
+import com.example.trustsim.profiling.HeapLayout;
 
 /**
- * Sliding window W=20 of recent access events.
+ * Per-object statistics of recent accesses, read by risk, trust and the relevance model.
+ *
+ * {@link WindowAccessStats} keeps the last W events. {@link DecayedAccessStats} keeps
+ * exponentially decayed counters instead, which also age with time; rates then reflect
+ * the state after the last {@link #advanceTo(int)} or {@link #add}. The tick loop
+ * advances every evaluated object to the current tick before reading it.
  */
-public final class AccessStats {
-    private static final class Entry {
-        final int time;
-        final boolean legit;
-        final boolean suspicious;
-
-        Entry(final int time, final boolean legit, final boolean suspicious) {
-            this.time = time;
-            this.legit = legit;
-            this.suspicious = suspicious;
-        }
+public interface AccessStats {
+    /** Shared state of objects not accessed yet, for the decayed or the window statistics. */
+    static AccessStats empty(final boolean decayed) {
+        return decayed ? DecayedAccessStats.EMPTY : WindowAccessStats.EMPTY;
     }
 
-    private final int windowSize;
-    private final Deque<Entry> window;
-
-    private int totalCount;
-    private int legitCount;
-    private int suspiciousCount;
-
-    public AccessStats() {
-        this(Config.ACCESS_WINDOW_W);
-    }
-
-    public AccessStats(final int windowSize) {
-        this.windowSize = windowSize;
-        this.window = new ArrayDeque<>(windowSize + 1);
-        this.totalCount = 0;
-        this.legitCount = 0;
-        this.suspiciousCount = 0;
-    }
-
-    public void add(final int time, final boolean legit, final boolean suspicious) {
-        window.addLast(new Entry(time, legit, suspicious));
-        totalCount++;
-        if (legit) legitCount++;
-        if (suspicious) suspiciousCount++;
-
-        while (window.size() > windowSize) {
-            final Entry e = window.removeFirst();
-            totalCount--;
-            if (e.legit) legitCount--;
-            if (e.suspicious) suspiciousCount--;
-        }
-    }
+    void add(int time, boolean legit, boolean suspicious);
 
-    public int getTotalCount() {
-        return totalCount;
-    }
+    /** Brings time-dependent state forward to tick {@code now}; earlier ticks are ignored. */
+    void advanceTo(int now);
 
-    public int getLegitCount() {
-        return legitCount;
-    }
+    /** Share of the window in use, 0..1. */
+    double accessRate();
 
-    public int getSuspiciousCount() {
-        return suspiciousCount;
-    }
+    double legitRate();
 
-    public double accessRate() {
-        return ((double) totalCount) / windowSize;
-    }
+    double suspiciousRate();
 
-    public double legitRate() {
-        return ((double) legitCount) / windowSize;
-    }
+    boolean burstDetected(int now);
 
-    public double suspiciousRate() {
-        return ((double) suspiciousCount) / windowSize;
-    }
+    /** Access events held; 0 for statistics that keep none. */
+    int windowLength();
 
-    /**
-     * Burst detection: >=5 suspicious within 3 time units.
-     */
-    public boolean burstDetected(final int now) {
-        int cnt = 0;
-        for (final Entry e : window) {
-            if (!e.suspicious) continue;
-            if (now - e.time <= 3) cnt++;
-        }
-        return cnt >= 5;
-    }
+    /** Estimated heap bytes; 0 for the shared empty states. */
+    long retainedBytes(HeapLayout layout);
 }
-
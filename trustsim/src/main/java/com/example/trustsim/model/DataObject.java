@@ -1,6 +1,8 @@
 package com.example.trustsim.model;
 
+import com.example.trustsim.Config;
 import com.example.trustsim.MathUtil;
+import com.example.trustsim.profiling.HeapLayout;
 
 public final class DataObject {
     public final int id;
@@ -15,7 +17,7 @@ public final class DataObject {
     public int lastAccessTime;
     public int totalAccessCountAllTime;
 
-    public final AccessStats accessStats;
+    public AccessStats accessStats; // a shared empty state until the first recordAccess
     public final RiskStats riskStats;
 
     public final boolean keepLabelGroundTruth;
@@ -23,9 +25,10 @@ public final class DataObject {
 
     // metrics helpers
     public int trustConvergenceTime = -1;
-    private final double[] lastTrusts = new double[10];
-    private int trustHistSize = 0;
-    private int trustHistPos = 0;
+    // package-private so ObjectStateSnapshot can copy the ring
+    final double[] lastTrusts = new double[10];
+    int trustHistSize = 0;
+    int trustHistPos = 0;
 
     public DataObject(
         final int id,
@@ -46,7 +49,7 @@ public final class DataObject {
         this.baseBusinessValue = MathUtil.clamp(baseBusinessValue, 0.0, 1.0);
         this.createdAt = createdAt;
         this.lastAccessTime = lastAccessTime;
-        this.accessStats = new AccessStats();
+        this.accessStats = AccessStats.empty(Config.ACCESS_STATS_DECAYED);
         this.riskStats = new RiskStats();
         this.keepLabelGroundTruth = keepLabelGroundTruth;
         this.deletedAtTime = -1;
@@ -62,13 +65,37 @@ public final class DataObject {
         this.deletedAtTime = now;
     }
 
-    public void updateTrustConvergence(final int now) {
+    /**
+     * Adds an access to the statistics; the first one gives the object statistics of its
+     * own, of the same kind as the shared empty state it starts with.
+     */
+    public void recordAccess(final int time, final boolean legit, final boolean suspicious) {
+        if (accessStats == WindowAccessStats.EMPTY) {
+            accessStats = new WindowAccessStats();
+        } else if (accessStats == DecayedAccessStats.EMPTY) {
+            accessStats = new DecayedAccessStats();
+        }
+        accessStats.add(time, legit, suspicious);
+    }
+
+    /**
+     * Estimated heap bytes of this object with its trust history and risk stats; the
+     * access statistics are counted by {@link AccessStats#retainedBytes(HeapLayout)}.
+     */
+    public long retainedBytes(final HeapLayout layout) {
+        return layout.shallow(DataObject.class) + layout.array(double.class, lastTrusts.length) + layout.shallow(RiskStats.class);
+    }
+
+    /**
+     * Records the current trust and returns true on the tick trust first converges.
+     */
+    public boolean updateTrustConvergence(final int now) {
         lastTrusts[trustHistPos] = trust;
         trustHistPos = (trustHistPos + 1) % lastTrusts.length;
         if (trustHistSize < lastTrusts.length) trustHistSize++;
 
-        if (trustConvergenceTime >= 0) return;
-        if (trustHistSize < lastTrusts.length) return;
+        if (trustConvergenceTime >= 0) return false;
+        if (trustHistSize < lastTrusts.length) return false;
 
         double min = Double.POSITIVE_INFINITY;
         double max = Double.NEGATIVE_INFINITY;
@@ -78,7 +105,9 @@ public final class DataObject {
         }
         if (max - min <= 0.04) { // ±0.02 stability band
             trustConvergenceTime = now;
+            return true;
         }
+        return false;
     }
 }
 
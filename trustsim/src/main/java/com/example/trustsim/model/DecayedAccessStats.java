@@ -0,0 +1,94 @@
+package com.example.trustsim.model;
+
+import com.example.trustsim.Config;
+import com.example.trustsim.profiling.HeapLayout;
+
+/**
+ * Exponentially decayed access counters: O(1) per event, a fixed 48 bytes per object and
+ * no per-event storage.
+ *
+ * Total, legit and suspicious counts halve every {@code ACCESS_DECAY_HALF_LIFE} ticks and
+ * a burst score of suspicious events every {@code ACCESS_BURST_HALF_LIFE} ticks. Decay is
+ * lazy: counters are brought to the current tick when an access is added or
+ * {@link #advanceTo(int)} is called, whatever the gap since the last update.
+ *
+ * Rates are normalized like the window's: counts over W while fewer than W events are
+ * weighted in, shares of the weighted events beyond that. Unlike the window, rates of an
+ * idle object fade. A burst is a score of at least {@code ACCESS_BURST_THRESHOLD}; with
+ * the defaults an attack burst of two suspicious events per tick over three ticks is
+ * flagged from its second tick for three ticks, where the window flags it from the
+ * third for two.
+ */
+public final class DecayedAccessStats implements AccessStats {
+    /** Counters of every object that has not been accessed yet; {@link #add} fails on it. */
+    public static final DecayedAccessStats EMPTY = new DecayedAccessStats();
+
+    private static final double RATE_DECAY = Math.log(2.0) / Config.ACCESS_DECAY_HALF_LIFE;
+    private static final double BURST_DECAY = Math.log(2.0) / Config.ACCESS_BURST_HALF_LIFE;
+    // factors for a gap of one tick, the common case in the tick loop
+    private static final double RATE_STEP = Math.exp(-RATE_DECAY);
+    private static final double BURST_STEP = Math.exp(-BURST_DECAY);
+    private static final int W = Config.ACCESS_WINDOW_W;
+
+    private double total;
+    private double legit;
+    private double suspicious;
+    private double burst;
+    private int time; // tick the counters are decayed to
+
+    @Override
+    public void add(final int time, final boolean legit, final boolean suspicious) {
+        if (this == EMPTY) throw new UnsupportedOperationException("Shared empty counters; record through DataObject.recordAccess");
+        advanceTo(time);
+        total += 1.0;
+        if (legit) this.legit += 1.0;
+        if (suspicious) {
+            this.suspicious += 1.0;
+            burst += 1.0;
+        }
+    }
+
+    @Override
+    public void advanceTo(final int now) {
+        if (now <= time || this == EMPTY) return;
+        final int dt = now - time;
+        final double f = dt == 1 ? RATE_STEP : Math.exp(-dt * RATE_DECAY);
+        total *= f;
+        legit *= f;
+        suspicious *= f;
+        burst *= dt == 1 ? BURST_STEP : Math.exp(-dt * BURST_DECAY);
+        time = now;
+    }
+
+    @Override
+    public double accessRate() {
+        return Math.min(1.0, total / W);
+    }
+
+    @Override
+    public double legitRate() {
+        return legit / Math.max(W, total);
+    }
+
+    @Override
+    public double suspiciousRate() {
+        return suspicious / Math.max(W, total);
+    }
+
+    /** Advances to {@code now}, then compares the burst score with the threshold. */
+    @Override
+    public boolean burstDetected(final int now) {
+        advanceTo(now);
+        return burst >= Config.ACCESS_BURST_THRESHOLD;
+    }
+
+    @Override
+    public int windowLength() {
+        return 0;
+    }
+
+    @Override
+    public long retainedBytes(final HeapLayout layout) {
+        return this == EMPTY ? 0L : layout.shallow(DecayedAccessStats.class);
+    }
+}
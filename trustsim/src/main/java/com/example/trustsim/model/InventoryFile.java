@@ -0,0 +1,537 @@
+package com.example.trustsim.model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Inventory export of an initial object population, in CSV or binary form, and a
+ * parallel loader for it.
+ *
+ * The CSV has the header {@value #CSV_HEADER} and one object per line; business value
+ * and trust are decimals, tier and sensitivity are enum names, the flags
+ * {@code true}/{@code false}. The binary form has a {@value #HEADER}-byte header (magic,
+ * version, record size, object count) followed by fixed {@value #RECORD_BYTES}-byte
+ * little-endian records:
+ *
+ * <pre>
+ *   off  size  field
+ *     0     4  id
+ *     4     1  sensitivity ordinal
+ *     5     1  tier ordinal
+ *     6     1  flags: 1 anonymized, 2 keepLabel
+ *     8     4  createdAt
+ *    12     4  lastAccessTime
+ *    16     8  businessValue
+ *    24     8  trust
+ * </pre>
+ *
+ * Ids must be exactly 0..n-1 in any order, and no object may be DELETED: an inventory
+ * lists stored objects.
+ */
+public final class InventoryFile {
+    public static final String CSV_HEADER = "id,sensitivity,businessValue,trust,createdAt,lastAccessTime,tier,anonymized,keepLabel";
+    static final long MAGIC = 0x54525354494e5631L; // "TRSTINV1"
+    static final int VERSION = 1;
+    public static final int HEADER = 32;
+    public static final int RECORD_BYTES = 32;
+
+    private static final int F_ANONYMIZED = 1;
+    private static final int F_KEEP = 2;
+
+    private static final Sensitivity[] SENSITIVITIES = Sensitivity.values();
+    private static final Tier[] TIERS = Tier.values();
+    private static final byte[][] SENSITIVITY_NAMES = names(SENSITIVITIES);
+    private static final byte[][] TIER_NAMES = names(TIERS);
+
+    private static final long CHUNK_BYTES = 64L << 20;
+    private static final int MAX_LINE = 1024;
+
+    private InventoryFile() {}
+
+    private static byte[][] names(final Enum<?>[] values) {
+        final byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) names[i] = values[i].name().getBytes(StandardCharsets.US_ASCII);
+        return names;
+    }
+
+    /** True if {@code path} starts with the binary magic. */
+    public static boolean isBinary(final Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer h = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            while (h.hasRemaining()) {
+                if (ch.read(h, h.position()) < 0) return false;
+            }
+            return h.getLong(0) == MAGIC;
+        }
+    }
+
+    /** Writes objects one at a time, as CSV or binary; the binary count is written on {@link #close()}. */
+    public static final class Writer implements Closeable {
+        private final boolean binary;
+        private final FileChannel channel;
+        private final ByteBuffer buf;
+        private final BufferedWriter csv;
+        private final StringBuilder line = new StringBuilder(96);
+        private long count;
+
+        public Writer(final Path path, final boolean binary) throws IOException {
+            this.binary = binary;
+            if (binary) {
+                this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                channel.position(HEADER);
+                this.buf = ByteBuffer.allocateDirect(RECORD_BYTES * 8192).order(ByteOrder.LITTLE_ENDIAN);
+                this.csv = null;
+            } else {
+                this.channel = null;
+                this.buf = null;
+                this.csv = Files.newBufferedWriter(path, StandardCharsets.US_ASCII);
+                csv.write(CSV_HEADER);
+                csv.write('\n');
+            }
+        }
+
+        public void write(final DataObject obj) throws IOException {
+            if (obj.isDeleted()) throw new IllegalArgumentException("Object " + obj.id + " is deleted");
+            count++;
+            if (binary) {
+                if (buf.remaining() < RECORD_BYTES) flush();
+                buf.putInt(obj.id);
+                buf.put((byte) obj.sensitivity.ordinal());
+                buf.put((byte) obj.tier.ordinal());
+                buf.put((byte) ((obj.anonymized ? F_ANONYMIZED : 0) | (obj.keepLabelGroundTruth ? F_KEEP : 0)));
+                buf.put((byte) 0);
+                buf.putInt(obj.createdAt);
+                buf.putInt(obj.lastAccessTime);
+                buf.putDouble(obj.baseBusinessValue);
+                buf.putDouble(obj.trust);
+                return;
+            }
+            line.setLength(0);
+            line.append(obj.id).append(',').append(obj.sensitivity.name()).append(',');
+            decimal(obj.baseBusinessValue);
+            line.append(',');
+            decimal(obj.trust);
+            line.append(',').append(obj.createdAt).append(',').append(obj.lastAccessTime)
+                .append(',').append(obj.tier.name())
+                .append(',').append(obj.anonymized)
+                .append(',').append(obj.keepLabelGroundTruth)
+                .append('\n');
+            csv.append(line);
+        }
+
+        /** Six decimals; values are in [0,1]. */
+        private void decimal(final double v) {
+            final long micros = Math.round(v * 1e6);
+            line.append(micros / 1_000_000).append('.');
+            final long frac = micros % 1_000_000;
+            for (long d = 100_000; d > frac && d > 1; d /= 10) line.append('0');
+            line.append(frac);
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!binary) {
+                csv.close();
+                return;
+            }
+            try {
+                flush();
+                final ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+                h.putLong(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putLong(count);
+                h.clear();
+                while (h.hasRemaining()) channel.write(h, h.position());
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Loads an inventory with {@code threads} workers. The file is memory-mapped in
+     * chunks of about 64 MiB; CSV chunks are cut at line starts (a line belongs to the
+     * chunk holding its first byte). Each worker parses its chunks straight into
+     * {@link DataObject}s, which are then placed by id.
+     */
+    public static final class Loader {
+        private final int threads;
+
+        // last load
+        private boolean lastBinary;
+        private long lastBytes;
+        private long lastObjects;
+        private int lastChunks;
+        private long lastNanos;
+
+        public Loader(final int threads) {
+            this.threads = Math.max(1, threads);
+        }
+
+        /** Objects indexed by id, as a fixed-size list. */
+        public List<DataObject> load(final Path path) throws IOException {
+            final long start = System.nanoTime();
+            final boolean binary = isBinary(path);
+            final DataObject[] objects;
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                lastBytes = ch.size();
+                objects = binary ? loadBinary(ch, path) : loadCsv(ch, path);
+            }
+            lastBinary = binary;
+            lastObjects = objects.length;
+            lastNanos = System.nanoTime() - start;
+            return Arrays.asList(objects);
+        }
+
+        private DataObject[] loadBinary(final FileChannel ch, final Path path) throws IOException {
+            final ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            while (h.hasRemaining()) {
+                if (ch.read(h, h.position()) < 0) throw new IOException("Truncated inventory: " + path);
+            }
+            h.flip();
+            if (h.getLong() != MAGIC || h.getInt() != VERSION) throw new IOException("Not an inventory file: " + path);
+            if (h.getInt() != RECORD_BYTES) throw new IOException("Record size mismatch: " + path);
+            final long count = h.getLong();
+            if (count > Integer.MAX_VALUE - 8) throw new IOException("Too many objects: " + count);
+            if (ch.size() < HEADER + count * RECORD_BYTES) throw new IOException("Truncated inventory: " + path);
+
+            final DataObject[] objects = new DataObject[(int) count];
+            final long perChunk = CHUNK_BYTES / RECORD_BYTES;
+            final List<Chunk<Void>> chunks = new ArrayList<>();
+            for (long first = 0; first < count; first += perChunk) {
+                final long from = first;
+                final long to = Math.min(count, first + perChunk);
+                chunks.add(() -> {
+                    final MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, HEADER + from * RECORD_BYTES, (to - from) * RECORD_BYTES);
+                    b.order(ByteOrder.LITTLE_ENDIAN);
+                    for (int r = 0; r < b.capacity(); r += RECORD_BYTES) {
+                        final int flags = b.get(r + 6);
+                        place(objects, create(
+                            b.getInt(r),
+                            sensitivity(b.get(r + 4)),
+                            b.getDouble(r + 24),
+                            tier(b.get(r + 5)),
+                            (flags & F_ANONYMIZED) != 0,
+                            b.getDouble(r + 16),
+                            b.getInt(r + 8),
+                            b.getInt(r + 12),
+                            (flags & F_KEEP) != 0
+                        ));
+                    }
+                    return null;
+                });
+            }
+            run(chunks);
+            checkComplete(objects, path);
+            return objects;
+        }
+
+        private DataObject[] loadCsv(final FileChannel ch, final Path path) throws IOException {
+            final long size = ch.size();
+            final List<Chunk<CsvParser>> chunks = new ArrayList<>();
+            for (long s = 0; s < size; s += CHUNK_BYTES) {
+                final long from = s;
+                final long to = Math.min(size, s + CHUNK_BYTES);
+                chunks.add(() -> parseCsv(ch, size, from, to, path));
+            }
+            final List<CsvParser> parsed = run(chunks);
+            int total = 0;
+            for (final CsvParser p : parsed) total = Math.addExact(total, p.count);
+
+            final DataObject[] objects = new DataObject[total];
+            final List<Chunk<Void>> placing = new ArrayList<>(parsed.size());
+            for (final CsvParser c : parsed) {
+                placing.add(() -> {
+                    for (int i = 0; i < c.count; i++) place(objects, c.objects[i]);
+                    return null;
+                });
+            }
+            run(placing);
+            checkComplete(objects, path);
+            return objects;
+        }
+
+        /** Parses the lines starting in [from, to). */
+        private static CsvParser parseCsv(final FileChannel ch, final long size, final long from, final long to, final Path path)
+            throws IOException {
+            final long mapFrom = from == 0 ? 0 : from - 1;
+            final long mapTo = Math.min(size, to + MAX_LINE);
+            final MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, mapFrom, mapTo - mapFrom);
+            final CsvParser p = new CsvParser(b, path);
+            final int end = (int) (to - mapFrom);
+            if (from == 0) {
+                p.skipHeader();
+            } else {
+                // a line starts here only if the previous byte ends one
+                while (p.pos < b.limit() && b.get(p.pos++) != '\n') {
+                    // skip the tail of a line owned by the previous chunk
+                }
+            }
+            while (p.pos < end) p.line();
+            return p;
+        }
+
+        private static DataObject create(
+            final int id,
+            final Sensitivity sensitivity,
+            final double trust,
+            final Tier tier,
+            final boolean anonymized,
+            final double businessValue,
+            final int createdAt,
+            final int lastAccessTime,
+            final boolean keepLabel
+        ) throws IOException {
+            if (tier == Tier.DELETED) throw new IOException("Inventory lists deleted object " + id);
+            return new DataObject(id, sensitivity, trust, tier, anonymized, businessValue, createdAt, lastAccessTime, keepLabel);
+        }
+
+        private static void place(final DataObject[] objects, final DataObject obj) throws IOException {
+            if (obj.id < 0 || obj.id >= objects.length) {
+                throw new IOException("Object id " + obj.id + " outside 0.." + (objects.length - 1));
+            }
+            objects[obj.id] = obj;
+        }
+
+        /** With every id in range, a missing one means another appeared twice. */
+        private static void checkComplete(final DataObject[] objects, final Path path) throws IOException {
+            for (int i = 0; i < objects.length; i++) {
+                if (objects[i] == null) throw new IOException("Inventory " + path + " has no object " + i + " (duplicate ids)");
+            }
+        }
+
+        private interface Chunk<T> {
+            T load() throws IOException;
+        }
+
+        private <T> List<T> run(final List<Chunk<T>> chunks) throws IOException {
+            lastChunks = chunks.size();
+            final ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, chunks.size())));
+            try {
+                final List<Future<T>> futures = new ArrayList<>(chunks.size());
+                for (final Chunk<T> c : chunks) futures.add(pool.submit(c::load));
+                final List<T> results = new ArrayList<>(chunks.size());
+                for (final Future<T> f : futures) results.add(f.get());
+                return results;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading the inventory", e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                throw new IOException("Inventory load failed", e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        public String report() {
+            final double s = lastNanos / 1e9;
+            return String.format(Locale.ROOT, "Inventory: %d objects from %.1f MiB of %s in %.2f s (%.2f M objects/s, %.0f MiB/s; %d chunks, %d threads)",
+                lastObjects, lastBytes / (double) (1 << 20), lastBinary ? "binary" : "CSV", s,
+                lastObjects / s / 1e6, lastBytes / (double) (1 << 20) / s, lastChunks, threads);
+        }
+    }
+
+    private static Sensitivity sensitivity(final int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= SENSITIVITIES.length) throw new IOException("Bad sensitivity ordinal " + ordinal);
+        return SENSITIVITIES[ordinal];
+    }
+
+    private static Tier tier(final int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= TIERS.length) throw new IOException("Bad tier ordinal " + ordinal);
+        return TIERS[ordinal];
+    }
+
+    /** Byte-level parser over one mapped CSV chunk; collects the objects it parses. */
+    private static final class CsvParser {
+        private final MappedByteBuffer b;
+        private final Path path;
+        int pos;
+        DataObject[] objects = new DataObject[1 << 16];
+        int count;
+
+        CsvParser(final MappedByteBuffer b, final Path path) {
+            this.b = b;
+            this.path = path;
+        }
+
+        void skipHeader() throws IOException {
+            final int start = pos;
+            while (pos < b.limit() && b.get(pos) != '\n') pos++;
+            final byte[] header = new byte[pos - start];
+            b.get(start, header);
+            if (!new String(header, StandardCharsets.US_ASCII).trim().equals(CSV_HEADER)) {
+                throw new IOException("Not an inventory CSV: " + path);
+            }
+            pos++;
+        }
+
+        void line() throws IOException {
+            if (b.get(pos) == '\n' || b.get(pos) == '\r') {
+                pos++; // blank line
+                return;
+            }
+            final int start = pos;
+            final int id = (int) integer();
+            final Sensitivity sensitivity = SENSITIVITIES[name(SENSITIVITY_NAMES)];
+            final double businessValue = decimal();
+            final double trust = decimal();
+            final int createdAt = (int) integer();
+            final int lastAccessTime = (int) integer();
+            final Tier tier = TIERS[name(TIER_NAMES)];
+            final boolean anonymized = bool();
+            final boolean keepLabel = bool();
+            if (pos > start + MAX_LINE) throw malformed(start);
+            if (count == objects.length) objects = Arrays.copyOf(objects, count * 2);
+            objects[count++] = Loader.create(id, sensitivity, trust, tier, anonymized, businessValue, createdAt, lastAccessTime, keepLabel);
+        }
+
+        private long integer() throws IOException {
+            final int start = pos;
+            final boolean negative = pos < b.limit() && b.get(pos) == '-';
+            if (negative) pos++;
+            long v = 0;
+            int digits = 0;
+            while (pos < b.limit()) {
+                final int c = b.get(pos) - '0';
+                if (c < 0 || c > 9) break;
+                v = v * 10 + c;
+                pos++;
+                if (++digits > 10) throw malformed(start);
+            }
+            if (digits == 0 || v > Integer.MAX_VALUE) throw malformed(start);
+            endField(start);
+            return negative ? -v : v;
+        }
+
+        /** Plain decimals of up to 15 significant digits exactly; anything else via {@link Double#parseDouble}. */
+        private double decimal() throws IOException {
+            final int start = pos;
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean point = false;
+            boolean plain = true;
+            while (pos < b.limit()) {
+                final byte c = b.get(pos);
+                if (c >= '0' && c <= '9') {
+                    if (digits < 15 && scale < 15) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        if (mantissa != 0) digits++;
+                        if (point) scale++;
+                    } else {
+                        plain = false;
+                    }
+                } else if (c == '.' && !point) {
+                    point = true;
+                } else if (c == ',' || c == '\n' || c == '\r') {
+                    break;
+                } else {
+                    plain = false;
+                }
+                pos++;
+            }
+            if (pos == start) throw malformed(start);
+            final double v;
+            if (plain) {
+                v = mantissa / POW10[scale];
+            } else {
+                final byte[] text = new byte[pos - start];
+                b.get(start, text);
+                try {
+                    v = Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+                } catch (final NumberFormatException e) {
+                    throw malformed(start);
+                }
+            }
+            endField(start);
+            return v;
+        }
+
+        private int name(final byte[][] names) throws IOException {
+            final int start = pos;
+            while (pos < b.limit() && b.get(pos) != ',' && b.get(pos) != '\n' && b.get(pos) != '\r') pos++;
+            final int len = pos - start;
+            outer:
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length != len) continue;
+                for (int j = 0; j < len; j++) {
+                    if (b.get(start + j) != names[i][j]) continue outer;
+                }
+                endField(start);
+                return i;
+            }
+            throw malformed(start);
+        }
+
+        private boolean bool() throws IOException {
+            final int start = pos;
+            final boolean v;
+            if (matches("true")) v = true;
+            else if (matches("false")) v = false;
+            else throw malformed(start);
+            endField(start);
+            return v;
+        }
+
+        private boolean matches(final String word) {
+            if (pos + word.length() > b.limit()) return false;
+            for (int j = 0; j < word.length(); j++) {
+                if (b.get(pos + j) != word.charAt(j)) return false;
+            }
+            pos += word.length();
+            return true;
+        }
+
+        /** Consumes the delimiter after a field: a comma, or the line end. */
+        private void endField(final int start) throws IOException {
+            if (pos == b.limit()) return; // last line without a newline
+            final byte c = b.get(pos++);
+            if (c == ',' || c == '\n') return;
+            if (c == '\r' && pos < b.limit() && b.get(pos) == '\n') {
+                pos++;
+                return;
+            }
+            throw malformed(start);
+        }
+
+        private IOException malformed(final int at) {
+            int s = at;
+            while (s > 0 && b.get(s - 1) != '\n') s--;
+            int e = at;
+            while (e < b.limit() && e - s < 200 && b.get(e) != '\n') e++;
+            final byte[] text = new byte[e - s];
+            b.get(s, text);
+            return new IOException("Malformed inventory line in " + path + ": " + new String(text, StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static final double[] POW10 = new double[16];
+
+    static {
+        POW10[0] = 1.0;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10.0;
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.trustsim.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Per-object state in fixed-size records of a memory-mapped file, so a population
+ * need not fit on the heap: the OS pages record ranges in and out, and the file is
+ * the state image a restarted run opens again.
+ *
+ * <pre>
+ *   off  size  field
+ *     0     1  sensitivity ordinal
+ *     1     1  tier ordinal
+ *     2     1  flags: 1 anonymized, 2 keepLabelGroundTruth, 4 highRiskFlag
+ *     3     1  trust ring size
+ *     4     1  trust ring position
+ *     5     1  access window length
+ *     6     1  access window head: ring index of the oldest entry
+ *     7     1  legit entries in the window
+ *     8     8  trust
+ *    16     8  baseBusinessValue
+ *    24     8  anomalyScore
+ *    32     8  risk
+ *    40     4  createdAt
+ *    44     4  lastAccessTime
+ *    48     4  totalAccessCountAllTime
+ *    52     4  deletedAtTime
+ *    56     4  trustConvergenceTime
+ *    60     1  suspicious entries in the window
+ *    64    80  trust ring (10 doubles)
+ *   144   4*W  access window ring, packed as time << 2 | legit << 1 | suspicious
+ * </pre>
+ *
+ * The file starts with a {@value #HEADER}-byte header (magic, version, count, window
+ * size, record size, checkpointed tick). Records are split over mappings of at most
+ * 2 GiB each.
+ *
+ * The file is not crash-consistent. Records are updated in place and the OS may write
+ * dirty pages back at any time, so after a crash the file can hold records of
+ * different ticks, and the checkpointed tick in the header does not say which. Only a
+ * store that was checkpointed and closed cleanly is an image of a single tick.
+ *
+ * Hot paths read and update fields in place through the record accessors
+ * ({@link #trust(int)}, {@link #risk(int)}, {@link #tier(int)}, {@link #recordAccess},
+ * ...), which allocate nothing. {@link #load(int)} builds a fresh {@link DataObject}
+ * from a record and {@link #store(DataObject)} writes one back, for paths that need
+ * the whole object. Nothing is cached, so callers must not keep a loaded object across
+ * a store or accessor update of the same id. Records of different ids may be read and
+ * written from different threads.
+ */
+public final class MappedObjectStore implements Closeable {
+    private static final Sensitivity[] SENSITIVITIES = Sensitivity.values();
+    private static final Tier[] TIERS = Tier.values();
+    private static final int TRUST_RING = 10;
+
+    private static final long MAGIC = 0x5452535453544f52L; // "TRSTSTOR"
+    private static final int VERSION = 2;
+    static final int HEADER = 64;
+
+    private static final int F_ANONYMIZED = 1;
+    private static final int F_KEEP = 2;
+    private static final int F_HIGH_RISK = 4;
+
+    private static final int TRUST_RING_OFFSET = 64;
+    private static final int WINDOW_OFFSET = TRUST_RING_OFFSET + 8 * TRUST_RING;
+    private static final int MAX_WINDOW = 127;
+
+    private static final ThreadLocal<int[]> WINDOW = ThreadLocal.withInitial(() -> new int[MAX_WINDOW]);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final int count;
+    private final int windowSize;
+    private final int recordSize;
+    private final int segmentShift;
+    private final int segmentMask;
+
+    private MappedObjectStore(final FileChannel channel, final int count, final int windowSize) throws IOException {
+        this.channel = channel;
+        this.count = count;
+        this.windowSize = windowSize;
+        this.recordSize = recordSize(windowSize);
+
+        // power-of-two records per mapping, each mapping under 2 GiB
+        final int perSegment = Integer.highestOneBit(Integer.MAX_VALUE / recordSize);
+        this.segmentShift = Integer.numberOfTrailingZeros(perSegment);
+        this.segmentMask = perSegment - 1;
+
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        final int n = (int) (((long) count + perSegment - 1) / perSegment);
+        this.segments = new MappedByteBuffer[n];
+        for (int i = 0; i < n; i++) {
+            final long first = (long) i * perSegment;
+            final long records = Math.min(perSegment, count - first);
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER + first * recordSize, records * recordSize);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Creates (or truncates) {@code path} with room for {@code count} records; records must
+     * then be written with {@link #store(DataObject)} before they are loaded.
+     */
+    public static MappedObjectStore create(final Path path, final int count, final int windowSize) throws IOException {
+        if (windowSize < 1 || windowSize > MAX_WINDOW) throw new IllegalArgumentException("Window size: " + windowSize);
+        final FileChannel ch = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ch.truncate(0);
+        final MappedObjectStore s = new MappedObjectStore(ch, count, windowSize);
+        s.header.putLong(0, MAGIC);
+        s.header.putInt(8, VERSION);
+        s.header.putInt(12, count);
+        s.header.putInt(16, windowSize);
+        s.header.putInt(20, s.recordSize);
+        s.header.putInt(24, -1);
+        return s;
+    }
+
+    /**
+     * Creates a store at {@code path} holding {@code objects}; object ids must equal their
+     * list index.
+     */
+    public static MappedObjectStore create(final Path path, final List<DataObject> objects, final int windowSize) throws IOException {
+        final MappedObjectStore s = create(path, objects.size(), windowSize);
+        for (final DataObject obj : objects) s.store(obj);
+        return s;
+    }
+
+    /** Opens an existing store written by this class. */
+    public static MappedObjectStore open(final Path path) throws IOException {
+        final FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final MappedByteBuffer h = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            h.order(ByteOrder.LITTLE_ENDIAN);
+            if (h.getLong(0) != MAGIC || h.getInt(8) != VERSION) throw new IOException("Not a state store: " + path);
+            final int count = h.getInt(12);
+            final int windowSize = h.getInt(16);
+            if (h.getInt(20) != recordSize(windowSize)) throw new IOException("Record size mismatch: " + path);
+            if (ch.size() < HEADER + (long) count * recordSize(windowSize)) throw new IOException("Truncated state store: " + path);
+            return new MappedObjectStore(ch, count, windowSize);
+        } catch (final IOException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private static int recordSize(final int windowSize) {
+        return (WINDOW_OFFSET + 4 * windowSize + 7) & ~7;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int recordSize() {
+        return recordSize;
+    }
+
+    /** Tick of the last {@link #checkpoint(int)}, or -1. */
+    public int checkpointTick() {
+        return header.getInt(24);
+    }
+
+    private MappedByteBuffer segment(final int id) {
+        return segments[id >>> segmentShift];
+    }
+
+    private int offset(final int id) {
+        return (id & segmentMask) * recordSize;
+    }
+
+    public Sensitivity sensitivity(final int id) {
+        return SENSITIVITIES[segment(id).get(offset(id))];
+    }
+
+    public Tier tier(final int id) {
+        return TIERS[segment(id).get(offset(id) + 1)];
+    }
+
+    public boolean anonymized(final int id) {
+        return (segment(id).get(offset(id) + 2) & F_ANONYMIZED) != 0;
+    }
+
+    public double trust(final int id) {
+        return segment(id).getDouble(offset(id) + 8);
+    }
+
+    public double risk(final int id) {
+        return segment(id).getDouble(offset(id) + 32);
+    }
+
+    public int lastAccessTime(final int id) {
+        return segment(id).getInt(offset(id) + 44);
+    }
+
+    public int windowLength(final int id) {
+        return segment(id).get(offset(id) + 5);
+    }
+
+    public int legitCount(final int id) {
+        return segment(id).get(offset(id) + 7);
+    }
+
+    public int suspiciousCount(final int id) {
+        return segment(id).get(offset(id) + 60);
+    }
+
+    /**
+     * Records an access to object {@code id} in place: sets the last access time, counts
+     * the access and appends it to the window ring, dropping the oldest entry of a full
+     * window. Same effect as the monitoring update of a loaded object.
+     */
+    public void recordAccess(final int id, final int time, final boolean legit, final boolean suspicious) {
+        final MappedByteBuffer b = segment(id);
+        final int r = offset(id);
+        b.putInt(r + 44, time);
+        b.putInt(r + 48, b.getInt(r + 48) + 1);
+
+        int len = b.get(r + 5);
+        int head = b.get(r + 6);
+        int legitCount = b.get(r + 7);
+        int suspiciousCount = b.get(r + 60);
+        if (len == windowSize) {
+            final int oldest = b.getInt(r + WINDOW_OFFSET + 4 * head);
+            if ((oldest & 2) != 0) legitCount--;
+            if ((oldest & 1) != 0) suspiciousCount--;
+            head = head + 1 == windowSize ? 0 : head + 1;
+            len--;
+        }
+        final int tail = head + len < windowSize ? head + len : head + len - windowSize;
+        b.putInt(r + WINDOW_OFFSET + 4 * tail, (time << 2) | (legit ? 2 : 0) | (suspicious ? 1 : 0));
+        if (legit) legitCount++;
+        if (suspicious) suspiciousCount++;
+        b.put(r + 5, (byte) (len + 1));
+        b.put(r + 6, (byte) head);
+        b.put(r + 7, (byte) legitCount);
+        b.put(r + 60, (byte) suspiciousCount);
+    }
+
+    public DataObject load(final int id) {
+        final MappedByteBuffer b = segment(id);
+        final int r = offset(id);
+        final int flags = b.get(r + 2);
+        final DataObject obj = new DataObject(
+            id,
+            SENSITIVITIES[b.get(r)],
+            b.getDouble(r + 8),
+            TIERS[b.get(r + 1)],
+            (flags & F_ANONYMIZED) != 0,
+            b.getDouble(r + 16),
+            b.getInt(r + 40),
+            b.getInt(r + 44),
+            (flags & F_KEEP) != 0
+        );
+        obj.riskStats.anomalyScore = b.getDouble(r + 24);
+        obj.riskStats.risk = b.getDouble(r + 32);
+        obj.riskStats.highRiskFlag = (flags & F_HIGH_RISK) != 0;
+        obj.totalAccessCountAllTime = b.getInt(r + 48);
+        obj.deletedAtTime = b.getInt(r + 52);
+        obj.trustConvergenceTime = b.getInt(r + 56);
+        obj.trustHistSize = b.get(r + 3);
+        obj.trustHistPos = b.get(r + 4);
+        for (int i = 0; i < TRUST_RING; i++) obj.lastTrusts[i] = b.getDouble(r + TRUST_RING_OFFSET + 8 * i);
+
+        final int len = b.get(r + 5);
+        final int head = b.get(r + 6);
+        for (int i = 0, k = head; i < len; i++, k = k + 1 == windowSize ? 0 : k + 1) {
+            final int p = b.getInt(r + WINDOW_OFFSET + 4 * k);
+            obj.recordAccess(p >>> 2, (p & 2) != 0, (p & 1) != 0);
+        }
+        return obj;
+    }
+
+    public void store(final DataObject obj) {
+        final MappedByteBuffer b = segment(obj.id);
+        final int r = offset(obj.id);
+        b.put(r, (byte) obj.sensitivity.ordinal());
+        b.put(r + 1, (byte) obj.tier.ordinal());
+        b.put(r + 2, (byte) ((obj.anonymized ? F_ANONYMIZED : 0)
+            | (obj.keepLabelGroundTruth ? F_KEEP : 0)
+            | (obj.riskStats.highRiskFlag ? F_HIGH_RISK : 0)));
+        b.put(r + 3, (byte) obj.trustHistSize);
+        b.put(r + 4, (byte) obj.trustHistPos);
+        b.putDouble(r + 8, obj.trust);
+        b.putDouble(r + 16, obj.baseBusinessValue);
+        b.putDouble(r + 24, obj.riskStats.anomalyScore);
+        b.putDouble(r + 32, obj.riskStats.risk);
+        b.putInt(r + 40, obj.createdAt);
+        b.putInt(r + 44, obj.lastAccessTime);
+        b.putInt(r + 48, obj.totalAccessCountAllTime);
+        b.putInt(r + 52, obj.deletedAtTime);
+        b.putInt(r + 56, obj.trustConvergenceTime);
+        for (int i = 0; i < TRUST_RING; i++) b.putDouble(r + TRUST_RING_OFFSET + 8 * i, obj.lastTrusts[i]);
+
+        if (!(obj.accessStats instanceof WindowAccessStats)) {
+            throw new IllegalStateException("The state store holds access windows, not decayed access statistics");
+        }
+        final WindowAccessStats window = (WindowAccessStats) obj.accessStats;
+        if (window.windowLength() > windowSize) {
+            throw new IllegalStateException("Access window of object " + obj.id + " exceeds " + windowSize);
+        }
+        final int[] packed = WINDOW.get();
+        final int len = window.exportWindow(packed, 0);
+        b.put(r + 5, (byte) len);
+        b.put(r + 6, (byte) 0);
+        b.put(r + 7, (byte) window.getLegitCount());
+        b.put(r + 60, (byte) window.getSuspiciousCount());
+        for (int i = 0; i < len; i++) b.putInt(r + WINDOW_OFFSET + 4 * i, packed[i]);
+    }
+
+    /**
+     * Forces every record to disk, then stamps {@code tick} in the header: the file is then
+     * a complete image of the state after that tick, until the next record update. This
+     * is durability, not atomicity: a crash after later updates, or during this call,
+     * leaves records from different ticks behind a header that names one of them.
+     */
+    public void checkpoint(final int tick) {
+        for (final MappedByteBuffer s : segments) s.force();
+        header.putInt(24, tick);
+        header.force();
+    }
+
+    /**
+     * Read-only list view that loads each object on access; every {@code get} returns a
+     * new, detached object.
+     */
+    public List<DataObject> asList() {
+        return new View();
+    }
+
+    private final class View extends AbstractList<DataObject> implements RandomAccess {
+        @Override
+        public DataObject get(final int index) {
+            if (index < 0 || index >= count) throw new IndexOutOfBoundsException(index);
+            return load(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
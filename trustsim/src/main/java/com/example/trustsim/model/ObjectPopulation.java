@@ -0,0 +1,112 @@
+package com.example.trustsim.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The objects a run currently holds, for runs where the population churns: objects are
+ * created mid-run and deleted ones are dropped instead of being visited every tick.
+ *
+ * Ids are stable external ids: assigned in creation order and never reused, so events,
+ * audit rows and per-id tables keep meaning the same object. {@link #get(int)} resolves
+ * an id while the object is live. The live objects sit in a dense array in ascending id
+ * order; {@link #compact()} squeezes deleted ones out in one order-preserving pass and
+ * releases them, so iteration cost follows the live count, not the number ever created.
+ */
+public final class ObjectPopulation {
+    /** Builds the object with {@code id} created at tick {@code now}, or null if there is none. */
+    public interface Factory {
+        DataObject create(int id, int now);
+    }
+
+    private DataObject[] byId;
+    private DataObject[] live;
+    private int liveCount;
+    private int nextId;
+
+    private long created;
+    private long released;
+
+    /** Population holding {@code initial}; object ids must equal their list index. */
+    public ObjectPopulation(final List<DataObject> initial) {
+        final int n = initial.size();
+        this.byId = new DataObject[Math.max(16, n)];
+        this.live = new DataObject[byId.length];
+        for (int i = 0; i < n; i++) {
+            final DataObject obj = initial.get(i);
+            if (obj.id != i) throw new IllegalArgumentException("Object at index " + i + " has id " + obj.id);
+            if (obj.isDeleted()) {
+                released++; // never live here: events for it are dropped like for any released object
+            } else {
+                byId[i] = obj;
+                live[liveCount++] = obj;
+            }
+        }
+        this.nextId = n;
+    }
+
+    /** The live object with {@code id}, or null if it was never created or has been released. */
+    public DataObject get(final int id) {
+        return id >= 0 && id < nextId ? byId[id] : null;
+    }
+
+    public int liveCount() {
+        return liveCount;
+    }
+
+    /** The {@code i}-th live object, in id order; only valid until the next {@link #compact()} or creation. */
+    public DataObject live(final int i) {
+        return live[i];
+    }
+
+    /** Id the next created object gets. */
+    public int nextId() {
+        return nextId;
+    }
+
+    /**
+     * Creates the next object through {@code factory} and adds it to the live set; returns
+     * it, or null if the factory has none.
+     */
+    public DataObject create(final Factory factory, final int now) {
+        final DataObject obj = factory.create(nextId, now);
+        if (obj == null) return null;
+        if (obj.id != nextId) throw new IllegalStateException("Factory returned id " + obj.id + ", expected " + nextId);
+        if (nextId == byId.length) byId = Arrays.copyOf(byId, byId.length * 2);
+        if (liveCount == live.length) live = Arrays.copyOf(live, live.length * 2);
+        byId[nextId++] = obj;
+        live[liveCount++] = obj;
+        created++;
+        return obj;
+    }
+
+    /**
+     * Drops deleted objects from the live set and releases them; returns how many.
+     */
+    public int compact() {
+        int w = 0;
+        for (int r = 0; r < liveCount; r++) {
+            final DataObject obj = live[r];
+            if (obj.isDeleted()) {
+                byId[obj.id] = null;
+            } else {
+                live[w++] = obj;
+            }
+        }
+        final int removed = liveCount - w;
+        Arrays.fill(live, w, liveCount, null);
+        liveCount = w;
+        released += removed;
+        return removed;
+    }
+
+    /** Objects created through {@link #create(Factory, int)}. */
+    public long created() {
+        return created;
+    }
+
+    /** Deleted objects released by {@link #compact()}, plus those already deleted when the population was built. */
+    public long released() {
+        return released;
+    }
+}
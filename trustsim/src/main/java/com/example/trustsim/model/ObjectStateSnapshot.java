@@ -0,0 +1,226 @@
+package com.example.trustsim.model;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Immutable struct-of-arrays copy of a population's per-object state.
+ *
+ * Capturing costs a handful of primitive arrays instead of a deep object graph,
+ * and one snapshot can back any number of independent {@link Branch} lists (one per
+ * what-if branch), which copy objects out of the arrays only as they are touched.
+ */
+public final class ObjectStateSnapshot {
+    private static final Sensitivity[] SENSITIVITIES = Sensitivity.values();
+    private static final Tier[] TIERS = Tier.values();
+    private static final int TRUST_RING = 10;
+    private static final byte DELETED = (byte) Tier.DELETED.ordinal();
+
+    private final int size;
+
+    // immutable attributes
+    private final byte[] sensitivity;
+    private final double[] baseBusinessValue;
+    private final int[] createdAt;
+    private final boolean[] keepLabelGroundTruth;
+
+    // mutable state
+    private final double[] trust;
+    private final byte[] tier;
+    private final boolean[] anonymized;
+    private final int[] lastAccessTime;
+    private final int[] totalAccessCountAllTime;
+    private final int[] deletedAtTime;
+    private final double[] anomalyScore;
+    private final double[] risk;
+    private final boolean[] highRiskFlag;
+
+    private final int[] trustConvergenceTime;
+    private final double[] trustRing;
+    private final byte[] trustRingSize;
+    private final byte[] trustRingPos;
+
+    // packed access windows; object i owns windowPacked[windowStart[i] .. windowStart[i + 1])
+    private final int[] windowStart;
+    private final int[] windowPacked;
+
+    // objects already deleted here, read-only and shared by all branches; built on first branch()
+    private DataObject[] deletedObjects;
+
+    private ObjectStateSnapshot(final int size, final int windowEntries) {
+        this.size = size;
+        this.sensitivity = new byte[size];
+        this.baseBusinessValue = new double[size];
+        this.createdAt = new int[size];
+        this.keepLabelGroundTruth = new boolean[size];
+        this.trust = new double[size];
+        this.tier = new byte[size];
+        this.anonymized = new boolean[size];
+        this.lastAccessTime = new int[size];
+        this.totalAccessCountAllTime = new int[size];
+        this.deletedAtTime = new int[size];
+        this.anomalyScore = new double[size];
+        this.risk = new double[size];
+        this.highRiskFlag = new boolean[size];
+        this.trustConvergenceTime = new int[size];
+        this.trustRing = new double[size * TRUST_RING];
+        this.trustRingSize = new byte[size];
+        this.trustRingPos = new byte[size];
+        this.windowStart = new int[size + 1];
+        this.windowPacked = new int[windowEntries];
+    }
+
+    /**
+     * Copies the state of {@code objects}; object ids must equal their list index.
+     */
+    public static ObjectStateSnapshot capture(final List<DataObject> objects) {
+        int windowEntries = 0;
+        for (final DataObject obj : objects) {
+            if (!(obj.accessStats instanceof WindowAccessStats)) {
+                throw new IllegalStateException("Snapshots hold access windows, not decayed access statistics");
+            }
+            windowEntries += obj.accessStats.windowLength();
+        }
+
+        final ObjectStateSnapshot s = new ObjectStateSnapshot(objects.size(), windowEntries);
+        int w = 0;
+        for (int i = 0; i < s.size; i++) {
+            final DataObject obj = objects.get(i);
+            s.sensitivity[i] = (byte) obj.sensitivity.ordinal();
+            s.baseBusinessValue[i] = obj.baseBusinessValue;
+            s.createdAt[i] = obj.createdAt;
+            s.keepLabelGroundTruth[i] = obj.keepLabelGroundTruth;
+
+            s.trust[i] = obj.trust;
+            s.tier[i] = (byte) obj.tier.ordinal();
+            s.anonymized[i] = obj.anonymized;
+            s.lastAccessTime[i] = obj.lastAccessTime;
+            s.totalAccessCountAllTime[i] = obj.totalAccessCountAllTime;
+            s.deletedAtTime[i] = obj.deletedAtTime;
+            s.anomalyScore[i] = obj.riskStats.anomalyScore;
+            s.risk[i] = obj.riskStats.risk;
+            s.highRiskFlag[i] = obj.riskStats.highRiskFlag;
+
+            s.trustConvergenceTime[i] = obj.trustConvergenceTime;
+            System.arraycopy(obj.lastTrusts, 0, s.trustRing, i * TRUST_RING, TRUST_RING);
+            s.trustRingSize[i] = (byte) obj.trustHistSize;
+            s.trustRingPos[i] = (byte) obj.trustHistPos;
+
+            s.windowStart[i] = w;
+            w += ((WindowAccessStats) obj.accessStats).exportWindow(s.windowPacked, w);
+        }
+        s.windowStart[s.size] = w;
+        return s;
+    }
+
+    /**
+     * Returns a new copy-on-write population backed by this snapshot.
+     */
+    public synchronized Branch branch() {
+        if (deletedObjects == null) {
+            final DataObject[] d = new DataObject[size];
+            for (int i = 0; i < size; i++) {
+                if (tier[i] == DELETED) d[i] = restore(i);
+            }
+            deletedObjects = d;
+        }
+        return new Branch(deletedObjects);
+    }
+
+    private DataObject restore(final int i) {
+        final DataObject obj = new DataObject(
+            i,
+            SENSITIVITIES[sensitivity[i]],
+            trust[i],
+            TIERS[tier[i]],
+            anonymized[i],
+            baseBusinessValue[i],
+            createdAt[i],
+            lastAccessTime[i],
+            keepLabelGroundTruth[i]
+        );
+        obj.totalAccessCountAllTime = totalAccessCountAllTime[i];
+        obj.deletedAtTime = deletedAtTime[i];
+        obj.riskStats.anomalyScore = anomalyScore[i];
+        obj.riskStats.risk = risk[i];
+        obj.riskStats.highRiskFlag = highRiskFlag[i];
+
+        obj.trustConvergenceTime = trustConvergenceTime[i];
+        System.arraycopy(trustRing, i * TRUST_RING, obj.lastTrusts, 0, TRUST_RING);
+        obj.trustHistSize = trustRingSize[i];
+        obj.trustHistPos = trustRingPos[i];
+
+        obj.accessStats = WindowAccessStats.fromWindow(windowPacked, windowStart[i], windowStart[i + 1] - windowStart[i]);
+        return obj;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * One branch's population, copied out of the snapshot on write.
+     *
+     * {@link #get(int)} copies object {@code i} the first time it is called for it and
+     * returns that copy from then on; every caller that may change the object must go
+     * through it. Iteration returns the copy if there is one; otherwise it copies objects
+     * that are live in the snapshot, and for objects already deleted there it returns one
+     * instance shared by all branches. The tick loop only reads deleted objects when it
+     * evaluates them and looks objects up by id to record accesses, so a branch copies
+     * only its live objects plus the deleted ones it sees accesses for.
+     */
+    public final class Branch extends AbstractList<DataObject> implements RandomAccess {
+        private final DataObject[] shared;
+        private final DataObject[] copies = new DataObject[size];
+        private int copied;
+
+        private Branch(final DataObject[] shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public DataObject get(final int i) {
+            DataObject obj = copies[i];
+            if (obj == null) {
+                obj = restore(i);
+                copies[i] = obj;
+                copied++;
+            }
+            return obj;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<DataObject> iterator() {
+            return new Iterator<DataObject>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public DataObject next() {
+                    if (next >= size) throw new NoSuchElementException();
+                    final int i = next++;
+                    final DataObject obj = copies[i];
+                    if (obj != null) return obj;
+                    return tier[i] == DELETED ? shared[i] : get(i);
+                }
+            };
+        }
+
+        /** Objects this branch has copied so far. */
+        public int copied() {
+            return copied;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.trustsim.model;
+
+/**
+ * Why {@code RetentionDecisionController} chose an action; {@link #code} is the
+ * value written to the audit trail.
+ */
+public enum ReasonCode {
+    ALREADY_DELETED("already_deleted"),
+    GRACE_PERIOD("grace_period"),
+    HIGH_RISK_KEEP_VALUE("high_risk_keep_value"),
+    COLD_START_HOLD("cold_start_hold"),
+    LOW_TRUST_LOW_VALUE("low_trust_low_value"),
+    HIGH_TRUST_HIGH_VALUE("high_trust_high_value"),
+    MID_ZONE("mid_zone");
+
+    public final String code;
+
+    ReasonCode(final String code) {
+        this.code = code;
+    }
+}
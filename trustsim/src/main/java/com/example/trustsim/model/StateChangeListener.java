@@ -0,0 +1,42 @@
+package com.example.trustsim.model;
+
+/**
+ * Observer for in-place changes to an object's tier, anonymization or risk state.
+ *
+ * Mutators call {@link #beforeChange(DataObject)} and {@link #afterChange(DataObject)}
+ * around the write, and only when a tracked field actually changes.
+ */
+public interface StateChangeListener {
+    StateChangeListener NONE = new StateChangeListener() {
+        @Override
+        public void beforeChange(final DataObject obj) {
+        }
+
+        @Override
+        public void afterChange(final DataObject obj) {
+        }
+    };
+
+    /**
+     * Listener that forwards to {@code first}, then {@code second}.
+     */
+    static StateChangeListener of(final StateChangeListener first, final StateChangeListener second) {
+        return new StateChangeListener() {
+            @Override
+            public void beforeChange(final DataObject obj) {
+                first.beforeChange(obj);
+                second.beforeChange(obj);
+            }
+
+            @Override
+            public void afterChange(final DataObject obj) {
+                first.afterChange(obj);
+                second.afterChange(obj);
+            }
+        };
+    }
+
+    void beforeChange(DataObject obj);
+
+    void afterChange(DataObject obj);
+}
@@ -0,0 +1,178 @@
+package com.example.trustsim.model;
+
+import com.example.trustsim.Config;
+import com.example.trustsim.profiling.HeapLayout;
+
+/**
+ * Sliding window W=20 of recent access events; the default {@link AccessStats}.
+ *
+ * Most objects see few accesses, so the window is stored by how full it is. Objects
+ * never accessed share the immutable {@link #EMPTY}, replaced on the first access by
+ * {@link DataObject#recordAccess(int, boolean, boolean)}. Up to {@value #INLINE} entries
+ * are kept inline in two longs. Beyond that a ring of W ints is allocated. Entries are
+ * packed as (time << 2 | legit << 1 | suspicious), which needs times below 2^30.
+ */
+public final class WindowAccessStats implements AccessStats {
+    /** Window of every object that has not been accessed yet; {@link #add} fails on it. */
+    public static final WindowAccessStats EMPTY = new WindowAccessStats();
+
+    private static final int INLINE = 4;
+
+    private final int windowSize;
+
+    // window length is totalCount
+    private int totalCount;
+    private int legitCount;
+    private int suspiciousCount;
+
+    // entries 0..3 oldest first, two per long (low half first), until the ring is allocated
+    private long inline01;
+    private long inline23;
+    private int[] ring;
+    private int head; // index of the oldest entry in ring
+
+    public WindowAccessStats() {
+        this(Config.ACCESS_WINDOW_W);
+    }
+
+    public WindowAccessStats(final int windowSize) {
+        this.windowSize = windowSize;
+        this.totalCount = 0;
+        this.legitCount = 0;
+        this.suspiciousCount = 0;
+    }
+
+    @Override
+    public void add(final int time, final boolean legit, final boolean suspicious) {
+        if (this == EMPTY) throw new UnsupportedOperationException("Shared empty window; record through DataObject.recordAccess");
+        if (totalCount == windowSize) {
+            // drop the oldest first; the counts end as if it were dropped after the append
+            final int e = entry(0);
+            totalCount--;
+            if ((e & 2) != 0) legitCount--;
+            if ((e & 1) != 0) suspiciousCount--;
+            if (ring != null) {
+                head = head + 1 == ring.length ? 0 : head + 1;
+            } else {
+                inline01 = (inline01 >>> 32) | (inline23 << 32);
+                inline23 >>>= 32;
+            }
+        }
+
+        final int p = (time << 2) | (legit ? 2 : 0) | (suspicious ? 1 : 0);
+        if (ring == null && totalCount == INLINE) {
+            final int[] r = new int[windowSize];
+            for (int i = 0; i < INLINE; i++) r[i] = entry(i);
+            ring = r;
+            head = 0;
+            inline01 = 0L;
+            inline23 = 0L;
+        }
+        if (ring != null) {
+            final int tail = head + totalCount;
+            ring[tail < ring.length ? tail : tail - ring.length] = p;
+        } else if (totalCount < 2) {
+            inline01 |= (p & 0xFFFFFFFFL) << (32 * totalCount);
+        } else {
+            inline23 |= (p & 0xFFFFFFFFL) << (32 * (totalCount - 2));
+        }
+        totalCount++;
+        if (legit) legitCount++;
+        if (suspicious) suspiciousCount++;
+    }
+
+    /** The {@code i}-th packed entry, oldest first. */
+    private int entry(final int i) {
+        if (ring != null) {
+            final int k = head + i;
+            return ring[k < ring.length ? k : k - ring.length];
+        }
+        return (int) ((i < 2 ? inline01 : inline23) >>> (32 * (i & 1)));
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getLegitCount() {
+        return legitCount;
+    }
+
+    public int getSuspiciousCount() {
+        return suspiciousCount;
+    }
+
+    /** Nothing to do: rates only change when an access is added. */
+    @Override
+    public void advanceTo(final int now) {
+        // no time-dependent state
+    }
+
+    @Override
+    public double accessRate() {
+        return ((double) totalCount) / windowSize;
+    }
+
+    @Override
+    public double legitRate() {
+        return ((double) legitCount) / windowSize;
+    }
+
+    @Override
+    public double suspiciousRate() {
+        return ((double) suspiciousCount) / windowSize;
+    }
+
+    /**
+     * Packs the window oldest-first into {@code out} as (time << 2 | legit << 1 | suspicious)
+     * and returns the number of entries written.
+     */
+    int exportWindow(final int[] out, final int offset) {
+        for (int i = 0; i < totalCount; i++) out[offset + i] = entry(i);
+        return totalCount;
+    }
+
+    /**
+     * Window holding entries packed by {@link #exportWindow(int[], int)}; {@link #EMPTY} if
+     * there are none.
+     */
+    static WindowAccessStats fromWindow(final int[] packed, final int offset, final int count) {
+        if (count == 0) return EMPTY;
+        final WindowAccessStats s = new WindowAccessStats();
+        for (int i = offset; i < offset + count; i++) {
+            final int p = packed[i];
+            s.add(p >>> 2, (p & 2) != 0, (p & 1) != 0);
+        }
+        return s;
+    }
+
+    @Override
+    public int windowLength() {
+        return totalCount;
+    }
+
+    /**
+     * Estimated heap bytes of this window: the stats and, once allocated, the ring; 0 for
+     * the shared {@link #EMPTY}.
+     */
+    @Override
+    public long retainedBytes(final HeapLayout layout) {
+        if (this == EMPTY) return 0L;
+        return layout.shallow(WindowAccessStats.class) + (ring == null ? 0L : layout.array(int.class, ring.length));
+    }
+
+    /**
+     * Burst detection: >=5 suspicious within 3 time units.
+     */
+    @Override
+    public boolean burstDetected(final int now) {
+        if (suspiciousCount < 5) return false;
+        int cnt = 0;
+        for (int i = 0; i < totalCount; i++) {
+            final int e = entry(i);
+            if ((e & 1) == 0) continue;
+            if (now - (e >>> 2) <= 3) cnt++;
+        }
+        return cnt >= 5;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.trustsim.modules;
+
+import com.example.trustsim.Config;
+import com.example.trustsim.model.Sensitivity;
+
+/**
+ * Range versions of {@link RiskAnalyzer#updateRisk} and {@link TrustDecayEngine#updateTrust}
+ * over struct-of-arrays state: element {@code i} of every array belongs to object {@code i}.
+ *
+ * The loop bodies are branch-free (table lookup for base risk, min/max for clamps,
+ * arithmetic selects for the add-ons) so C2 can compile them to SIMD code. Results equal
+ * the per-object versions exactly; run the risk kernel before the trust kernel, as the
+ * pipeline does, since trust reads the fresh risk and anomaly.
+ */
+public final class BatchKernels {
+    private static final double[] BASE_RISK = new double[Sensitivity.values().length];
+
+    static {
+        for (final Sensitivity s : Sensitivity.values()) BASE_RISK[s.ordinal()] = RiskAnalyzer.baseRisk(s);
+    }
+
+    private BatchKernels() {}
+
+    /**
+     * Recomputes risk, high-risk flag and anomaly score for {@code [from, to)} from the
+     * windowed suspicious counts and burst flags. Returns how many objects changed risk or
+     * flag, i.e. the ones {@link RiskAnalyzer} would report to its listener.
+     */
+    public static int updateRisk(
+        final byte[] sensitivity,
+        final int[] suspiciousCount,
+        final boolean[] burst,
+        final double[] risk,
+        final boolean[] highRisk,
+        final double[] anomaly,
+        final int from,
+        final int to
+    ) {
+        final double window = Config.ACCESS_WINDOW_W;
+        int changed = 0;
+        for (int i = from; i < to; i++) {
+            final double suspiciousRate = suspiciousCount[i] / window;
+            final double burstFlag = burst[i] ? 1.0 : 0.0;
+            final double addOns = (suspiciousRate > 0.2 ? 0.15 : 0.0) + 0.15 * burstFlag;
+
+            anomaly[i] = Math.min(1.0, Math.max(0.0, 0.5 * suspiciousRate + 0.5 * burstFlag));
+            final double r = Math.min(1.0, Math.max(0.0, BASE_RISK[sensitivity[i]] + addOns));
+            final boolean high = r >= 0.7;
+            changed += (r != risk[i] || high != highRisk[i]) ? 1 : 0;
+            risk[i] = r;
+            highRisk[i] = high;
+        }
+        return changed;
+    }
+
+    /**
+     * Applies one tick of trust decay and reinforcement to {@code [from, to)}.
+     */
+    public static void updateTrust(
+        final double[] trust,
+        final int[] lastAccessTime,
+        final int[] legitCount,
+        final double[] risk,
+        final double[] anomaly,
+        final int now,
+        final int from,
+        final int to
+    ) {
+        final double window = Config.ACCESS_WINDOW_W;
+        final double halfLife = Config.HALF_LIFE;
+        for (int i = from; i < to; i++) {
+            final int dt = Math.max(0, now - lastAccessTime[i]);
+            final double inactivityFactor = Math.min(1.0, dt / halfLife);
+            final double updated = trust[i]
+                - Config.DECAY_RATE * inactivityFactor
+                + Config.REINFORCEMENT_RATE * (legitCount[i] / window)
+                - Config.RISK_PENALTY_WEIGHT * risk[i]
+                - Config.ANOMALY_PENALTY_WEIGHT * anomaly[i];
+            trust[i] = Math.min(1.0, Math.max(0.0, updated));
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.trustsim.modules;
+
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.Role;
+import com.example.trustsim.model.Sensitivity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Population-wide detector for coordinated attacks that spread suspicious accesses over
+ * many objects, each too lightly hit to trip the per-object burst rule.
+ *
+ * Suspicious events are counted per (role, sensitivity) class and fixed window of
+ * {@code windowTicks}. When a window closes its class counts update an exponentially
+ * weighted baseline (mean and variance). A class whose count in the current or previous
+ * window exceeds {@code mean + k * sd} (and a minimum) is under a campaign, scored in
+ * [0,1] by how far it exceeds that bound.
+ *
+ * A count-min sketch of object ids per window answers whether an object was itself
+ * hit, so only targets of a campaign get the score. A Space-Saving summary keeps the
+ * most hit objects of each window for the report; each recording thread keeps its own,
+ * merged into the window's at {@link #advance(int)} and {@link #ingested(int)}, so no
+ * lock is taken per event.
+ *
+ * Memory is fixed by the sketch and summary sizes (one summary per recording thread),
+ * independent of the population; recording an event is O(sketch depth + k). Events may
+ * be recorded from several threads; {@link #advance(int)}, {@link #ingested(int)} and
+ * {@link #report()} must run alone, around ingestion.
+ */
+public final class CampaignDetector {
+    private static final int ROLES = Role.values().length;
+    private static final int SENSITIVITIES = Sensitivity.values().length;
+    private static final int CLASSES = ROLES * SENSITIVITIES;
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+    private static final double ALPHA = 0.1;      // baseline EWMA weight of a closed window
+    private static final int WARMUP_WINDOWS = 5;  // windows observed before anything is flagged
+
+    private final int windowTicks;
+    private final double sigmas;
+    private final int minEvents;
+    private final int width;
+
+    // [0] current window, [1] previous window
+    private final AtomicIntegerArray[] classCount = {new AtomicIntegerArray(CLASSES), new AtomicIntegerArray(CLASSES)};
+    private final AtomicIntegerArray[] sketch;
+    private final SpaceSaving topTargets;
+    private final int topK;
+    private final List<Local> locals = new ArrayList<>();
+    private final ThreadLocal<Local> local = ThreadLocal.withInitial(this::newLocal);
+
+    private final double[] mean = new double[CLASSES];
+    private final double[] var = new double[CLASSES];
+    private final double[] score = new double[CLASSES];      // per class, valid for the current tick
+    private final double[] bySensitivity = new double[SENSITIVITIES];
+    private int window = Integer.MIN_VALUE;
+    private int closedWindows;
+
+    // stats
+    private long events;
+    private long onsets;
+    private final long[] flaggedByClass = new long[CLASSES];
+    private int firstFlagTick = -1;
+    private String lastTopTargets = "";
+
+    public CampaignDetector(final int windowTicks, final double sigmas, final int minEvents, final int sketchWidth, final int topK) {
+        this.windowTicks = Math.max(1, windowTicks);
+        this.sigmas = sigmas;
+        this.minEvents = minEvents;
+        this.width = Integer.highestOneBit(Math.max(64, sketchWidth - 1) << 1);
+        this.sketch = new AtomicIntegerArray[] {new AtomicIntegerArray(DEPTH * width), new AtomicIntegerArray(DEPTH * width)};
+        this.topTargets = new SpaceSaving(topK);
+        this.topK = topK;
+    }
+
+    /** Records one suspicious access; called from {@link DataAccessMonitoringModule}. */
+    void onSuspicious(final DataObject obj, final Role role) {
+        onSuspicious(obj.id, obj.sensitivity, role);
+    }
+
+    void onSuspicious(final int id, final Sensitivity sensitivity, final Role role) {
+        classCount[0].incrementAndGet(role.ordinal() * SENSITIVITIES + sensitivity.ordinal());
+        final AtomicIntegerArray s = sketch[0];
+        for (int d = 0; d < DEPTH; d++) s.incrementAndGet(d * width + slot(id, d));
+        final Local l = local.get();
+        l.targets.add(id, 1);
+        l.events++;
+    }
+
+    private Local newLocal() {
+        final Local l = new Local(new SpaceSaving(topK));
+        synchronized (locals) {
+            locals.add(l);
+        }
+        return l;
+    }
+
+    /** Folds the per-thread summaries into the window's; recording threads must be idle. */
+    private void mergeLocals() {
+        synchronized (locals) {
+            for (final Local l : locals) {
+                l.targets.mergeInto(topTargets);
+                l.targets.clear();
+                events += l.events;
+                l.events = 0;
+            }
+        }
+    }
+
+    /**
+     * Starts tick {@code now}, closing the window if {@code now} begins a new one. Call
+     * before the tick's events are recorded.
+     */
+    public void advance(final int now) {
+        mergeLocals();
+        final int w = Math.floorDiv(now, windowTicks);
+        if (w != window) {
+            if (window != Integer.MIN_VALUE) closeWindow(w - window);
+            window = w;
+        }
+    }
+
+    /**
+     * Rescores the classes once the events of tick {@code now} are recorded, so a campaign
+     * raises risk on the tick it starts.
+     */
+    public void ingested(final int now) {
+        mergeLocals();
+        final int w = Math.floorDiv(now, windowTicks);
+        if (w != window) return; // advance() was not called for this tick
+        rescore(now);
+    }
+
+    /**
+     * Campaign score in [0,1] for {@code obj} at the current tick: the strongest campaign
+     * against its sensitivity class, if the object was hit in this or the previous window.
+     */
+    public double score(final DataObject obj) {
+        final double s = bySensitivity[obj.sensitivity.ordinal()];
+        if (s == 0.0) return 0.0;
+        return hits(obj.id, 0) + hits(obj.id, 1) > 0 ? s : 0.0;
+    }
+
+    private int hits(final int id, final int age) {
+        final AtomicIntegerArray s = sketch[age];
+        int min = Integer.MAX_VALUE;
+        for (int d = 0; d < DEPTH; d++) min = Math.min(min, s.get(d * width + slot(id, d)));
+        return min;
+    }
+
+    private int slot(final int id, final int d) {
+        long h = (id + 1) * SEEDS[d];
+        h ^= h >>> 32;
+        return (int) h & (width - 1);
+    }
+
+    private void closeWindow(final int elapsed) {
+        // learn from the closed window unless it was an attack; skipped windows saw nothing
+        for (int c = 0; c < CLASSES; c++) {
+            final int n = classCount[0].get(c);
+            if (closedWindows >= WARMUP_WINDOWS && n > bound(c)) continue;
+            final double diff = n - mean[c];
+            mean[c] += ALPHA * diff;
+            var[c] = (1 - ALPHA) * (var[c] + ALPHA * diff * diff);
+        }
+        closedWindows++;
+        if (anyScore()) lastTopTargets = topTargets.describe();
+        topTargets.clear();
+
+        // rotate: current becomes previous (or both clear after a gap)
+        final AtomicIntegerArray oldClass = classCount[1];
+        final AtomicIntegerArray oldSketch = sketch[1];
+        classCount[1] = elapsed == 1 ? classCount[0] : oldClass;
+        sketch[1] = elapsed == 1 ? sketch[0] : oldSketch;
+        classCount[0] = elapsed == 1 ? oldClass : classCount[0];
+        sketch[0] = elapsed == 1 ? oldSketch : sketch[0];
+        clear(classCount[0]);
+        clear(sketch[0]);
+        if (elapsed > 1) {
+            clear(classCount[1]);
+            clear(sketch[1]);
+        }
+    }
+
+    private double bound(final int c) {
+        return Math.max(minEvents, mean[c] + sigmas * Math.sqrt(var[c] + 1.0));
+    }
+
+    private void rescore(final int now) {
+        Arrays.fill(bySensitivity, 0.0);
+        boolean flagged = false;
+        for (int c = 0; c < CLASSES; c++) {
+            double s = 0.0;
+            if (closedWindows >= WARMUP_WINDOWS) {
+                final double b = bound(c);
+                final int n = Math.max(classCount[0].get(c), classCount[1].get(c));
+                if (n > b) s = Math.min(1.0, n / b - 1.0);
+            }
+            if (s > 0.0 && score[c] == 0.0) {
+                flaggedByClass[c]++;
+                flagged = true;
+            }
+            score[c] = s;
+            final int sens = c % SENSITIVITIES;
+            bySensitivity[sens] = Math.max(bySensitivity[sens], s);
+        }
+        if (flagged) {
+            onsets++;
+            if (firstFlagTick < 0) firstFlagTick = now;
+        }
+    }
+
+    private boolean anyScore() {
+        for (final double s : score) if (s > 0.0) return true;
+        return false;
+    }
+
+    private static void clear(final AtomicIntegerArray a) {
+        for (int i = 0; i < a.length(); i++) a.set(i, 0);
+    }
+
+    /** Bytes of sketch, summary and per-class state; constant for a configuration. */
+    public long memoryBytes() {
+        final int summaries;
+        synchronized (locals) {
+            summaries = 1 + locals.size();
+        }
+        return 2L * 4 * DEPTH * width + 2L * 4 * CLASSES + 3L * 8 * CLASSES + summaries * topTargets.memoryBytes();
+    }
+
+    public String report() {
+        mergeLocals();
+        final Role[] roles = Role.values();
+        final Sensitivity[] sens = Sensitivity.values();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Campaign Detector").append('\n');
+        sb.append(String.format(Locale.ROOT, " - Suspicious events: %d over %d windows of %d ticks, sketch %dx%d (%d bytes total)%n",
+            events, closedWindows, windowTicks, DEPTH, width, memoryBytes()));
+        sb.append(String.format(Locale.ROOT, " - Ticks with a campaign onset: %d, first at tick %d%n", onsets, firstFlagTick));
+        for (int c = 0; c < CLASSES; c++) {
+            if (flaggedByClass[c] == 0) continue;
+            sb.append(String.format(Locale.ROOT, "   %s on %s: %d onsets, baseline %.1f +- %.1f per window%n",
+                roles[c / SENSITIVITIES], sens[c % SENSITIVITIES], flaggedByClass[c], mean[c], Math.sqrt(var[c])));
+        }
+        if (!lastTopTargets.isEmpty()) sb.append(" - Most hit objects, last campaign window: ").append(lastTopTargets).append('\n');
+        return sb.toString();
+    }
+
+    /** One recording thread's summary and event count for the current tick. */
+    private static final class Local {
+        final SpaceSaving targets;
+        long events;
+
+        Local(final SpaceSaving targets) {
+            this.targets = targets;
+        }
+    }
+
+    /** Space-Saving top-k counter over object ids. */
+    private static final class SpaceSaving {
+        private final int[] ids;
+        private final int[] counts;
+        private int size;
+
+        SpaceSaving(final int k) {
+            this.ids = new int[Math.max(1, k)];
+            this.counts = new int[ids.length];
+        }
+
+        void add(final int id, final int count) {
+            int min = 0;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    counts[i] += count;
+                    return;
+                }
+                if (counts[i] < counts[min]) min = i;
+            }
+            if (size < ids.length) {
+                ids[size] = id;
+                counts[size++] = count;
+            } else {
+                // evict the smallest; its count bounds the newcomer's overestimate
+                ids[min] = id;
+                counts[min] += count;
+            }
+        }
+
+        void mergeInto(final SpaceSaving into) {
+            for (int i = 0; i < size; i++) into.add(ids[i], counts[i]);
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        String describe() {
+            final StringBuilder sb = new StringBuilder();
+            final boolean[] used = new boolean[size];
+            for (int n = 0; n < Math.min(5, size); n++) {
+                int best = -1;
+                for (int i = 0; i < size; i++) {
+                    if (!used[i] && (best < 0 || counts[i] > counts[best])) best = i;
+                }
+                used[best] = true;
+                if (n > 0) sb.append(", ");
+                sb.append('#').append(ids[best]).append(" (").append(counts[best]).append(')');
+            }
+            return sb.toString();
+        }
+
+        long memoryBytes() {
+            return 8L * ids.length;
+        }
+    }
+}
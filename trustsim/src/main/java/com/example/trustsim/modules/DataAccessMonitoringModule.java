@@ -1,7 +1,9 @@
 package com.example.trustsim.modules;
 
 import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.AccessEventBatch;
 import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.MappedObjectStore;
 import com.example.trustsim.model.Role;
 import com.example.trustsim.model.Sensitivity;
 
@@ -12,33 +14,70 @@ import com.example.trustsim.model.Sensitivity;
 public final class DataAccessMonitoringModule {
     // conservative threshold: low-scored requests are suspicious even if role allowed
     private final double requestScoreThreshold;
+    private CampaignDetector campaigns;
 
     public DataAccessMonitoringModule(final double requestScoreThreshold) {
         this.requestScoreThreshold = requestScoreThreshold;
     }
 
+    /** Reports every suspicious access to {@code detector} as well. */
+    public void setCampaignDetector(final CampaignDetector detector) {
+        this.campaigns = detector;
+    }
+
+    public double requestScoreThreshold() {
+        return requestScoreThreshold;
+    }
+
     public MonitoringResult onAccess(final DataObject obj, final AccessEvent event) {
-        obj.lastAccessTime = event.time;
+        final boolean legit = record(obj, event.time, event.role, event.requestScore);
+        final boolean burst = obj.accessStats.burstDetected(event.time);
+        return new MonitoringResult(legit, !legit, burst);
+    }
+
+    /**
+     * Same stats update as {@link #onAccess(DataObject, AccessEvent)} for an event packed
+     * by {@link AccessEventBatch}; allocates nothing and skips the burst scan, whose
+     * result the tick loop recomputes in {@link RiskAnalyzer} anyway.
+     */
+    public void onAccess(final DataObject obj, final int time, final long packedEvent) {
+        record(obj, time, AccessEventBatch.role(packedEvent), AccessEventBatch.requestScore(packedEvent));
+    }
+
+    /**
+     * Same stats update for object {@code id} applied to its record in {@code store},
+     * without loading the object.
+     */
+    public void onAccess(final MappedObjectStore store, final int id, final int time, final Role role, final double requestScore) {
+        final Sensitivity s = store.sensitivity(id);
+        final boolean legit = isRoleLegitimate(role, s, store.anonymized(id)) && requestScore >= requestScoreThreshold;
+        store.recordAccess(id, time, legit, !legit);
+        if (!legit && campaigns != null) campaigns.onSuspicious(id, s, role);
+    }
+
+    private boolean record(final DataObject obj, final int time, final Role role, final double requestScore) {
+        obj.lastAccessTime = time;
         obj.totalAccessCountAllTime++;
 
-        final boolean allowedByRole = isRoleLegitimate(event.role, obj);
-        final boolean scoreOk = event.requestScore >= requestScoreThreshold;
+        final boolean allowedByRole = isRoleLegitimate(role, obj);
+        final boolean scoreOk = requestScore >= requestScoreThreshold;
         final boolean legit = allowedByRole && scoreOk;
-        final boolean suspicious = !legit;
-
-        obj.accessStats.add(event.time, legit, suspicious);
 
-        final boolean burst = obj.accessStats.burstDetected(event.time);
-        return new MonitoringResult(legit, suspicious, burst);
+        obj.recordAccess(time, legit, !legit);
+        if (!legit && campaigns != null) campaigns.onSuspicious(obj, role);
+        return legit;
     }
 
     public boolean isRoleLegitimate(final Role role, final DataObject obj) {
-        final Sensitivity s = obj.sensitivity;
+        return isRoleLegitimate(role, obj.sensitivity, obj.anonymized);
+    }
+
+    private static boolean isRoleLegitimate(final Role role, final Sensitivity s, final boolean anonymized) {
         switch (role) {
             case Admin:
                 return true;
             case Analyst:
-                return s == Sensitivity.NON_SENSITIVE || obj.anonymized;
+                return s == Sensitivity.NON_SENSITIVE || anonymized;
             case User:
                 return s == Sensitivity.NON_SENSITIVE;
             case Service:
@@ -0,0 +1,45 @@
+package com.example.trustsim.modules;
+
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.DataObject;
+
+/**
+ * Applies one batch of queued retention actions. Every object in a batch shares the
+ * same decision (so the same target tier) and the same sensitivity.
+ */
+public interface RetentionActionExecutor {
+    /**
+     * Applies {@code decision} to {@code objects[offset .. offset + count)}.
+     */
+    void executeBatch(RetentionDecisionController.Decision decision, DataObject[] objects, int offset, int count, int now);
+
+    /**
+     * Estimated bytes a single action moves, charged against the per-tick bandwidth budget.
+     */
+    long costBytes(RetentionDecisionController.Decision decision);
+
+    /**
+     * Executor that applies each action in place through the decision controller,
+     * so registered state listeners (metrics, storage backend) see every transition.
+     */
+    static RetentionActionExecutor inPlace(final RetentionDecisionController controller, final long payloadBytes) {
+        return new RetentionActionExecutor() {
+            @Override
+            public void executeBatch(
+                final RetentionDecisionController.Decision decision,
+                final DataObject[] objects,
+                final int offset,
+                final int count,
+                final int now
+            ) {
+                for (int i = offset; i < offset + count; i++) controller.apply(objects[i], decision, now);
+            }
+
+            @Override
+            public long costBytes(final RetentionDecisionController.Decision decision) {
+                // deletes only touch metadata; archive and anonymize rewrite the payload
+                return decision.action == Action.DELETE ? 0L : payloadBytes;
+            }
+        };
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.trustsim.modules;
+
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.model.Tier;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Holds ARCHIVE / ANONYMIZE / DELETE intents and executes them in per-tick bulk batches
+ * under an ops and bandwidth budget; whatever does not fit stays queued for later ticks.
+ *
+ * Each object has at most one pending intent. A repeated decision keeps the original
+ * enqueue tick; a different decision replaces it; RETAIN and intents that would not
+ * change anything (e.g. ARCHIVE of a COLD object) are applied at once and cancel any
+ * pending intent. Intents run in FIFO order and are grouped by (action, sensitivity)
+ * before they reach the {@link RetentionActionExecutor}.
+ */
+public final class RetentionActionQueue {
+    private static final int ACTIONS = Action.values().length;
+    private static final int SENSITIVITIES = Sensitivity.values().length;
+
+    private final RetentionDecisionController controller;
+    private final RetentionActionExecutor executor;
+    private final int opsPerTick;
+    private final long bytesPerTick;
+
+    // pending intent per object id (null = none); generation invalidates stale FIFO entries
+    private RetentionDecisionController.Decision[] pending = new RetentionDecisionController.Decision[0];
+    private DataObject[] objectById = new DataObject[0];
+    private int[] enqueuedAt = new int[0];
+    private int[] generation = new int[0];
+
+    // FIFO ring of (id << 32 | generation)
+    private long[] fifo = new long[1024];
+    private int head;
+    private int size;
+    private int depth;
+
+    // per-drain scratch
+    private DataObject[] selected = new DataObject[0];
+    private RetentionDecisionController.Decision[] selectedDecision = new RetentionDecisionController.Decision[0];
+    private DataObject[] grouped = new DataObject[0];
+    private final int[] groupCount = new int[ACTIONS * SENSITIVITIES];
+    private final int[] groupStart = new int[ACTIONS * SENSITIVITIES];
+    private final int[] groupFill = new int[ACTIONS * SENSITIVITIES];
+    private final RetentionDecisionController.Decision[] groupDecision =
+        new RetentionDecisionController.Decision[ACTIONS * SENSITIVITIES];
+
+    // stats
+    private final long[] executedByAction = new long[ACTIONS];
+    private long batches;
+    private long maxBatch;
+    private long latencyTicksSum;
+    private int latencyTicksMax;
+    private int maxDepth;
+    private long budgetLimitedTicks;
+
+    public RetentionActionQueue(
+        final RetentionDecisionController controller,
+        final RetentionActionExecutor executor,
+        final int opsPerTick,
+        final long bytesPerTick
+    ) {
+        this.controller = controller;
+        this.executor = executor;
+        this.opsPerTick = opsPerTick;
+        this.bytesPerTick = bytesPerTick;
+    }
+
+    /**
+     * Queues {@code d} for {@code obj}, or applies it right away if it moves no data.
+     */
+    public void offer(final DataObject obj, final RetentionDecisionController.Decision d, final int now) {
+        final int id = obj.id;
+        ensureCapacity(id);
+        final RetentionDecisionController.Decision p = pending[id];
+
+        if (!needsWork(obj, d)) {
+            if (p != null) cancel(id);
+            controller.apply(obj, d, now);
+            return;
+        }
+        if (p == d) return;
+        if (p != null) cancel(id);
+
+        pending[id] = d;
+        objectById[id] = obj;
+        enqueuedAt[id] = now;
+        push(((long) id << 32) | (generation[id] & 0xFFFFFFFFL));
+        depth++;
+        if (depth > maxDepth) maxDepth = depth;
+    }
+
+    private static boolean needsWork(final DataObject obj, final RetentionDecisionController.Decision d) {
+        switch (d.action) {
+            case ARCHIVE:
+                return obj.tier == Tier.HOT;
+            case ANONYMIZE:
+                return !obj.anonymized && obj.tier != Tier.DELETED;
+            case DELETE:
+                return obj.tier != Tier.DELETED;
+            default:
+                return false;
+        }
+    }
+
+    private void cancel(final int id) {
+        pending[id] = null;
+        objectById[id] = null;
+        generation[id]++;
+        depth--;
+    }
+
+    /**
+     * Executes queued intents in FIFO order until the tick's budget is spent.
+     * At least one intent runs per tick so an oversized action cannot stall the queue.
+     */
+    public void drain(final int now) {
+        if (selected.length < Math.min(depth, opsPerTick)) {
+            final int n = Math.min(depth, opsPerTick);
+            selected = new DataObject[n];
+            selectedDecision = new RetentionDecisionController.Decision[n];
+            grouped = new DataObject[n];
+        }
+
+        int n = 0;
+        long bytes = 0;
+        while (size > 0 && n < opsPerTick) {
+            final long entry = fifo[head];
+            final int id = (int) (entry >>> 32);
+            final int gen = (int) entry;
+            final RetentionDecisionController.Decision d = pending[id];
+            if (d == null || generation[id] != gen) {
+                pop();
+                continue;
+            }
+            final long cost = executor.costBytes(d);
+            if (n > 0 && bytes + cost > bytesPerTick) break;
+            pop();
+
+            selected[n] = objectById[id];
+            selectedDecision[n] = d;
+            n++;
+            bytes += cost;
+
+            final int latency = now - enqueuedAt[id];
+            latencyTicksSum += latency;
+            if (latency > latencyTicksMax) latencyTicksMax = latency;
+            executedByAction[d.action.ordinal()]++;
+
+            pending[id] = null;
+            objectById[id] = null;
+            generation[id]++;
+            depth--;
+        }
+        if (depth > 0) budgetLimitedTicks++;
+        if (n == 0) return;
+
+        // counting sort into contiguous (action, sensitivity) groups
+        Arrays.fill(groupCount, 0);
+        for (int i = 0; i < n; i++) {
+            final int g = groupOf(selectedDecision[i], selected[i]);
+            groupCount[g]++;
+            groupDecision[g] = selectedDecision[i];
+        }
+        final int[] start = groupStart;
+        final int[] fill = groupFill;
+        Arrays.fill(start, 0);
+        for (int g = 1; g < groupCount.length; g++) start[g] = start[g - 1] + groupCount[g - 1];
+        System.arraycopy(start, 0, fill, 0, start.length);
+        for (int i = 0; i < n; i++) {
+            grouped[fill[groupOf(selectedDecision[i], selected[i])]++] = selected[i];
+            selected[i] = null;
+        }
+
+        for (int g = 0; g < groupCount.length; g++) {
+            final int count = groupCount[g];
+            if (count == 0) continue;
+            executor.executeBatch(groupDecision[g], grouped, start[g], count, now);
+            batches++;
+            if (count > maxBatch) maxBatch = count;
+        }
+        Arrays.fill(grouped, 0, n, null);
+    }
+
+    private static int groupOf(final RetentionDecisionController.Decision d, final DataObject obj) {
+        return d.action.ordinal() * SENSITIVITIES + obj.sensitivity.ordinal();
+    }
+
+    private void push(final long entry) {
+        if (size == fifo.length) {
+            final long[] grown = new long[fifo.length * 2];
+            for (int i = 0; i < size; i++) grown[i] = fifo[(head + i) % fifo.length];
+            fifo = grown;
+            head = 0;
+        }
+        fifo[(head + size) % fifo.length] = entry;
+        size++;
+    }
+
+    private void pop() {
+        head = (head + 1) % fifo.length;
+        size--;
+    }
+
+    private void ensureCapacity(final int id) {
+        if (id < pending.length) return;
+        final int n = Math.max(id + 1, pending.length * 2);
+        pending = Arrays.copyOf(pending, n);
+        objectById = Arrays.copyOf(objectById, n);
+        enqueuedAt = Arrays.copyOf(enqueuedAt, n);
+        generation = Arrays.copyOf(generation, n);
+    }
+
+    /** Intents waiting for execution. */
+    public int depth() {
+        return depth;
+    }
+
+    public long executed(final Action action) {
+        return executedByAction[action.ordinal()];
+    }
+
+    public String report() {
+        long executed = 0;
+        for (final long e : executedByAction) executed += e;
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Retention Action Queue").append('\n');
+        sb.append(String.format(Locale.ROOT, " - Budget per tick: %d ops, %.2f MiB%n", opsPerTick, bytesPerTick / 1048576.0));
+        sb.append(" - Executed:");
+        for (final Action a : Action.values()) {
+            sb.append(' ').append(a.name()).append('=').append(executedByAction[a.ordinal()]);
+        }
+        sb.append('\n');
+        sb.append(String.format(Locale.ROOT, " - Queue depth: now %d, max %d; budget-limited ticks: %d%n",
+            depth, maxDepth, budgetLimitedTicks));
+        sb.append(String.format(Locale.ROOT, " - Batches: %d, avg size %.1f, max size %d%n",
+            batches, batches == 0 ? 0.0 : ((double) executed) / batches, maxBatch));
+        sb.append(String.format(Locale.ROOT, " - Action latency (ticks): avg %.2f, max %d%n",
+            executed == 0 ? 0.0 : ((double) latencyTicksSum) / executed, latencyTicksMax));
+        return sb.toString();
+    }
+}
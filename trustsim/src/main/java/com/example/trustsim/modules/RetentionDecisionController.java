@@ -4,62 +4,195 @@ import com.example.trustsim.Config;
 import com.example.trustsim.MathUtil;
 import com.example.trustsim.model.Action;
 import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.ReasonCode;
+import com.example.trustsim.model.StateChangeListener;
 import com.example.trustsim.model.Tier;
 
 public final class RetentionDecisionController {
+    // decisions are immutable, so each outcome is allocated once
+    private static final Decision ALREADY_DELETED = new Decision(Action.DELETE, ReasonCode.ALREADY_DELETED);
+    private static final Decision GRACE_PERIOD = new Decision(Action.RETAIN, ReasonCode.GRACE_PERIOD);
+    private static final Decision HIGH_RISK_KEEP_VALUE = new Decision(Action.ANONYMIZE, ReasonCode.HIGH_RISK_KEEP_VALUE);
+    private static final Decision COLD_START_HOLD = new Decision(Action.RETAIN, ReasonCode.COLD_START_HOLD);
+    private static final Decision LOW_TRUST_LOW_VALUE = new Decision(Action.DELETE, ReasonCode.LOW_TRUST_LOW_VALUE);
+    private static final Decision HIGH_TRUST_HIGH_VALUE = new Decision(Action.RETAIN, ReasonCode.HIGH_TRUST_HIGH_VALUE);
+    private static final Decision MID_ZONE = new Decision(Action.ARCHIVE, ReasonCode.MID_ZONE);
+
+    private final Thresholds thresholds;
+    private final StateChangeListener listener;
+
+    public RetentionDecisionController() {
+        this(Thresholds.defaults());
+    }
+
+    public RetentionDecisionController(final Thresholds thresholds) {
+        this(thresholds, StateChangeListener.NONE);
+    }
+
+    public RetentionDecisionController(final Thresholds thresholds, final StateChangeListener listener) {
+        this.thresholds = thresholds;
+        this.listener = listener;
+    }
+
+    public Thresholds thresholds() {
+        return thresholds;
+    }
+
+    /**
+     * Decides and immediately applies the outcome to {@code obj}.
+     */
     public Decision decide(final DataObject obj, final double predictedRelevance, final int now) {
+        final Decision d = evaluate(obj, predictedRelevance, now);
+        apply(obj, d, now);
+        return d;
+    }
+
+    /**
+     * Decides without touching {@code obj}; pair with {@link #apply(DataObject, Decision, int)}.
+     */
+    public Decision evaluate(final DataObject obj, final double predictedRelevance, final int now) {
+        return evaluate(
+            obj.tier == Tier.DELETED,
+            now - obj.createdAt,
+            obj.totalAccessCountAllTime == 0,
+            obj.trust,
+            obj.riskStats.risk,
+            predictedRelevance
+        );
+    }
+
+    /**
+     * Decision rules over plain feature values, so recorded rows can be re-evaluated.
+     */
+    public Decision evaluate(
+        final boolean deleted,
+        final int age,
+        final boolean neverAccessed,
+        final double trust,
+        final double risk,
+        final double predictedRelevance
+    ) {
         // a) already deleted
-        if (obj.tier == Tier.DELETED) {
-            return new Decision(Action.DELETE, "already_deleted");
+        if (deleted) {
+            return ALREADY_DELETED;
         }
 
         // b) global grace period: always retain newly created objects
-        if (now - obj.createdAt < Config.GRACE_PERIOD) {
-            obj.tier = Tier.HOT;
-            return new Decision(Action.RETAIN, "grace_period");
+        if (age < Config.GRACE_PERIOD) {
+            return GRACE_PERIOD;
         }
 
-        final double trust = obj.trust;
-        final double risk = obj.riskStats.risk;
+        final Thresholds t = thresholds;
 
         // c) anonymize but keep value for high-risk/high-relevance
-        if (risk >= Config.R_HIGH && predictedRelevance >= Config.P_MID) {
-            obj.anonymized = true;
-            obj.riskStats.risk = MathUtil.clamp(risk - 0.2, 0.0, 1.0);
-            obj.riskStats.highRiskFlag = obj.riskStats.risk >= 0.7;
-            return new Decision(Action.ANONYMIZE, "high_risk_keep_value");
+        if (risk >= t.rHigh && predictedRelevance >= t.pMid) {
+            return HIGH_RISK_KEEP_VALUE;
         }
 
         // d) cold-start: never-seen objects stay HOT for a while
-        if (obj.totalAccessCountAllTime == 0 && (now - obj.createdAt < Config.COLD_START_WINDOW)) {
-            obj.tier = Tier.HOT;
-            return new Decision(Action.RETAIN, "cold_start_hold");
+        if (neverAccessed && age < Config.COLD_START_WINDOW) {
+            return COLD_START_HOLD;
         }
 
         // e) clearly low trust and low business value
-        if (trust < Config.T_MID && predictedRelevance < Config.P_LOW) {
-            obj.markDeleted(now);
-            return new Decision(Action.DELETE, "low_trust_low_value");
+        if (trust < t.tMid && predictedRelevance < t.pLow) {
+            return LOW_TRUST_LOW_VALUE;
         }
 
         // f) clearly high trust and high predicted value, with moderate risk
-        if (trust >= Config.T_HIGH && predictedRelevance >= Config.P_MID && risk < Config.R_MID) {
-            obj.tier = Tier.HOT;
-            return new Decision(Action.RETAIN, "high_trust_high_value");
+        if (trust >= t.tHigh && predictedRelevance >= t.pMid && risk < t.rMid) {
+            return HIGH_TRUST_HIGH_VALUE;
         }
 
         // g) everything else -> archive (COLD)
-        obj.tier = Tier.COLD;
-        return new Decision(Action.ARCHIVE, "mid_zone");
+        return MID_ZONE;
+    }
+
+    /**
+     * Carries out {@code d} on {@code obj}: RETAIN keeps it HOT, ARCHIVE moves it COLD,
+     * ANONYMIZE strips identifying data (lowering risk), DELETE removes it.
+     */
+    public void apply(final DataObject obj, final Decision d, final int now) {
+        if (obj.tier == Tier.DELETED) return;
+        switch (d.action) {
+            case RETAIN:
+                moveTo(obj, Tier.HOT);
+                break;
+            case ARCHIVE:
+                moveTo(obj, Tier.COLD);
+                break;
+            case ANONYMIZE:
+                listener.beforeChange(obj);
+                obj.anonymized = true;
+                obj.riskStats.risk = MathUtil.clamp(obj.riskStats.risk - 0.2, 0.0, 1.0);
+                obj.riskStats.highRiskFlag = obj.riskStats.risk >= 0.7;
+                listener.afterChange(obj);
+                break;
+            case DELETE:
+                listener.beforeChange(obj);
+                obj.markDeleted(now);
+                listener.afterChange(obj);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void moveTo(final DataObject obj, final Tier tier) {
+        if (obj.tier == tier) return;
+        listener.beforeChange(obj);
+        obj.tier = tier;
+        listener.afterChange(obj);
+    }
+
+    /**
+     * Decision thresholds; {@link #defaults()} mirrors {@link Config}.
+     */
+    public static final class Thresholds {
+        public final double tHigh;
+        public final double tMid;
+        public final double rHigh;
+        public final double rMid;
+        public final double pLow;
+        public final double pMid;
+
+        public Thresholds(
+            final double tHigh,
+            final double tMid,
+            final double rHigh,
+            final double rMid,
+            final double pLow,
+            final double pMid
+        ) {
+            this.tHigh = tHigh;
+            this.tMid = tMid;
+            this.rHigh = rHigh;
+            this.rMid = rMid;
+            this.pLow = pLow;
+            this.pMid = pMid;
+        }
+
+        public static Thresholds defaults() {
+            return new Thresholds(Config.T_HIGH, Config.T_MID, Config.R_HIGH, Config.R_MID, Config.P_LOW, Config.P_MID);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.ROOT,
+                "T_HIGH=%.2f T_MID=%.2f R_HIGH=%.2f R_MID=%.2f P_LOW=%.2f P_MID=%.2f",
+                tHigh, tMid, rHigh, rMid, pLow, pMid);
+        }
     }
 
     public static final class Decision {
         public final Action action;
+        public final ReasonCode reason;
         public final String reasonCode;
 
-        public Decision(final Action action, final String reasonCode) {
+        public Decision(final Action action, final ReasonCode reason) {
             this.action = action;
-            this.reasonCode = reasonCode;
+            this.reason = reason;
+            this.reasonCode = reason.code;
         }
     }
 }
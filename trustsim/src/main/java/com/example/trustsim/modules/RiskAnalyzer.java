@@ -1,29 +1,57 @@
 package com.example.trustsim.modules;
 
+import com.example.trustsim.Config;
 import com.example.trustsim.MathUtil;
 import com.example.trustsim.model.DataObject;
 import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.model.StateChangeListener;
 
 public final class RiskAnalyzer {
+    private final StateChangeListener listener;
+    private CampaignDetector campaigns;
+
+    public RiskAnalyzer() {
+        this(StateChangeListener.NONE);
+    }
+
+    public RiskAnalyzer(final StateChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Adds {@code Config.CAMPAIGN_RISK_WEIGHT} times the detector's campaign score to the
+     * risk of objects targeted by a coordinated campaign.
+     */
+    public void setCampaignDetector(final CampaignDetector detector) {
+        this.campaigns = detector;
+    }
+
     public void updateRisk(final DataObject obj, final int now) {
         final double baseRisk = baseRisk(obj.sensitivity);
+        obj.accessStats.advanceTo(now);
         final double suspiciousRate = obj.accessStats.suspiciousRate();
         final boolean burst = obj.accessStats.burstDetected(now);
 
         double addOns = 0.0;
         if (suspiciousRate > 0.2) addOns += 0.15;
         if (burst) addOns += 0.15;
+        if (campaigns != null) addOns += Config.CAMPAIGN_RISK_WEIGHT * campaigns.score(obj);
 
         final double burstFlag = burst ? 1.0 : 0.0;
         final double anomalyScore = MathUtil.clamp(0.5 * suspiciousRate + 0.5 * burstFlag, 0.0, 1.0);
 
         final double risk = MathUtil.clamp(baseRisk + addOns, 0.0, 1.0);
+        final boolean highRisk = risk >= 0.7;
         obj.riskStats.anomalyScore = anomalyScore;
+        if (risk == obj.riskStats.risk && highRisk == obj.riskStats.highRiskFlag) return;
+
+        listener.beforeChange(obj);
         obj.riskStats.risk = risk;
-        obj.riskStats.highRiskFlag = risk >= 0.7;
+        obj.riskStats.highRiskFlag = highRisk;
+        listener.afterChange(obj);
     }
 
-    private static double baseRisk(final Sensitivity s) {
+    static double baseRisk(final Sensitivity s) {
         switch (s) {
             case NON_SENSITIVE:
                 return 0.1;
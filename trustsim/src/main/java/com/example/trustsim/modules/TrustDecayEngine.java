@@ -9,6 +9,7 @@ public final class TrustDecayEngine {
         final int dt = Math.max(0, now - obj.lastAccessTime);
         final double inactivityFactor = Math.min(1.0, ((double) dt) / Config.HALF_LIFE);
 
+        obj.accessStats.advanceTo(now);
         final double accessLegitRate = obj.accessStats.legitRate();
         final double risk = obj.riskStats.risk;
         final double anomaly = obj.riskStats.anomalyScore;
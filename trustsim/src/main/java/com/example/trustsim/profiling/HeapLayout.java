@@ -0,0 +1,94 @@
+package com.example.trustsim.profiling;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Estimates object and array sizes for the running HotSpot JVM, for heap footprint
+ * accounting without an agent.
+ *
+ * An instance is its header plus its instance fields (superclasses included), rounded
+ * up to the object alignment. HotSpot packs fields into the gaps, so this is exact for
+ * most classes and a few bytes high for some.
+ */
+public final class HeapLayout {
+    private final boolean compressedOops;
+    private final int objectHeader;
+    private final int arrayHeader;
+    private final int referenceBytes;
+    private final int alignment;
+
+    private final ClassValue<Long> shallow = new ClassValue<>() {
+        @Override
+        protected Long computeValue(final Class<?> type) {
+            long bytes = objectHeader;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (final Field f : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(f.getModifiers())) bytes += slot(f.getType());
+                }
+            }
+            return align(bytes);
+        }
+    };
+
+    HeapLayout(final boolean compressedOops, final boolean compressedClassPointers, final int alignment) {
+        this.compressedOops = compressedOops;
+        this.objectHeader = compressedClassPointers ? 12 : 16;
+        this.arrayHeader = objectHeader + 4;
+        this.referenceBytes = compressedOops ? 4 : 8;
+        this.alignment = alignment;
+    }
+
+    /** Layout of this JVM; 64-bit HotSpot defaults (compressed oops, 8-byte alignment) if the flags are unreadable. */
+    public static HeapLayout current() {
+        boolean oops = true;
+        boolean classPointers = true;
+        int alignment = 8;
+        try {
+            final HotSpotDiagnosticMXBean hs = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            if (hs != null) {
+                oops = Boolean.parseBoolean(hs.getVMOption("UseCompressedOops").getValue());
+                classPointers = Boolean.parseBoolean(hs.getVMOption("UseCompressedClassPointers").getValue());
+                alignment = Integer.parseInt(hs.getVMOption("ObjectAlignmentInBytes").getValue());
+            }
+        } catch (final RuntimeException e) {
+            // not HotSpot: keep the defaults
+        }
+        return new HeapLayout(oops, classPointers, alignment);
+    }
+
+    /** Bytes of one instance of {@code type}, without what its references point to. */
+    public long shallow(final Class<?> type) {
+        return shallow.get(type);
+    }
+
+    /** Bytes of an array of {@code length} elements of {@code componentType}. */
+    public long array(final Class<?> componentType, final int length) {
+        return align(arrayHeader + (long) length * slot(componentType));
+    }
+
+    public int referenceBytes() {
+        return referenceBytes;
+    }
+
+    private int slot(final Class<?> type) {
+        if (!type.isPrimitive()) return referenceBytes;
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        return 1;
+    }
+
+    private long align(final long bytes) {
+        return (bytes + alignment - 1) / alignment * alignment;
+    }
+
+    @Override
+    public String toString() {
+        return (compressedOops ? "compressed" : "uncompressed") + " oops, "
+            + objectHeader + "-byte headers, " + alignment + "-byte alignment";
+    }
+}
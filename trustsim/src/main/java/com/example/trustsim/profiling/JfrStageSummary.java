@@ -0,0 +1,94 @@
+package com.example.trustsim.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Prints a per-stage breakdown from a recording made with {@code trustsim.jfc}.
+ *
+ * Usage: {@code JfrStageSummary <recording.jfr>}
+ */
+public final class JfrStageSummary {
+    private static final Stage[] STAGES = Stage.values();
+
+    private JfrStageSummary() {}
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: JfrStageSummary <recording.jfr>");
+            System.exit(2);
+        }
+
+        final long[] stageNanos = new long[STAGES.length];
+        final long[] stageCalls = new long[STAGES.length];
+        final long[] sampleNanos = new long[STAGES.length];
+        long samples = 0;
+
+        long ticks = 0;
+        long tickNanos = 0;
+        long maxTickNanos = 0;
+        int slowestTick = -1;
+
+        try (RecordingFile file = new RecordingFile(Path.of(args[0]))) {
+            while (file.hasMoreEvents()) {
+                final RecordedEvent e = file.readEvent();
+                switch (e.getEventType().getName()) {
+                    case "trustsim.TickStage": {
+                        final int s = Stage.valueOf(e.getString("stage")).ordinal();
+                        stageNanos[s] += e.getDuration("elapsed").toNanos();
+                        stageCalls[s] += e.getLong("count");
+                        break;
+                    }
+                    case "trustsim.Tick": {
+                        final long d = e.getDuration().toNanos();
+                        ticks++;
+                        tickNanos += d;
+                        if (d > maxTickNanos) {
+                            maxTickNanos = d;
+                            slowestTick = e.getInt("tick");
+                        }
+                        break;
+                    }
+                    case "trustsim.ObjectEvaluation":
+                        samples++;
+                        sampleNanos[Stage.RISK.ordinal()] += e.getDuration("risk").toNanos();
+                        sampleNanos[Stage.TRUST.ordinal()] += e.getDuration("trust").toNanos();
+                        sampleNanos[Stage.ML.ordinal()] += e.getDuration("ml").toNanos();
+                        sampleNanos[Stage.DECISION.ordinal()] += e.getDuration("decision").toNanos();
+                        sampleNanos[Stage.AUDIT.ordinal()] += e.getDuration("audit").toNanos();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        long total = 0;
+        for (final long n : stageNanos) total += n;
+
+        System.out.println("TrustSim stage breakdown: " + args[0]);
+        System.out.printf(Locale.ROOT, " - Ticks: %d, mean %.3f ms, slowest %.3f ms (tick %d)%n",
+            ticks, ticks == 0 ? 0.0 : tickNanos / 1e6 / ticks, maxTickNanos / 1e6, slowestTick);
+        System.out.printf(Locale.ROOT, " %-11s %12s %7s %14s %12s%n", "stage", "total ms", "share", "calls", "ns/call");
+        for (final Stage stage : STAGES) {
+            final int s = stage.ordinal();
+            System.out.printf(Locale.ROOT, " %-11s %12.2f %6.1f%% %14d %12.1f%n",
+                stage.name(),
+                stageNanos[s] / 1e6,
+                total == 0 ? 0.0 : 100.0 * stageNanos[s] / total,
+                stageCalls[s],
+                stageCalls[s] == 0 ? 0.0 : ((double) stageNanos[s]) / stageCalls[s]);
+        }
+        if (samples > 0) {
+            System.out.println(" Sampled objects: " + samples + " (mean ns per stage)");
+            for (final Stage stage : STAGES) {
+                if (sampleNanos[stage.ordinal()] == 0) continue;
+                System.out.printf(Locale.ROOT, "   %-11s %10.1f%n", stage.name(), ((double) sampleNanos[stage.ordinal()]) / samples);
+            }
+        }
+    }
+}
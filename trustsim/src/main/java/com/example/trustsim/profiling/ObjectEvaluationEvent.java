@@ -0,0 +1,47 @@
+package com.example.trustsim.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Stage breakdown for one sampled object evaluation.
+ */
+@Name("trustsim.ObjectEvaluation")
+@Label("Object Evaluation")
+@Category("TrustSim")
+@Description("Per-stage time of one sampled object evaluation")
+@StackTrace(false)
+public final class ObjectEvaluationEvent extends jdk.jfr.Event {
+    @Label("Tick")
+    public int tick;
+
+    @Label("Data Id")
+    public int dataId;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Risk")
+    @Timespan(Timespan.NANOSECONDS)
+    public long risk;
+
+    @Label("Trust")
+    @Timespan(Timespan.NANOSECONDS)
+    public long trust;
+
+    @Label("ML")
+    @Timespan(Timespan.NANOSECONDS)
+    public long ml;
+
+    @Label("Decision")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decision;
+
+    @Label("Audit")
+    @Timespan(Timespan.NANOSECONDS)
+    public long audit;
+}
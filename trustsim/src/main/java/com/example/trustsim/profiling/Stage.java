@@ -0,0 +1,14 @@
+package com.example.trustsim.profiling;
+
+/**
+ * Hot-path stages of one evaluation tick, in pipeline order.
+ */
+public enum Stage {
+    MONITORING,
+    RISK,
+    TRUST,
+    ML,
+    DECISION,
+    AUDIT,
+    METRICS
+}
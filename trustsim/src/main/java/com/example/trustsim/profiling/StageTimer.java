@@ -0,0 +1,126 @@
+package com.example.trustsim.profiling;
+
+import com.example.trustsim.model.Action;
+import jdk.jfr.EventType;
+
+import java.util.Arrays;
+
+/**
+ * Accumulates per-stage nanoseconds for the current tick and emits them as JFR events.
+ *
+ * {@link #beginTick(int)} checks once per tick whether any recording wants the events;
+ * when none does the pipeline skips every {@code nanoTime()} call, so an idle timer
+ * costs one branch per stage.
+ */
+public final class StageTimer {
+    private static final Stage[] STAGES = Stage.values();
+
+    /** Timer that never activates; used when JFR instrumentation is switched off. */
+    public static final StageTimer DISABLED = new StageTimer(0, false);
+
+    private final int sampleEvery;
+    private final boolean instrumented;
+
+    private final long[] elapsed = new long[STAGES.length];
+    private final long[] calls = new long[STAGES.length];
+    private final long[] lastLap = new long[STAGES.length];
+
+    private boolean sampleObjects;
+    private TickEvent tickEvent;
+
+    /**
+     * @param sampleEvery emit an {@link ObjectEvaluationEvent} for every object whose id is a
+     *                    multiple of this value; 0 disables per-object events
+     */
+    public StageTimer(final int sampleEvery) {
+        this(sampleEvery, true);
+    }
+
+    private StageTimer(final int sampleEvery, final boolean instrumented) {
+        this.sampleEvery = sampleEvery;
+        this.instrumented = instrumented;
+    }
+
+    /**
+     * Returns true if this tick should be timed.
+     */
+    public boolean beginTick(final int now) {
+        if (!instrumented) return false;
+        if (!Types.STAGE.isEnabled() && !Types.TICK.isEnabled()) return false;
+
+        Arrays.fill(elapsed, 0L);
+        Arrays.fill(calls, 0L);
+        sampleObjects = sampleEvery > 0 && Types.OBJECT.isEnabled();
+        tickEvent = new TickEvent();
+        tickEvent.tick = now;
+        tickEvent.begin();
+        return true;
+    }
+
+    /**
+     * Charges the time since {@code since} to {@code stage} and returns the current time.
+     */
+    public long lap(final Stage stage, final long since) {
+        return lap(stage, since, 1);
+    }
+
+    public long lap(final Stage stage, final long since, final long n) {
+        final long t = System.nanoTime();
+        final int s = stage.ordinal();
+        final long d = t - since;
+        elapsed[s] += d;
+        calls[s] += n;
+        lastLap[s] = d;
+        return t;
+    }
+
+    public boolean sampled(final int dataId) {
+        return sampleObjects && dataId % sampleEvery == 0;
+    }
+
+    /**
+     * Clears the per-object laps before a sampled evaluation, so stages it skips (risk,
+     * trust and ML of a deleted object) are emitted as 0 rather than another object's laps.
+     */
+    public void beginObject() {
+        Arrays.fill(lastLap, 0L);
+    }
+
+    /**
+     * Emits the last laps of the per-object stages as one sampled evaluation.
+     */
+    public void commitObject(final int now, final int dataId, final Action action) {
+        final ObjectEvaluationEvent e = new ObjectEvaluationEvent();
+        e.tick = now;
+        e.dataId = dataId;
+        e.action = action.name();
+        e.risk = lastLap[Stage.RISK.ordinal()];
+        e.trust = lastLap[Stage.TRUST.ordinal()];
+        e.ml = lastLap[Stage.ML.ordinal()];
+        e.decision = lastLap[Stage.DECISION.ordinal()];
+        e.audit = lastLap[Stage.AUDIT.ordinal()];
+        e.commit();
+    }
+
+    public void endTick(final int now, final int objects, final int accessEvents) {
+        for (final Stage stage : STAGES) {
+            final TickStageEvent e = new TickStageEvent();
+            e.tick = now;
+            e.stage = stage.name();
+            e.elapsed = elapsed[stage.ordinal()];
+            e.count = calls[stage.ordinal()];
+            e.commit();
+        }
+        tickEvent.objects = objects;
+        tickEvent.accessEvents = accessEvents;
+        tickEvent.commit();
+        tickEvent = null;
+    }
+
+    // Holder so event types are only registered with JFR once a real timer is used.
+    private static final class Types {
+        static final EventType STAGE = EventType.getEventType(TickStageEvent.class);
+        static final EventType TICK = EventType.getEventType(TickEvent.class);
+        static final EventType OBJECT = EventType.getEventType(ObjectEvaluationEvent.class);
+    }
+}
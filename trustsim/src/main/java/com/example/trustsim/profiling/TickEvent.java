@@ -0,0 +1,26 @@
+package com.example.trustsim.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One full evaluation tick; the event duration is the tick's wall time.
+ */
+@Name("trustsim.Tick")
+@Label("Tick")
+@Category("TrustSim")
+@Description("Wall time of one evaluation tick")
+@StackTrace(false)
+public final class TickEvent extends jdk.jfr.Event {
+    @Label("Tick")
+    public int tick;
+
+    @Label("Objects Evaluated")
+    public int objects;
+
+    @Label("Access Events")
+    public int accessEvents;
+}
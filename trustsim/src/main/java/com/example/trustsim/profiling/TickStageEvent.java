@@ -0,0 +1,31 @@
+package com.example.trustsim.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Time spent in one {@link Stage} during one tick, summed over all objects.
+ */
+@Name("trustsim.TickStage")
+@Label("Tick Stage")
+@Category("TrustSim")
+@Description("Per-tick time and call count of one pipeline stage")
+@StackTrace(false)
+public final class TickStageEvent extends jdk.jfr.Event {
+    @Label("Tick")
+    public int tick;
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    public long elapsed;
+
+    @Label("Calls")
+    public long count;
+}
@@ -0,0 +1,155 @@
+package com.example.trustsim.service;
+
+import com.example.trustsim.sim.TickPipeline;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link TickPipeline} as a service: one tick per wall-clock period, with event
+ * sources feeding it concurrently.
+ *
+ * Each tick is scheduled at {@code origin + k * period}. A tick that starts late runs
+ * immediately (ticks are never skipped) and its start lag is recorded; a tick whose
+ * evaluation takes longer than the deadline counts as a missed deadline.
+ *
+ * Sources run one per thread: virtual threads when the runtime has them (Java 21+),
+ * otherwise a cached pool of platform threads.
+ */
+public final class RetentionService implements Closeable {
+    private final TickPipeline pipeline;
+    private final long periodNanos;
+    private final long deadlineNanos;
+    private final List<Runnable> sources = new ArrayList<>();
+    private final ExecutorService sourceThreads;
+    private final boolean virtualThreads;
+    private volatile boolean running;
+
+    // stats
+    private long[] tickNanos = new long[256];
+    private int ticks;
+    private long startLagSum;
+    private long startLagMax;
+    private int missedDeadlines;
+    private int overruns;
+
+    public RetentionService(final TickPipeline pipeline, final long periodMillis, final double deadlineFraction) {
+        this.pipeline = pipeline;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.deadlineNanos = (long) (periodNanos * deadlineFraction);
+        final ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+        this.virtualThreads = virtual != null;
+        this.sourceThreads = virtual != null ? virtual : Executors.newCachedThreadPool(daemon());
+    }
+
+    /** Adds a source to start with {@link #run(int, int)}. */
+    public void addSource(final Runnable source) {
+        sources.add(source);
+    }
+
+    /** True until the run finishes; sources poll it to stop. */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Evaluates ticks {@code firstTick .. firstTick + tickCount - 1}, one per period, then
+     * stops the sources and closes the pipeline.
+     */
+    public void run(final int firstTick, final int tickCount) throws IOException {
+        running = true;
+        for (final Runnable s : sources) sourceThreads.execute(s);
+        try {
+            final long origin = System.nanoTime();
+            for (int k = 0; k < tickCount; k++) {
+                final long scheduled = origin + k * periodNanos;
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+
+                final long start = System.nanoTime();
+                pipeline.tick(firstTick + k);
+                final long end = System.nanoTime();
+                record(start - scheduled, end - start);
+            }
+        } finally {
+            running = false;
+            sourceThreads.shutdown();
+            try {
+                if (!sourceThreads.awaitTermination(1, TimeUnit.SECONDS)) sourceThreads.shutdownNow();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sourceThreads.shutdownNow();
+            }
+            pipeline.close();
+        }
+    }
+
+    private void record(final long startLag, final long took) {
+        if (ticks == tickNanos.length) tickNanos = Arrays.copyOf(tickNanos, ticks * 2);
+        tickNanos[ticks++] = took;
+        startLagSum += startLag;
+        if (startLag > startLagMax) startLagMax = startLag;
+        if (took > deadlineNanos) missedDeadlines++;
+        if (took > periodNanos) overruns++;
+    }
+
+    public String report() {
+        final long[] sorted = Arrays.copyOf(tickNanos, ticks);
+        Arrays.sort(sorted);
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Retention Service").append('\n');
+        sb.append(String.format(Locale.ROOT, " - Ticks: %d, period %.1f ms, deadline %.1f ms, sources: %d on %s threads%n",
+            ticks, periodNanos / 1e6, deadlineNanos / 1e6, sources.size(), virtualThreads ? "virtual" : "platform"));
+        sb.append(String.format(Locale.ROOT, " - Missed deadlines: %d, ticks longer than a period: %d%n",
+            missedDeadlines, overruns));
+        sb.append(String.format(Locale.ROOT, " - Tick time: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+            quantile(sorted, 0.50) / 1e6, quantile(sorted, 0.99) / 1e6, ticks == 0 ? 0.0 : sorted[ticks - 1] / 1e6));
+        sb.append(String.format(Locale.ROOT, " - Start lag behind wall clock: avg %.2f ms, max %.2f ms%n",
+            ticks == 0 ? 0.0 : startLagSum / 1e6 / ticks, startLagMax / 1e6));
+        return sb.toString();
+    }
+
+    private static double quantile(final long[] sorted, final double q) {
+        if (sorted.length == 0) return 0.0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)];
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        sourceThreads.shutdownNow();
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} when available; looked up
+     * reflectively so the service still runs on Java 17.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            final Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (final ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemon() {
+        final AtomicInteger n = new AtomicInteger();
+        return r -> {
+            final Thread t = new Thread(r, "trustsim-source-" + n.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
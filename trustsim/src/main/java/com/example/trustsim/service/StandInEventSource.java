@@ -0,0 +1,107 @@
+package com.example.trustsim.service;
+
+import com.example.trustsim.ingest.LiveInbox;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.Role;
+import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.workload.WorkloadGenerator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Local stand-in for one upstream access-log source: emits a steady stream of mostly
+ * legitimate accesses skewed towards HOT objects, some suspicious probes, and the
+ * occasional burst against a sensitive object.
+ *
+ * Reads only the immutable identity fields of objects, so it can run beside evaluation.
+ */
+public final class StandInEventSource implements Runnable {
+    private static final long BATCH_MILLIS = 10;
+
+    private final LiveInbox.Source out;
+    private final List<DataObject> objects;
+    private final WorkloadGenerator.Profile[] profiles;
+    private final double eventsPerSecond;
+    private final SplittableRandom rnd;
+    private final BooleanSupplier running;
+
+    public StandInEventSource(
+        final LiveInbox.Source out,
+        final List<DataObject> objects,
+        final WorkloadGenerator.Profile[] profiles,
+        final double eventsPerSecond,
+        final long seed,
+        final BooleanSupplier running
+    ) {
+        this.out = out;
+        this.objects = objects;
+        this.profiles = profiles;
+        this.eventsPerSecond = eventsPerSecond;
+        this.rnd = new SplittableRandom(seed);
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        final double perBatch = eventsPerSecond * BATCH_MILLIS / 1000.0;
+        double quota = 0.0;
+        try {
+            while (running.getAsBoolean()) {
+                quota += perBatch;
+                while (quota >= 1.0) {
+                    emit();
+                    quota -= 1.0;
+                }
+                if (rnd.nextDouble() < 0.002) burst();
+                Thread.sleep(BATCH_MILLIS);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void emit() {
+        final DataObject obj = pickObject();
+        if (rnd.nextDouble() < 0.03 && obj.sensitivity != Sensitivity.NON_SENSITIVE) {
+            suspicious(obj);
+            return;
+        }
+        final Role role;
+        if (obj.sensitivity == Sensitivity.NON_SENSITIVE) role = Role.User;
+        else if (obj.sensitivity == Sensitivity.PII) role = Role.Service;
+        else role = Role.Admin;
+        out.offer(obj.id, role, true, 0.70 + 0.30 * rnd.nextDouble());
+    }
+
+    private void burst() {
+        final DataObject obj = objects.get(rnd.nextInt(objects.size()));
+        if (obj.sensitivity == Sensitivity.NON_SENSITIVE) return;
+        for (int i = 0; i < 6; i++) suspicious(obj);
+    }
+
+    private void suspicious(final DataObject obj) {
+        final Role role = rnd.nextDouble() < 0.5 ? Role.User : Role.Analyst;
+        out.offer(obj.id, role, false, 0.05 + 0.45 * rnd.nextDouble());
+    }
+
+    private DataObject pickObject() {
+        while (true) {
+            final int id = rnd.nextInt(objects.size());
+            final double accept;
+            switch (profiles[id]) {
+                case HOT:
+                    accept = 1.0;
+                    break;
+                case WARM:
+                    accept = 0.15;
+                    break;
+                default:
+                    accept = 0.02;
+                    break;
+            }
+            if (rnd.nextDouble() < accept) return objects.get(id);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.ml.RelevanceModel;
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.AccessStats;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.modules.RiskAnalyzer;
+import com.example.trustsim.modules.TrustDecayEngine;
+import com.example.trustsim.profiling.HeapLayout;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs window and decayed access statistics side by side ({@link SideBySideRun}) and
+ * measures how far risk, trust and the retention outcome move.
+ *
+ * After every tick both populations are compared object by object on the
+ * {@link RiskAnalyzer} outputs (risk, anomaly score, high-risk flag, burst), the
+ * {@link TrustDecayEngine} output (trust) and tier and anonymization; at the end the
+ * metric summaries and the heap held by the statistics are compared too. Each run sets
+ * its own statistics, whatever {@code Config.ACCESS_STATS_DECAYED} selects.
+ */
+public final class AccessStatsComparison {
+    private AccessStatsComparison() {}
+
+    public static Result run(
+        final Supplier<List<DataObject>> population,
+        final int duration,
+        final List<AccessEvent>[] accessEventsByTime,
+        final RelevanceModel ml,
+        final double requestScoreThreshold,
+        final RetentionDecisionController.Thresholds thresholds
+    ) throws IOException {
+        final List<DataObject> windowObjects = population.get();
+        final List<DataObject> decayedObjects = population.get();
+        for (final DataObject obj : windowObjects) obj.accessStats = AccessStats.empty(false);
+        for (final DataObject obj : decayedObjects) obj.accessStats = AccessStats.empty(true);
+        final SideBySideRun run = new SideBySideRun(
+            windowObjects, decayedObjects, duration, accessEventsByTime, ml, requestScoreThreshold, thresholds);
+
+        final Outputs outputs = new Outputs(windowObjects, decayedObjects);
+        run.run(outputs);
+
+        int mismatchedObjects = 0;
+        for (final boolean m : outputs.everMismatched) if (m) mismatchedObjects++;
+        final HeapLayout layout = HeapLayout.current();
+        long windowBytes = 0;
+        long decayedBytes = 0;
+        for (int i = 0; i < windowObjects.size(); i++) {
+            windowBytes += windowObjects.get(i).accessStats.retainedBytes(layout);
+            decayedBytes += decayedObjects.get(i).accessStats.retainedBytes(layout);
+        }
+
+        return new Result(
+            run.firstMetrics.summarize(),
+            run.secondMetrics.summarize(),
+            outputs.trust,
+            outputs.risk,
+            outputs.anomaly,
+            outputs.highRiskMismatches,
+            outputs.windowBursts,
+            outputs.decayedBursts,
+            outputs.burstMismatches,
+            outputs.stateMismatches,
+            mismatchedObjects,
+            windowObjects.size(),
+            windowBytes,
+            decayedBytes,
+            run.firstMillis(),
+            run.secondMillis()
+        );
+    }
+
+    /** Per-object differences of the analyzer and engine outputs, added up after every tick. */
+    private static final class Outputs implements IntConsumer {
+        private final List<DataObject> window;
+        private final List<DataObject> decayed;
+        final Diff trust = new Diff();
+        final Diff risk = new Diff();
+        final Diff anomaly = new Diff();
+        long highRiskMismatches;
+        long windowBursts;
+        long decayedBursts;
+        long burstMismatches;
+        long stateMismatches;
+        final boolean[] everMismatched;
+
+        Outputs(final List<DataObject> window, final List<DataObject> decayed) {
+            this.window = window;
+            this.decayed = decayed;
+            this.everMismatched = new boolean[window.size()];
+        }
+
+        @Override
+        public void accept(final int now) {
+            for (int i = 0; i < window.size(); i++) {
+                final DataObject a = window.get(i);
+                final DataObject b = decayed.get(i);
+                trust.add(a.trust, b.trust);
+                risk.add(a.riskStats.risk, b.riskStats.risk);
+                anomaly.add(a.riskStats.anomalyScore, b.riskStats.anomalyScore);
+                if (a.riskStats.highRiskFlag != b.riskStats.highRiskFlag) highRiskMismatches++;
+                // both are already at now, so these only read
+                final boolean burstA = a.accessStats.burstDetected(now);
+                final boolean burstB = b.accessStats.burstDetected(now);
+                if (burstA) windowBursts++;
+                if (burstB) decayedBursts++;
+                if (burstA != burstB) burstMismatches++;
+                if (a.tier != b.tier || a.anonymized != b.anonymized) {
+                    stateMismatches++;
+                    everMismatched[i] = true;
+                }
+            }
+        }
+    }
+
+    /** Absolute differences of one output over all object-ticks. */
+    public static final class Diff {
+        public long count;
+        public double sum;
+        public double max;
+
+        void add(final double a, final double b) {
+            final double d = Math.abs(a - b);
+            count++;
+            sum += d;
+            if (d > max) max = d;
+        }
+
+        public double mean() {
+            return count == 0 ? 0.0 : sum / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "mean %.4f, max %.4f", mean(), max);
+        }
+    }
+
+    public static final class Result {
+        public final MetricsComputer.Summary window;
+        public final MetricsComputer.Summary decayed;
+        public final Diff trust;
+        public final Diff risk;
+        public final Diff anomaly;
+        public final long highRiskMismatches;
+        public final long windowBursts;
+        public final long decayedBursts;
+        public final long burstMismatches;
+        public final long stateMismatches;
+        public final int mismatchedObjects;
+        public final int objects;
+        public final long windowStatsBytes;
+        public final long decayedStatsBytes;
+        public final long windowMillis;
+        public final long decayedMillis;
+
+        public Result(
+            final MetricsComputer.Summary window,
+            final MetricsComputer.Summary decayed,
+            final Diff trust,
+            final Diff risk,
+            final Diff anomaly,
+            final long highRiskMismatches,
+            final long windowBursts,
+            final long decayedBursts,
+            final long burstMismatches,
+            final long stateMismatches,
+            final int mismatchedObjects,
+            final int objects,
+            final long windowStatsBytes,
+            final long decayedStatsBytes,
+            final long windowMillis,
+            final long decayedMillis
+        ) {
+            this.window = window;
+            this.decayed = decayed;
+            this.trust = trust;
+            this.risk = risk;
+            this.anomaly = anomaly;
+            this.highRiskMismatches = highRiskMismatches;
+            this.windowBursts = windowBursts;
+            this.decayedBursts = decayedBursts;
+            this.burstMismatches = burstMismatches;
+            this.stateMismatches = stateMismatches;
+            this.mismatchedObjects = mismatchedObjects;
+            this.objects = objects;
+            this.windowStatsBytes = windowStatsBytes;
+            this.decayedStatsBytes = decayedStatsBytes;
+            this.windowMillis = windowMillis;
+            this.decayedMillis = decayedMillis;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("Decayed Access Statistics vs Sliding Window").append('\n');
+            sb.append(String.format(Locale.ROOT, " - Tick loop time: window %d ms, decayed %d ms%n",
+                windowMillis, decayedMillis));
+            sb.append(String.format(Locale.ROOT, " - Access statistics at the end: %.1f vs %.1f B/object%n",
+                perObject(windowStatsBytes), perObject(decayedStatsBytes)));
+            sb.append(String.format(Locale.ROOT, " - Risk difference per object-tick: %s%n", risk));
+            sb.append(String.format(Locale.ROOT, " - Anomaly score difference per object-tick: %s%n", anomaly));
+            sb.append(String.format(Locale.ROOT, " - High-risk flag mismatches: %d object-ticks%n", highRiskMismatches));
+            sb.append(String.format(Locale.ROOT, " - Bursts: %d vs %d object-ticks, %d disagree%n",
+                windowBursts, decayedBursts, burstMismatches));
+            sb.append(String.format(Locale.ROOT, " - Trust difference per object-tick: %s%n", trust));
+            sb.append(String.format(Locale.ROOT, " - Tier/anonymization mismatches: %d object-ticks, %d objects%n",
+                stateMismatches, mismatchedObjects));
+            sb.append(String.format(Locale.ROOT, " - Storage cost reduction: %.2f%% vs %.2f%%%n",
+                window.storageCostReduction * 100.0, decayed.storageCostReduction * 100.0));
+            sb.append(String.format(Locale.ROOT, " - Privacy risk exposure: %.2f vs %.2f%n",
+                window.privacyRiskExposure, decayed.privacyRiskExposure));
+            sb.append(String.format(Locale.ROOT, " - Compliance violation incidents: %d vs %d%n",
+                window.complianceViolationIncidents, decayed.complianceViolationIncidents));
+            sb.append(String.format(Locale.ROOT, " - Trust convergence (avg tick): %.2f vs %.2f%n",
+                window.avgTrustConvergenceTime, decayed.avgTrustConvergenceTime));
+            sb.append(String.format(Locale.ROOT, " - False deletion rate: %.4f vs %.4f%n",
+                window.falseDeletionRate, decayed.falseDeletionRate));
+            sb.append(String.format(Locale.ROOT, " - Retention efficiency: %.4f vs %.4f%n",
+                window.retentionEfficiency, decayed.retentionEfficiency));
+            return sb.toString();
+        }
+
+        private double perObject(final long bytes) {
+            return objects == 0 ? 0.0 : ((double) bytes) / objects;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.Config;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.modules.RetentionDecisionController;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decides when each object is evaluated next instead of evaluating everything every tick.
+ *
+ * Between accesses an object's inputs are fixed except trust, whose per-tick change is
+ * bounded by the {@link com.example.trustsim.modules.TrustDecayEngine} terms, and the
+ * ML prediction, which moves at most {@code predictionTrustSlope} per unit of trust.
+ * The next evaluation is the first tick at which trust or prediction could reach a
+ * decision threshold, capped by the grace / cold-start age boundaries and
+ * {@code maxInterval}. Objects inside an access burst are evaluated every tick, and
+ * any access pulls its object forward to the current tick.
+ *
+ * Skipped ticks are replayed cheaply (risk + trust only) by {@link TickPipeline}
+ * right before the next evaluation, so trust history and convergence stay exact.
+ * Every live object is evaluated at {@code lastTick}.
+ */
+public final class AdaptiveCadence {
+    private final RetentionDecisionController.Thresholds thresholds;
+    private final double predictionTrustSlope;
+    private final int maxInterval;
+    private final int lastTick;
+
+    private TimingWheel wheel;
+    private int[] evaluatedThrough;
+    private int[] due = new int[0];
+
+    // stats
+    private long ticks;
+    private long exhaustiveEvaluations;
+    private long evaluations;
+    private long catchUpSteps;
+    private long pulledForward;
+    private final long[] intervalHistogram;
+
+    public AdaptiveCadence(
+        final RetentionDecisionController.Thresholds thresholds,
+        final double predictionTrustSlope,
+        final int maxInterval,
+        final int lastTick
+    ) {
+        this.thresholds = thresholds;
+        this.predictionTrustSlope = predictionTrustSlope;
+        this.maxInterval = Math.max(1, Math.min(maxInterval, TimingWheel.MAX_DELAY));
+        this.lastTick = lastTick;
+        this.intervalHistogram = new long[this.maxInterval + 1];
+    }
+
+    /**
+     * Starts tick {@code now}; the first call schedules every live object for it.
+     */
+    void begin(final int now, final List<DataObject> objects) {
+        if (wheel == null) {
+            wheel = new TimingWheel(objects.size(), now);
+            evaluatedThrough = new int[objects.size()];
+            due = new int[objects.size()];
+            for (final DataObject obj : objects) {
+                evaluatedThrough[obj.id] = now - 1;
+                if (!obj.isDeleted()) wheel.schedule(obj.id, now);
+            }
+        }
+        ticks++;
+        exhaustiveEvaluations += objects.size();
+    }
+
+    /** Last tick whose risk/trust updates have been applied to {@code id}. */
+    int evaluatedThrough(final int id) {
+        return evaluatedThrough[id];
+    }
+
+    void caughtUp(final int id, final int tick, final int steps) {
+        evaluatedThrough[id] = tick;
+        catchUpSteps += steps;
+    }
+
+    /** An access at {@code now}: evaluate the object this tick. */
+    void pullForward(final int id, final int now) {
+        if (wheel.dueAt(id) == now) return;
+        wheel.schedule(id, now);
+        pulledForward++;
+    }
+
+    /**
+     * Removes the objects due at {@code now} and returns how many there are; their ids are
+     * in {@link #dueIds()} in ascending order.
+     */
+    int collectDue(final int now) {
+        final int n = wheel.advance(now, due);
+        Arrays.sort(due, 0, n);
+        return n;
+    }
+
+    int[] dueIds() {
+        return due;
+    }
+
+    /**
+     * Schedules the next evaluation of {@code obj} after it was evaluated at {@code now}.
+     *
+     * @param risk the risk the tick's trust update and prediction saw (before any ANONYMIZE)
+     */
+    void evaluated(final DataObject obj, final double risk, final double predicted, final int now) {
+        evaluations++;
+        evaluatedThrough[obj.id] = now;
+        if (obj.isDeleted() || now >= lastTick) return;
+        final int interval = nextInterval(obj, risk, predicted, now);
+        intervalHistogram[interval]++;
+        wheel.schedule(obj.id, Math.min(now + interval, lastTick));
+    }
+
+    private int nextInterval(final DataObject obj, final double risk, final double predicted, final int now) {
+        int cap = maxInterval;
+        final int age = now - obj.createdAt;
+        if (age < Config.GRACE_PERIOD) cap = Math.min(cap, Config.GRACE_PERIOD - age);
+        if (obj.totalAccessCountAllTime == 0 && age < Config.COLD_START_WINDOW) {
+            cap = Math.min(cap, Config.COLD_START_WINDOW - age);
+        }
+        // an active burst expires with time and changes risk and anomaly
+        if (cap <= 1 || obj.accessStats.burstDetected(now)) return 1;
+
+        // per-tick trust change lies in [lo, hi] until the next access
+        final double inactivity = Math.min(1.0, ((double) Math.max(0, now - obj.lastAccessTime)) / Config.HALF_LIFE);
+        final double fixed = Config.REINFORCEMENT_RATE * obj.accessStats.legitRate()
+            - Config.RISK_PENALTY_WEIGHT * risk
+            - Config.ANOMALY_PENALTY_WEIGHT * obj.riskStats.anomalyScore;
+        final double hi = fixed - Config.DECAY_RATE * inactivity;
+        final double lo = fixed - Config.DECAY_RATE;
+        final double trust = obj.trust;
+        final boolean pinned = (trust <= 0.0 && hi <= 0.0) || (trust >= 1.0 && lo >= 0.0);
+        if (pinned) return cap;
+
+        double ticks = Math.min(ticksToReach(trust, thresholds.tMid, lo, hi), ticksToReach(trust, thresholds.tHigh, lo, hi));
+        final double predictionSpeed = predictionTrustSlope * Math.max(Math.abs(lo), Math.abs(hi));
+        if (predictionSpeed > 0.0) {
+            ticks = Math.min(ticks, Math.abs(predicted - thresholds.pLow) / predictionSpeed);
+            ticks = Math.min(ticks, Math.abs(predicted - thresholds.pMid) / predictionSpeed);
+        }
+        if (ticks >= cap) return cap;
+        return Math.max(1, (int) Math.ceil(ticks));
+    }
+
+    private static double ticksToReach(final double x, final double threshold, final double lo, final double hi) {
+        final double d = threshold - x;
+        if (d > 0.0) return hi > 0.0 ? d / hi : Double.POSITIVE_INFINITY;
+        if (d < 0.0) return lo < 0.0 ? d / lo : Double.POSITIVE_INFINITY;
+        return 0.0;
+    }
+
+    public long evaluations() {
+        return evaluations;
+    }
+
+    public String report() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Adaptive Cadence").append('\n');
+        sb.append(String.format(Locale.ROOT, " - Evaluations: %d of %d exhaustive (%.2fx fewer) over %d ticks%n",
+            evaluations, exhaustiveEvaluations,
+            evaluations == 0 ? 0.0 : ((double) exhaustiveEvaluations) / evaluations, ticks));
+        sb.append(String.format(Locale.ROOT, " - Catch-up risk/trust steps: %d, pulled forward by access: %d%n",
+            catchUpSteps, pulledForward));
+        sb.append(" - Scheduled intervals:");
+        for (int i = 1; i < intervalHistogram.length; i++) {
+            if (intervalHistogram[i] != 0) sb.append(' ').append(i).append('=').append(intervalHistogram[i]);
+        }
+        sb.append('\n');
+        return sb.toString();
+    }
+}
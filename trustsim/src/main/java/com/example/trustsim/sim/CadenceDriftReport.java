@@ -0,0 +1,146 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.ml.RelevanceModel;
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.modules.RetentionDecisionController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs exhaustive and adaptive evaluation side by side ({@link SideBySideRun}) and
+ * measures how far the adaptive run's retention state drifts.
+ *
+ * After every tick both populations are compared object by object on tier and
+ * anonymization; at the end, trust and the metric summaries are compared too.
+ */
+public final class CadenceDriftReport {
+    private CadenceDriftReport() {}
+
+    public static Result run(
+        final Supplier<List<DataObject>> population,
+        final int duration,
+        final List<AccessEvent>[] accessEventsByTime,
+        final RelevanceModel ml,
+        final double requestScoreThreshold,
+        final RetentionDecisionController.Thresholds thresholds,
+        final int maxInterval
+    ) throws IOException {
+        final SideBySideRun run = new SideBySideRun(
+            population.get(), population.get(), duration, accessEventsByTime, ml, requestScoreThreshold, thresholds);
+        final AdaptiveCadence cadence = new AdaptiveCadence(thresholds, ml.maxTrustSlope(), maxInterval, duration - 1);
+        run.second.setAdaptiveCadence(cadence);
+
+        final Drift drift = new Drift(run.firstObjects, run.secondObjects);
+        run.run(drift);
+
+        int mismatchedObjects = 0;
+        for (final boolean m : drift.everMismatched) if (m) mismatchedObjects++;
+        double maxTrustDiff = 0.0;
+        for (int i = 0; i < run.firstObjects.size(); i++) {
+            maxTrustDiff = Math.max(maxTrustDiff, Math.abs(run.firstObjects.get(i).trust - run.secondObjects.get(i).trust));
+        }
+
+        return new Result(
+            run.firstMetrics.summarize(),
+            run.secondMetrics.summarize(),
+            cadence.report(),
+            drift.mismatchedObjectTicks,
+            mismatchedObjects,
+            drift.firstMismatchTick,
+            maxTrustDiff,
+            run.firstMillis(),
+            run.secondMillis()
+        );
+    }
+
+    /** Tier and anonymization mismatches, checked after every tick. */
+    private static final class Drift implements IntConsumer {
+        private final List<DataObject> exhaustive;
+        private final List<DataObject> adaptive;
+        final boolean[] everMismatched;
+        long mismatchedObjectTicks;
+        int firstMismatchTick = -1;
+
+        Drift(final List<DataObject> exhaustive, final List<DataObject> adaptive) {
+            this.exhaustive = exhaustive;
+            this.adaptive = adaptive;
+            this.everMismatched = new boolean[exhaustive.size()];
+        }
+
+        @Override
+        public void accept(final int now) {
+            for (int i = 0; i < exhaustive.size(); i++) {
+                final DataObject a = exhaustive.get(i);
+                final DataObject b = adaptive.get(i);
+                if (a.tier != b.tier || a.anonymized != b.anonymized) {
+                    mismatchedObjectTicks++;
+                    everMismatched[i] = true;
+                    if (firstMismatchTick < 0) firstMismatchTick = now;
+                }
+            }
+        }
+    }
+
+    public static final class Result {
+        public final MetricsComputer.Summary exhaustive;
+        public final MetricsComputer.Summary adaptive;
+        public final String cadence;
+        public final long mismatchedObjectTicks;
+        public final int mismatchedObjects;
+        public final int firstMismatchTick;
+        public final double maxFinalTrustDiff;
+        public final long exhaustiveMillis;
+        public final long adaptiveMillis;
+
+        public Result(
+            final MetricsComputer.Summary exhaustive,
+            final MetricsComputer.Summary adaptive,
+            final String cadence,
+            final long mismatchedObjectTicks,
+            final int mismatchedObjects,
+            final int firstMismatchTick,
+            final double maxFinalTrustDiff,
+            final long exhaustiveMillis,
+            final long adaptiveMillis
+        ) {
+            this.exhaustive = exhaustive;
+            this.adaptive = adaptive;
+            this.cadence = cadence;
+            this.mismatchedObjectTicks = mismatchedObjectTicks;
+            this.mismatchedObjects = mismatchedObjects;
+            this.firstMismatchTick = firstMismatchTick;
+            this.maxFinalTrustDiff = maxFinalTrustDiff;
+            this.exhaustiveMillis = exhaustiveMillis;
+            this.adaptiveMillis = adaptiveMillis;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("Adaptive Cadence Drift vs Exhaustive Evaluation").append('\n');
+            sb.append(String.format(Locale.ROOT, " - Tick loop time: exhaustive %d ms, adaptive %d ms%n",
+                exhaustiveMillis, adaptiveMillis));
+            sb.append(String.format(Locale.ROOT, " - Tier/anonymization mismatches: %d object-ticks, %d objects, first at tick %d%n",
+                mismatchedObjectTicks, mismatchedObjects, firstMismatchTick));
+            sb.append(String.format(Locale.ROOT, " - Max final trust difference: %.3e%n", maxFinalTrustDiff));
+            sb.append(String.format(Locale.ROOT, " - Storage cost reduction: %.2f%% vs %.2f%%%n",
+                exhaustive.storageCostReduction * 100.0, adaptive.storageCostReduction * 100.0));
+            sb.append(String.format(Locale.ROOT, " - Privacy risk exposure: %.2f vs %.2f%n",
+                exhaustive.privacyRiskExposure, adaptive.privacyRiskExposure));
+            sb.append(String.format(Locale.ROOT, " - Compliance violation incidents: %d vs %d%n",
+                exhaustive.complianceViolationIncidents, adaptive.complianceViolationIncidents));
+            sb.append(String.format(Locale.ROOT, " - Trust convergence (avg tick): %.2f vs %.2f%n",
+                exhaustive.avgTrustConvergenceTime, adaptive.avgTrustConvergenceTime));
+            sb.append(String.format(Locale.ROOT, " - Retention efficiency: %.4f vs %.4f%n",
+                exhaustive.retentionEfficiency, adaptive.retentionEfficiency));
+            sb.append(cadence);
+            return sb.toString();
+        }
+    }
+}
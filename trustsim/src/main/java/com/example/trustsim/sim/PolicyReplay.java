@@ -0,0 +1,195 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.MathUtil;
+import com.example.trustsim.logging.AuditRecordFile;
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.ReasonCode;
+import com.example.trustsim.model.Sensitivity;
+import com.example.trustsim.model.Tier;
+import com.example.trustsim.modules.RetentionDecisionController;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Re-applies candidate decision thresholds to a recorded audit trail instead of rerunning
+ * the simulation. One pass over an {@link AuditRecordFile} evaluates every candidate:
+ * each keeps its own tier and anonymization per object, decides each row with
+ * {@link RetentionDecisionController#evaluate(boolean, int, boolean, double, double, double)}
+ * and accumulates the storage, privacy and compliance metrics of {@link
+ * com.example.trustsim.metrics.MetricsComputer} row by row.
+ *
+ * Decision inputs come from the row. Logged risk is after the recorded decision, so
+ * the 0.2 a recorded ANONYMIZE took off is added back. An object counts as accessed
+ * from its first row with a non-zero access rate, and its age is the row's time, as if
+ * created at 0. Trust, risk and predicted relevance are the recorded run's, so a
+ * candidate's own effect on later inputs (for example through the anonymized feature
+ * of the relevance model, or objects the recorded run deleted and stopped updating) is
+ * not modelled. The metrics are approximate for that reason. The agreement rate shows
+ * how closely the recorded policy itself is reproduced.
+ *
+ * Needs a full trail: one row per object and tick ({@code LOG_CHANGED_ONLY} off, no
+ * population compaction). False-deletion and efficiency rates need ground-truth labels,
+ * which the trail does not hold.
+ */
+public final class PolicyReplay {
+    private static final int HOT = Tier.HOT.ordinal();
+    private static final int COLD = Tier.COLD.ordinal();
+    private static final int DELETED = Tier.DELETED.ordinal();
+    private static final int TIER_MASK = 3;
+    private static final int S_ANONYMIZED = 4;
+    private static final int ANONYMIZE = Action.ANONYMIZE.ordinal();
+    private static final int ALREADY_DELETED = ReasonCode.ALREADY_DELETED.ordinal();
+    private static final int ACTIONS = Action.values().length;
+
+    private final List<RetentionDecisionController.Thresholds> policies;
+
+    public PolicyReplay(final List<RetentionDecisionController.Thresholds> policies) {
+        this.policies = List.copyOf(policies);
+    }
+
+    public List<Result> run(final Path recordFile) throws IOException {
+        try (AuditRecordFile.Reader in = new AuditRecordFile.Reader(recordFile)) {
+            return run(in);
+        }
+    }
+
+    private List<Result> run(final AuditRecordFile.Reader in) {
+        final int k = policies.size();
+        final int n = in.objects();
+        final RetentionDecisionController[] controllers = new RetentionDecisionController[k];
+        for (int p = 0; p < k; p++) controllers[p] = new RetentionDecisionController(policies.get(p));
+        // [policy][object]: tier ordinal | S_ANONYMIZED; every object starts HOT
+        final byte[][] state = new byte[k][n];
+        final boolean[] accessed = new boolean[n];
+
+        final long[][] actions = new long[k][ACTIONS];
+        final long[] agree = new long[k];
+        final double[] actualCost = new double[k];
+        final double[] privacy = new double[k];
+        final long[] compliance = new long[k];
+
+        final long start = System.nanoTime();
+        final long rows = in.rows();
+        for (long row = 0; row < rows; row++) {
+            final MappedByteBuffer b = in.segment(row);
+            final int off = AuditRecordFile.Reader.offset(row);
+            final int time = AuditRecordFile.time(b, off);
+            final int id = AuditRecordFile.dataId(b, off);
+            final double trust = AuditRecordFile.trust(b, off);
+            final double predicted = AuditRecordFile.predictedRelevance(b, off);
+            final int reason = AuditRecordFile.reason(b, off);
+            final boolean sensitive = AuditRecordFile.sensitivity(b, off) != Sensitivity.NON_SENSITIVE;
+            final double loggedRisk = AuditRecordFile.risk(b, off);
+            final double risk = AuditRecordFile.action(b, off) == ANONYMIZE && reason != ALREADY_DELETED
+                ? loggedRisk + 0.2
+                : loggedRisk;
+            if ((AuditRecordFile.flags(b, off) & AuditRecordFile.F_ACCESSED) != 0) accessed[id] = true;
+            final boolean neverAccessed = !accessed[id];
+
+            for (int p = 0; p < k; p++) {
+                final byte[] st = state[p];
+                int tier = st[id] & TIER_MASK;
+                boolean anonymized = (st[id] & S_ANONYMIZED) != 0;
+                final RetentionDecisionController.Decision d =
+                    controllers[p].evaluate(tier == DELETED, time, neverAccessed, trust, risk, predicted);
+                double riskAfter = risk;
+                if (tier != DELETED) {
+                    switch (d.action) {
+                        case RETAIN:
+                            tier = HOT;
+                            break;
+                        case ARCHIVE:
+                            tier = COLD;
+                            break;
+                        case ANONYMIZE:
+                            anonymized = true;
+                            riskAfter = MathUtil.clamp(risk - 0.2, 0.0, 1.0);
+                            break;
+                        case DELETE:
+                            tier = DELETED;
+                            break;
+                        default:
+                            break;
+                    }
+                    st[id] = (byte) (tier | (anonymized ? S_ANONYMIZED : 0));
+                    actions[p][d.action.ordinal()]++;
+                }
+                if (d.reason.ordinal() == reason) agree[p]++;
+
+                actualCost[p] += tier == HOT ? 1.0 : tier == COLD ? 0.2 : 0.0;
+                if (tier != DELETED && sensitive) privacy[p] += riskAfter;
+                if (riskAfter >= 0.7 && tier == HOT && !anonymized) compliance[p]++;
+            }
+        }
+        final long nanos = System.nanoTime() - start;
+
+        final List<Result> results = new ArrayList<>(k);
+        for (int p = 0; p < k; p++) {
+            long deleted = 0;
+            for (final byte s : state[p]) if ((s & TIER_MASK) == DELETED) deleted++;
+            results.add(new Result(
+                policies.get(p),
+                actions[p],
+                deleted,
+                rows == 0 ? 0.0 : Math.max(0.0, 1.0 - actualCost[p] / rows),
+                privacy[p],
+                compliance[p],
+                rows == 0 ? 0.0 : ((double) agree[p]) / rows,
+                rows,
+                nanos
+            ));
+        }
+        return results;
+    }
+
+    public static final class Result {
+        public final RetentionDecisionController.Thresholds thresholds;
+        /** Decisions per {@link Action} ordinal, excluding rows for objects already deleted. */
+        public final long[] actions;
+        public final long deletedObjects;
+        public final double storageCostReduction;
+        public final double privacyRiskExposure;
+        public final long complianceViolationIncidents;
+        /** Fraction of rows whose replayed reason matches the recorded one. */
+        public final double agreement;
+        public final long rows;
+        /** Wall time of the whole pass, shared by every candidate in it. */
+        public final long passNanos;
+
+        public Result(
+            final RetentionDecisionController.Thresholds thresholds,
+            final long[] actions,
+            final long deletedObjects,
+            final double storageCostReduction,
+            final double privacyRiskExposure,
+            final long complianceViolationIncidents,
+            final double agreement,
+            final long rows,
+            final long passNanos
+        ) {
+            this.thresholds = thresholds;
+            this.actions = actions;
+            this.deletedObjects = deletedObjects;
+            this.storageCostReduction = storageCostReduction;
+            this.privacyRiskExposure = privacyRiskExposure;
+            this.complianceViolationIncidents = complianceViolationIncidents;
+            this.agreement = agreement;
+            this.rows = rows;
+            this.passNanos = passNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "[%s] storage -%.2f%%, risk %.2f, violations %d, deleted %d, actions R/A/N/D %d/%d/%d/%d, agreement %.4f",
+                thresholds, 100.0 * storageCostReduction, privacyRiskExposure, complianceViolationIncidents, deletedObjects,
+                actions[Action.RETAIN.ordinal()], actions[Action.ARCHIVE.ordinal()],
+                actions[Action.ANONYMIZE.ordinal()], actions[Action.DELETE.ordinal()], agreement);
+        }
+    }
+}
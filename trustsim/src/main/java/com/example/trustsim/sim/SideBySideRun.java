@@ -0,0 +1,104 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.Config;
+import com.example.trustsim.logging.EvidenceLogger;
+import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.ml.RelevanceModel;
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.modules.DataAccessMonitoringModule;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.modules.RiskAnalyzer;
+import com.example.trustsim.modules.TrustDecayEngine;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Two pipelines over separate copies of one population, driven by the same workload in
+ * lockstep, for the side-by-side reports ({@link CadenceDriftReport},
+ * {@link AccessStatsComparison}).
+ *
+ * Each pipeline has its own metrics and module chain and a discarding logger; the ML
+ * model and events are shared. Callers configure the pipelines before {@link #run}
+ * and compare the two populations after every tick.
+ */
+final class SideBySideRun {
+    final List<DataObject> firstObjects;
+    final List<DataObject> secondObjects;
+    final MetricsComputer firstMetrics;
+    final MetricsComputer secondMetrics;
+    final TickPipeline first;
+    final TickPipeline second;
+
+    private final int duration;
+    private long firstNanos;
+    private long secondNanos;
+
+    SideBySideRun(
+        final List<DataObject> firstObjects,
+        final List<DataObject> secondObjects,
+        final int duration,
+        final List<AccessEvent>[] accessEventsByTime,
+        final RelevanceModel ml,
+        final double requestScoreThreshold,
+        final RetentionDecisionController.Thresholds thresholds
+    ) throws IOException {
+        this.firstObjects = firstObjects;
+        this.secondObjects = secondObjects;
+        this.duration = duration;
+        this.firstMetrics = new MetricsComputer(firstObjects.size(), duration - Config.GRACE_PERIOD);
+        this.secondMetrics = new MetricsComputer(secondObjects.size(), duration - Config.GRACE_PERIOD);
+        this.first = pipeline(firstObjects, accessEventsByTime, ml, requestScoreThreshold, thresholds, firstMetrics);
+        this.second = pipeline(secondObjects, accessEventsByTime, ml, requestScoreThreshold, thresholds, secondMetrics);
+    }
+
+    private static TickPipeline pipeline(
+        final List<DataObject> objects,
+        final List<AccessEvent>[] accessEventsByTime,
+        final RelevanceModel ml,
+        final double requestScoreThreshold,
+        final RetentionDecisionController.Thresholds thresholds,
+        final MetricsComputer metrics
+    ) throws IOException {
+        metrics.aggregates().trackAll(objects);
+        return new TickPipeline(
+            objects,
+            accessEventsByTime,
+            new DataAccessMonitoringModule(requestScoreThreshold),
+            new RiskAnalyzer(metrics.aggregates()),
+            new TrustDecayEngine(),
+            ml,
+            new RetentionDecisionController(thresholds, metrics.aggregates()),
+            EvidenceLogger.discarding(objects.size()),
+            metrics
+        );
+    }
+
+    /**
+     * Ticks both pipelines from the end of the grace period to the end of the run, timing
+     * each, and calls {@code afterTick} with the tick once both have run it.
+     */
+    void run(final IntConsumer afterTick) throws IOException {
+        for (int now = Config.GRACE_PERIOD; now < duration; now += Config.TICK_INTERVAL) {
+            long start = System.nanoTime();
+            first.tick(now);
+            firstNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            second.tick(now);
+            secondNanos += System.nanoTime() - start;
+            afterTick.accept(now);
+        }
+        first.close();
+        second.close();
+    }
+
+    long firstMillis() {
+        return firstNanos / 1_000_000L;
+    }
+
+    long secondMillis() {
+        return secondNanos / 1_000_000L;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.model.ObjectStateSnapshot;
+
+/**
+ * State of a running simulation at the start of a tick: object state plus the
+ * metrics accumulated so far.
+ */
+public final class SimulationSnapshot {
+    public final int tick;
+    public final ObjectStateSnapshot objects;
+    private final MetricsComputer metrics;
+
+    public SimulationSnapshot(final int tick, final ObjectStateSnapshot objects, final MetricsComputer metrics) {
+        this.tick = tick;
+        this.objects = objects;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns a private copy of the metrics accumulators for one branch.
+     */
+    public MetricsComputer metrics() {
+        return metrics.copy();
+    }
+}
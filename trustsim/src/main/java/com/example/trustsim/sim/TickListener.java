@@ -0,0 +1,14 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.modules.RetentionDecisionController;
+
+/**
+ * Hook into {@link TickPipeline}: called once per evaluated object and once at the
+ * end of each tick. Implementations run on the tick thread and must be cheap.
+ */
+public interface TickListener {
+    void onDecision(int now, DataObject obj, double predictedRelevance, RetentionDecisionController.Decision decision);
+
+    void onTickEnd(int now);
+}
@@ -0,0 +1,447 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.ingest.EventFeed;
+import com.example.trustsim.logging.EvidenceLogger;
+import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.ml.RelevanceModel;
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.AccessEventBatch;
+import com.example.trustsim.model.Action;
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.MappedObjectStore;
+import com.example.trustsim.model.ObjectPopulation;
+import com.example.trustsim.model.ObjectStateSnapshot;
+import com.example.trustsim.model.Tier;
+import com.example.trustsim.modules.CampaignDetector;
+import com.example.trustsim.modules.DataAccessMonitoringModule;
+import com.example.trustsim.modules.RetentionActionQueue;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.modules.RiskAnalyzer;
+import com.example.trustsim.modules.TrustDecayEngine;
+import com.example.trustsim.profiling.Stage;
+import com.example.trustsim.profiling.StageTimer;
+import com.example.trustsim.workload.PipelinedWorkload;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One evaluation tick of the retention pipeline: ingest the tick's access events,
+ * then run risk, trust, ML and decision for every object and log the outcome.
+ *
+ * Shared by the CloudSim controller entity and by what-if branches, which drive
+ * it from a plain loop.
+ */
+public final class TickPipeline {
+    private final List<DataObject> objects;
+    private final List<AccessEvent>[] accessEventsByTime;
+
+    private final DataAccessMonitoringModule monitoring;
+    private final RiskAnalyzer riskAnalyzer;
+    private final TrustDecayEngine trustEngine;
+    private final RelevanceModel ml;
+    private final RetentionDecisionController decisionController;
+    private final EvidenceLogger logger;
+    private final MetricsComputer metrics;
+
+    private TickListener[] listeners = new TickListener[0];
+    private StageTimer timer = StageTimer.DISABLED;
+    private RetentionActionQueue actionQueue;
+    private AdaptiveCadence cadence;
+    private EventFeed eventFeed;
+    private AccessEventBatch[] eventBatches;
+    private PipelinedWorkload pipelinedEvents;
+    private MappedObjectStore stateStore;
+    private CampaignDetector campaigns;
+    private ObjectPopulation population;
+    private ObjectPopulation.Factory factory;
+    private int createPerTick;
+    private long deletedSeen;
+
+    public TickPipeline(
+        final List<DataObject> objects,
+        final List<AccessEvent>[] accessEventsByTime,
+        final DataAccessMonitoringModule monitoring,
+        final RiskAnalyzer riskAnalyzer,
+        final TrustDecayEngine trustEngine,
+        final RelevanceModel ml,
+        final RetentionDecisionController decisionController,
+        final EvidenceLogger logger,
+        final MetricsComputer metrics
+    ) {
+        this.objects = objects;
+        this.accessEventsByTime = accessEventsByTime;
+        this.monitoring = monitoring;
+        this.riskAnalyzer = riskAnalyzer;
+        this.trustEngine = trustEngine;
+        this.ml = ml;
+        this.decisionController = decisionController;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    public void addListener(final TickListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void setStageTimer(final StageTimer timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Routes decisions through {@code queue} instead of applying them inline; queued
+     * actions execute in batches at the end of each tick.
+     */
+    public void setActionQueue(final RetentionActionQueue queue) {
+        if (stateStore != null) throw new IllegalStateException("Queued actions need resident objects");
+        this.actionQueue = queue;
+    }
+
+    /**
+     * Keeps object state in {@code store}: the pipeline's object list must be
+     * {@link MappedObjectStore#asList()}. Access events update records in place; objects
+     * are loaded for evaluation (and adaptive catch-up) and written back after it. The
+     * store is checkpointed every 10 ticks.
+     */
+    public void setStateStore(final MappedObjectStore store) {
+        if (actionQueue != null) throw new IllegalStateException("Queued actions need resident objects");
+        if (population != null) throw new IllegalStateException("A churning population needs resident objects");
+        if (store.size() != objects.size()) throw new IllegalArgumentException("Store does not hold this population");
+        this.stateStore = store;
+    }
+
+    /**
+     * Evaluates objects on the schedule kept by {@code cadence} instead of every tick.
+     * Deleted objects are no longer evaluated or logged.
+     */
+    public void setAdaptiveCadence(final AdaptiveCadence cadence) {
+        if (population != null) throw new IllegalStateException("Adaptive cadence needs a fixed population");
+        if (campaigns != null) throw new IllegalStateException("Adaptive cadence needs campaign detection off");
+        this.cadence = cadence;
+    }
+
+    /**
+     * Evaluates the live objects of {@code population} instead of the object list, which
+     * must be the population's initial objects. Objects deleted during a tick are dropped
+     * after it, so they are no longer evaluated or logged and later events for them are
+     * ignored. Each tick first creates up to {@code perTick} objects through {@code factory}
+     * (null for none), registered with the metrics.
+     */
+    public void setPopulation(final ObjectPopulation population, final ObjectPopulation.Factory factory, final int perTick) {
+        if (cadence != null) throw new IllegalStateException("Adaptive cadence needs a fixed population");
+        if (stateStore != null) throw new IllegalStateException("A churning population needs resident objects");
+        this.population = population;
+        this.factory = factory;
+        this.createPerTick = factory == null ? 0 : perTick;
+        this.deletedSeen = metrics.aggregates().tierCount(Tier.DELETED);
+    }
+
+    /**
+     * Advances {@code detector} around each tick's events; the detector itself is fed by
+     * the monitoring module and read by the risk analyzer. Not with an adaptive cadence:
+     * campaign scores change risk on ticks without accesses, which catch-up does not replay.
+     */
+    public void setCampaignDetector(final CampaignDetector detector) {
+        if (cadence != null) throw new IllegalStateException("Adaptive cadence needs campaign detection off");
+        this.campaigns = detector;
+    }
+
+    /**
+     * Takes access events from packed per-tick batches instead of the object lists.
+     */
+    public void setEventBatches(final AccessEventBatch[] batches) {
+        this.eventBatches = batches;
+    }
+
+    /**
+     * Takes access events from {@code workload} as its producer generates them, instead
+     * of from the pre-generated lists.
+     */
+    public void setPipelinedWorkload(final PipelinedWorkload workload) {
+        this.pipelinedEvents = workload;
+    }
+
+    /**
+     * Takes access events from {@code feed} instead of the pre-generated per-tick lists.
+     */
+    public void setEventFeed(final EventFeed feed) {
+        this.eventFeed = feed;
+    }
+
+    public void tick(final int now) throws IOException {
+        if (cadence != null) {
+            tickAdaptive(now);
+            return;
+        }
+        final TickListener[] listeners = this.listeners;
+        final StageTimer timer = this.timer;
+        final RetentionActionQueue actionQueue = this.actionQueue;
+        final boolean timed = timer.beginTick(now);
+        long t = timed ? System.nanoTime() : 0L;
+
+        final ObjectPopulation population = this.population;
+        if (population != null) {
+            for (int k = 0; k < createPerTick; k++) {
+                final DataObject obj = population.create(factory, now);
+                if (obj == null) break;
+                metrics.onObjectCreated(obj);
+            }
+        }
+
+        // Process access events scheduled for this time.
+        final int eventCount = ingest(now, false);
+        if (timed) t = timer.lap(Stage.MONITORING, t, eventCount);
+
+        // Evaluate each object once per tick.
+        if (population != null) {
+            final int n = population.liveCount();
+            for (int i = 0; i < n; i++) {
+                t = evaluate(population.live(i), now, listeners, actionQueue, timer, timed, t);
+            }
+        } else {
+            for (final DataObject obj : objects) {
+                t = evaluate(obj, now, listeners, actionQueue, timer, timed, t);
+                writeBack(obj);
+            }
+        }
+
+        endTick(now, listeners, actionQueue, timer, timed, t, eventCount);
+    }
+
+    /**
+     * Adaptive tick: only objects the {@link AdaptiveCadence} has due (or that were accessed
+     * this tick) are evaluated, each first caught up on the ticks it skipped.
+     */
+    private void tickAdaptive(final int now) throws IOException {
+        final TickListener[] listeners = this.listeners;
+        final StageTimer timer = this.timer;
+        final RetentionActionQueue actionQueue = this.actionQueue;
+        final AdaptiveCadence cadence = this.cadence;
+        final boolean timed = timer.beginTick(now);
+        long t = timed ? System.nanoTime() : 0L;
+
+        cadence.begin(now, objects);
+
+        final int eventCount = ingest(now, true);
+        if (timed) t = timer.lap(Stage.MONITORING, t, eventCount);
+
+        final int due = cadence.collectDue(now);
+        final int[] ids = cadence.dueIds();
+        for (int i = 0; i < due; i++) {
+            final DataObject obj = objects.get(ids[i]);
+            if (obj.isDeleted()) continue;
+            catchUp(obj, now - 1);
+            if (timed) t = timer.lap(Stage.TRUST, t, 0);
+            t = evaluate(obj, now, listeners, actionQueue, timer, timed, t);
+            writeBack(obj);
+        }
+
+        endTick(now, listeners, actionQueue, timer, timed, t, eventCount);
+    }
+
+    /**
+     * Applies the access events of tick {@code now} from whichever source is configured
+     * and returns how many there were.
+     */
+    private int ingest(final int now, final boolean adaptive) {
+        if (campaigns == null) return applyEvents(now, adaptive);
+        campaigns.advance(now);
+        final int n = applyEvents(now, adaptive);
+        campaigns.ingested(now);
+        return n;
+    }
+
+    private int applyEvents(final int now, final boolean adaptive) {
+        if (eventFeed != null) {
+            // onAccess only touches the accessed object, so feeds may apply events in parallel;
+            // adaptive catch-up and rescheduling touch shared state, so that merges on this thread
+            return adaptive
+                ? eventFeed.mergeThrough(now, this::onAccessAdaptive, false)
+                : eventFeed.mergeThrough(now, this::onAccess, true);
+        }
+        if (eventBatches != null || pipelinedEvents != null) {
+            final AccessEventBatch batch = pipelinedEvents != null
+                ? pipelinedEvents.take(now)
+                : (now >= 0 && now < eventBatches.length) ? eventBatches[now] : null;
+            if (batch == null) return 0;
+            final int n = batch.size();
+            for (int i = 0; i < n; i++) {
+                final long p = batch.get(i);
+                if (stateStore != null && !adaptive) {
+                    final int id = AccessEventBatch.dataId(p);
+                    if (id >= 0 && id < objects.size()) {
+                        monitoring.onAccess(stateStore, id, batch.time, AccessEventBatch.role(p), AccessEventBatch.requestScore(p));
+                    }
+                    continue;
+                }
+                final DataObject obj = lookup(AccessEventBatch.dataId(p));
+                if (obj == null) continue;
+                if (adaptive) beforeAccess(obj, batch.time);
+                monitoring.onAccess(obj, batch.time, p);
+                if (adaptive) afterAccess(obj, batch.time);
+                writeBack(obj);
+            }
+            return n;
+        }
+        final List<AccessEvent> events = (now >= 0 && now < accessEventsByTime.length) ? accessEventsByTime[now] : null;
+        if (events == null) return 0;
+        for (final AccessEvent e : events) {
+            if (adaptive) onAccessAdaptive(e);
+            else onAccess(e);
+        }
+        return events.size();
+    }
+
+    private DataObject lookup(final int id) {
+        if (population != null) return population.get(id);
+        return id >= 0 && id < objects.size() ? objects.get(id) : null;
+    }
+
+    private void onAccess(final AccessEvent e) {
+        if (stateStore != null) {
+            if (e.dataId >= 0 && e.dataId < objects.size()) monitoring.onAccess(stateStore, e.dataId, e.time, e.role, e.requestScore);
+            return;
+        }
+        final DataObject obj = lookup(e.dataId);
+        if (obj == null) return;
+        monitoring.onAccess(obj, e);
+        writeBack(obj);
+    }
+
+    private void onAccessAdaptive(final AccessEvent e) {
+        if (e.dataId < 0 || e.dataId >= objects.size()) return;
+        final DataObject obj = objects.get(e.dataId);
+        beforeAccess(obj, e.time);
+        monitoring.onAccess(obj, e);
+        afterAccess(obj, e.time);
+        writeBack(obj);
+    }
+
+    private void writeBack(final DataObject obj) {
+        if (stateStore != null) stateStore.store(obj);
+    }
+
+    private void beforeAccess(final DataObject obj, final int time) {
+        // skipped ticks must see the access window as it was before this event
+        if (!obj.isDeleted()) catchUp(obj, time - 1);
+    }
+
+    private void afterAccess(final DataObject obj, final int time) {
+        if (!obj.isDeleted()) cadence.pullForward(obj.id, time);
+    }
+
+    /**
+     * Replays the risk and trust updates {@code obj} would have had on the ticks after its
+     * last evaluation up to {@code through}. Nothing but time changes its inputs there.
+     */
+    private void catchUp(final DataObject obj, final int through) {
+        final int from = cadence.evaluatedThrough(obj.id) + 1;
+        if (from > through) return;
+        // without accesses risk only moves while a burst ages out; once none is active it is fixed
+        boolean riskSettled = false;
+        for (int s = from; s <= through; s++) {
+            if (!riskSettled) {
+                riskAnalyzer.updateRisk(obj, s);
+                riskSettled = !obj.accessStats.burstDetected(s);
+            }
+            trustEngine.updateTrust(obj, s);
+            if (obj.updateTrustConvergence(s)) metrics.aggregates().onTrustConverged(obj);
+        }
+        cadence.caughtUp(obj.id, through, through - from + 1);
+    }
+
+    private long evaluate(
+        final DataObject obj,
+        final int now,
+        final TickListener[] listeners,
+        final RetentionActionQueue actionQueue,
+        final StageTimer timer,
+        final boolean timed,
+        long t
+    ) throws IOException {
+        double predicted = 0.0;
+        RetentionDecisionController.Decision d;
+        if (timed && timer.sampled(obj.id)) timer.beginObject();
+
+        if (!obj.isDeleted()) {
+            riskAnalyzer.updateRisk(obj, now);
+            if (timed) t = timer.lap(Stage.RISK, t);
+            trustEngine.updateTrust(obj, now);
+            if (obj.updateTrustConvergence(now)) metrics.aggregates().onTrustConverged(obj);
+            if (timed) t = timer.lap(Stage.TRUST, t);
+            predicted = ml.predict(obj);
+            if (timed) t = timer.lap(Stage.ML, t);
+            final double risk = obj.riskStats.risk;
+            if (actionQueue == null) {
+                d = decisionController.decide(obj, predicted, now);
+            } else {
+                d = decisionController.evaluate(obj, predicted, now);
+                actionQueue.offer(obj, d, now);
+            }
+            if (cadence != null) cadence.evaluated(obj, risk, predicted, now);
+        } else {
+            d = decisionController.decide(obj, 0.0, now);
+        }
+        if (timed) t = timer.lap(Stage.DECISION, t);
+
+        final Action action = d.action;
+        logger.logTick(now, obj, predicted, action, d.reasonCode);
+        if (timed) t = timer.lap(Stage.AUDIT, t);
+
+        for (final TickListener l : listeners) l.onDecision(now, obj, predicted, d);
+        if (timed) {
+            t = timer.lap(Stage.METRICS, t);
+            if (timer.sampled(obj.id)) timer.commitObject(now, obj.id, action);
+        }
+        return t;
+    }
+
+    private void endTick(
+        final int now,
+        final TickListener[] listeners,
+        final RetentionActionQueue actionQueue,
+        final StageTimer timer,
+        final boolean timed,
+        long t,
+        final int eventCount
+    ) throws IOException {
+        if (actionQueue != null) {
+            actionQueue.drain(now);
+            if (timed) t = timer.lap(Stage.DECISION, t, 0);
+        }
+
+        metrics.onTickAfterDecision();
+        for (final TickListener l : listeners) l.onTickEnd(now);
+        if (population != null) {
+            // deletions are rare per tick: skip the pass unless some happened
+            final long deleted = metrics.aggregates().tierCount(Tier.DELETED);
+            if (deleted != deletedSeen) population.compact();
+            deletedSeen = deleted;
+        }
+        if (timed) t = timer.lap(Stage.METRICS, t);
+
+        if (now % 10 == 0) {
+            logger.flush();
+            if (stateStore != null) stateStore.checkpoint(now);
+        }
+        if (timed) {
+            timer.lap(Stage.AUDIT, t, 0);
+            timer.endTick(now, population != null ? population.liveCount() : objects.size(), eventCount);
+        }
+    }
+
+    /**
+     * Captures the state a branch needs to continue from {@code now}; call before
+     * {@link #tick(int)} for that time.
+     */
+    public SimulationSnapshot snapshot(final int now) {
+        if (population != null) throw new IllegalStateException("Snapshots need a fixed population");
+        return new SimulationSnapshot(now, ObjectStateSnapshot.capture(objects), metrics.copy());
+    }
+
+    public void close() throws IOException {
+        logger.close();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.trustsim.sim;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of object ids keyed by due tick.
+ *
+ * Three levels of 64 slots cover 1, 64 and 4096 ticks per slot. Entries live in
+ * intrusive doubly-linked lists indexed by id, so scheduling, rescheduling and
+ * cancelling are O(1); a higher-level slot is cascaded down when the wheel reaches it.
+ * At most one entry per id.
+ */
+final class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 3;
+    /** Furthest a due tick may lie ahead of the wheel; later ticks are clamped. */
+    static final int MAX_DELAY = ((SLOTS - 1) << (BITS * (LEVELS - 1))) - 1;
+
+    private final int[] head = new int[LEVELS * SLOTS];
+    private final int[] next;
+    private final int[] prev;
+    private final int[] slotOf;
+    private final int[] dueAt;
+
+    private int current;
+    private int size;
+
+    /**
+     * @param firstTick the first tick {@link #advance(int, int[])} will be called for
+     */
+    TimingWheel(final int capacity, final int firstTick) {
+        Arrays.fill(head, -1);
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.slotOf = new int[capacity];
+        this.dueAt = new int[capacity];
+        Arrays.fill(dueAt, -1);
+        this.current = firstTick - 1;
+    }
+
+    /**
+     * Schedules (or moves) {@code id} to {@code at}, no earlier than the next unprocessed tick.
+     */
+    void schedule(final int id, final int at) {
+        if (dueAt[id] >= 0) {
+            unlink(id);
+        } else {
+            size++;
+        }
+        final int due = Math.min(Math.max(at, current + 1), current + MAX_DELAY);
+        dueAt[id] = due;
+        link(id, due);
+    }
+
+    void cancel(final int id) {
+        if (dueAt[id] < 0) return;
+        unlink(id);
+        dueAt[id] = -1;
+        size--;
+    }
+
+    /** Due tick of {@code id}, or -1 when it is not scheduled. */
+    int dueAt(final int id) {
+        return dueAt[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Moves the wheel to {@code now} and removes every entry due at or before it into
+     * {@code out}, which must hold {@link #size()} ids. Returns the number removed.
+     */
+    int advance(final int now, final int[] out) {
+        int n = 0;
+        while (current < now) {
+            final int t = ++current;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((t & ((1 << (BITS * level)) - 1)) == 0) cascade(level * SLOTS + ((t >>> (BITS * level)) & MASK));
+            }
+            final int slot = t & MASK;
+            int id = head[slot];
+            head[slot] = -1;
+            while (id >= 0) {
+                final int following = next[id];
+                dueAt[id] = -1;
+                size--;
+                out[n++] = id;
+                id = following;
+            }
+        }
+        return n;
+    }
+
+    private void cascade(final int slot) {
+        int id = head[slot];
+        head[slot] = -1;
+        while (id >= 0) {
+            final int following = next[id];
+            link(id, dueAt[id]);
+            id = following;
+        }
+    }
+
+    private void link(final int id, final int due) {
+        int level = 0;
+        while (level < LEVELS - 1 && (due >>> (BITS * level)) - (current >>> (BITS * level)) >= SLOTS) level++;
+        final int slot = level * SLOTS + ((due >>> (BITS * level)) & MASK);
+        final int first = head[slot];
+        next[id] = first;
+        prev[id] = -1;
+        if (first >= 0) prev[first] = id;
+        head[slot] = id;
+        slotOf[id] = slot;
+    }
+
+    private void unlink(final int id) {
+        final int p = prev[id];
+        final int nx = next[id];
+        if (p >= 0) next[p] = nx;
+        else head[slotOf[id]] = nx;
+        if (nx >= 0) prev[nx] = p;
+    }
+}
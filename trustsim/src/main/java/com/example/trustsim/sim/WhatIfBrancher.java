@@ -0,0 +1,131 @@
+package com.example.trustsim.sim;
+
+import com.example.trustsim.Config;
+import com.example.trustsim.logging.EvidenceLogger;
+import com.example.trustsim.metrics.MetricsComputer;
+import com.example.trustsim.ml.RelevanceModel;
+import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.ObjectStateSnapshot;
+import com.example.trustsim.modules.DataAccessMonitoringModule;
+import com.example.trustsim.modules.RetentionDecisionController;
+import com.example.trustsim.modules.RiskAnalyzer;
+import com.example.trustsim.modules.TrustDecayEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Continues a {@link SimulationSnapshot} under several decision-threshold variants
+ * at once, one branch per worker thread.
+ *
+ * Each branch runs the remaining ticks over a copy-on-write population backed by the
+ * shared snapshot ({@link ObjectStateSnapshot.Branch}) through a private
+ * {@link TickPipeline}; the trained ML model and the pre-generated events are
+ * read-only and shared. Branches do not write audit rows, and run without a campaign
+ * detector, action queue or storage backend.
+ */
+public final class WhatIfBrancher {
+    private final int duration;
+    private final List<AccessEvent>[] accessEventsByTime;
+    private final RelevanceModel ml;
+    private final double requestScoreThreshold;
+
+    public WhatIfBrancher(
+        final int duration,
+        final List<AccessEvent>[] accessEventsByTime,
+        final RelevanceModel ml,
+        final double requestScoreThreshold
+    ) {
+        this.duration = duration;
+        this.accessEventsByTime = accessEventsByTime;
+        this.ml = ml;
+        this.requestScoreThreshold = requestScoreThreshold;
+    }
+
+    public List<BranchResult> run(
+        final SimulationSnapshot snapshot,
+        final List<RetentionDecisionController.Thresholds> variants
+    ) {
+        final int threads = Math.max(1, Math.min(variants.size(), Runtime.getRuntime().availableProcessors()));
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<BranchResult>> futures = new ArrayList<>(variants.size());
+            for (final RetentionDecisionController.Thresholds t : variants) {
+                futures.add(pool.submit(() -> runBranch(snapshot, t)));
+            }
+            final List<BranchResult> results = new ArrayList<>(variants.size());
+            for (final Future<BranchResult> f : futures) {
+                results.add(f.get());
+            }
+            return results;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running what-if branches", e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException("What-if branch failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private BranchResult runBranch(
+        final SimulationSnapshot snapshot,
+        final RetentionDecisionController.Thresholds thresholds
+    ) throws Exception {
+        final long start = System.nanoTime();
+        final ObjectStateSnapshot.Branch objects = snapshot.objects.branch();
+        final MetricsComputer metrics = snapshot.metrics();
+
+        final TickPipeline pipeline = new TickPipeline(
+            objects,
+            accessEventsByTime,
+            new DataAccessMonitoringModule(requestScoreThreshold),
+            new RiskAnalyzer(metrics.aggregates()),
+            new TrustDecayEngine(),
+            ml,
+            new RetentionDecisionController(thresholds, metrics.aggregates()),
+            EvidenceLogger.discarding(objects.size()),
+            metrics
+        );
+
+        for (int now = snapshot.tick; now < duration; now += Config.TICK_INTERVAL) {
+            pipeline.tick(now);
+        }
+        pipeline.close();
+
+        return new BranchResult(
+            thresholds, metrics.summarize(), objects.copied(), objects.size(), (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    public static final class BranchResult {
+        public final RetentionDecisionController.Thresholds thresholds;
+        public final MetricsComputer.Summary summary;
+        public final int copiedObjects;
+        public final int objects;
+        public final long wallMillis;
+
+        public BranchResult(
+            final RetentionDecisionController.Thresholds thresholds,
+            final MetricsComputer.Summary summary,
+            final int copiedObjects,
+            final int objects,
+            final long wallMillis
+        ) {
+            this.thresholds = thresholds;
+            this.summary = summary;
+            this.copiedObjects = copiedObjects;
+            this.objects = objects;
+            this.wallMillis = wallMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "What-if branch [" + thresholds + "] (" + wallMillis + " ms, " + copiedObjects + " of " + objects
+                + " objects copied)\n" + summary;
+        }
+    }
+}
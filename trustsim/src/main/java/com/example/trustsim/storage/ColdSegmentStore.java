@@ -0,0 +1,238 @@
+package com.example.trustsim.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only segment files of compressed payloads on local disk.
+ *
+ * Each record is {@code int id, int length, byte[length]}. Removing a record only
+ * drops it from the index; once a sealed segment's live bytes fall below
+ * {@code compactThreshold} of its size, its live records are copied to the active
+ * segment and the file is deleted.
+ */
+final class ColdSegmentStore implements Closeable {
+    private static final int HEADER = 8;
+
+    private static final class Segment {
+        final int no;
+        final Path path;
+        final FileChannel channel;
+        long size;
+        long liveBytes;
+
+        Segment(final int no, final Path path, final FileChannel channel) {
+            this.no = no;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final double compactThreshold;
+    private final List<Segment> segments = new ArrayList<>();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER);
+    private Segment active;
+    private int nextSegmentNo;
+
+    // index by object id; segmentOf == -1 when not stored
+    private int[] segmentOf;
+    private long[] offsetOf;
+    private int[] lengthOf;
+
+    private long liveBytes;
+    private long compactedBytes;
+    private long compactions;
+
+    ColdSegmentStore(final Path dir, final long segmentBytes, final double compactThreshold, final int expectedObjects)
+        throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.segmentBytes = segmentBytes;
+        this.compactThreshold = compactThreshold;
+        final int n = Math.max(1, expectedObjects);
+        this.segmentOf = new int[n];
+        this.offsetOf = new long[n];
+        this.lengthOf = new int[n];
+        Arrays.fill(segmentOf, -1);
+        this.active = openSegment();
+    }
+
+    boolean contains(final int id) {
+        return id < segmentOf.length && segmentOf[id] >= 0;
+    }
+
+    /**
+     * Appends a record and returns the bytes written to disk (header included).
+     */
+    long append(final int id, final byte[] data, final int length) throws IOException {
+        if (contains(id)) remove(id);
+        ensureIndex(id);
+        if (active.size > 0 && active.size + HEADER + length > segmentBytes) {
+            active = openSegment();
+        }
+        final long offset = active.size;
+        header.clear();
+        header.putInt(id).putInt(length).flip();
+        writeFully(active.channel, header, offset);
+        writeFully(active.channel, ByteBuffer.wrap(data, 0, length), offset + HEADER);
+
+        active.size += HEADER + length;
+        active.liveBytes += length;
+        liveBytes += length;
+        segmentOf[id] = active.no;
+        offsetOf[id] = offset;
+        lengthOf[id] = length;
+        return HEADER + length;
+    }
+
+    /**
+     * Reads the stored bytes of {@code id} into {@code dst} and returns their length.
+     */
+    int read(final int id, final byte[] dst) throws IOException {
+        final Segment s = segment(segmentOf[id]);
+        final int length = lengthOf[id];
+        readFully(s.channel, ByteBuffer.wrap(dst, 0, length), offsetOf[id] + HEADER);
+        return length;
+    }
+
+    int length(final int id) {
+        return lengthOf[id];
+    }
+
+    /**
+     * Drops {@code id} from the index and compacts its segment if it became sparse.
+     * Returns the bytes moved by compaction.
+     */
+    long remove(final int id) throws IOException {
+        final Segment s = segment(segmentOf[id]);
+        s.liveBytes -= lengthOf[id];
+        liveBytes -= lengthOf[id];
+        segmentOf[id] = -1;
+        if (s != active && s.liveBytes < s.size * compactThreshold) {
+            return compact(s);
+        }
+        return 0L;
+    }
+
+    private long compact(final Segment s) throws IOException {
+        final ByteBuffer whole = ByteBuffer.allocate((int) s.size);
+        readFully(s.channel, whole, 0);
+        whole.flip();
+
+        long moved = 0;
+        byte[] data = new byte[1024];
+        while (whole.remaining() >= HEADER) {
+            final long offset = whole.position();
+            final int id = whole.getInt();
+            final int length = whole.getInt();
+            if (id < segmentOf.length && segmentOf[id] == s.no && offsetOf[id] == offset) {
+                if (data.length < length) data = new byte[length];
+                whole.get(data, 0, length);
+                // the old copy is about to disappear with the file
+                s.liveBytes -= length;
+                liveBytes -= length;
+                segmentOf[id] = -1;
+                moved += append(id, data, length);
+            } else {
+                whole.position(whole.position() + length);
+            }
+        }
+
+        segments.remove(s);
+        s.channel.close();
+        Files.deleteIfExists(s.path);
+        compactions++;
+        compactedBytes += moved;
+        return moved;
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    long fileBytes() {
+        long total = 0;
+        for (final Segment s : segments) total += s.size;
+        return total;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    long compactions() {
+        return compactions;
+    }
+
+    long compactedBytes() {
+        return compactedBytes;
+    }
+
+    private Segment openSegment() throws IOException {
+        final int no = nextSegmentNo++;
+        final Path path = dir.resolve(String.format("segment-%06d.dat", no));
+        final FileChannel ch = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final Segment s = new Segment(no, path, ch);
+        segments.add(s);
+        return s;
+    }
+
+    private Segment segment(final int no) {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            final Segment s = segments.get(i);
+            if (s.no == no) return s;
+        }
+        throw new IllegalStateException("Unknown segment " + no);
+    }
+
+    private void ensureIndex(final int id) {
+        if (id < segmentOf.length) return;
+        final int old = segmentOf.length;
+        final int n = Math.max(id + 1, old * 2);
+        segmentOf = Arrays.copyOf(segmentOf, n);
+        offsetOf = Arrays.copyOf(offsetOf, n);
+        lengthOf = Arrays.copyOf(lengthOf, n);
+        Arrays.fill(segmentOf, old, n, -1);
+    }
+
+    private static void writeFully(final FileChannel ch, final ByteBuffer src, long position) throws IOException {
+        while (src.hasRemaining()) position += ch.write(src, position);
+    }
+
+    private static void readFully(final FileChannel ch, final ByteBuffer dst, long position) throws IOException {
+        while (dst.hasRemaining()) {
+            final int n = ch.read(dst, position);
+            if (n < 0) throw new IOException("Unexpected end of segment");
+            position += n;
+        }
+    }
+
+    /**
+     * Closes and deletes every segment file.
+     */
+    @Override
+    public void close() throws IOException {
+        for (final Segment s : segments) {
+            s.channel.close();
+            Files.deleteIfExists(s.path);
+        }
+        segments.clear();
+        try {
+            Files.deleteIfExists(dir);
+        } catch (final DirectoryNotEmptyException e) {
+            // directory holds files we did not create; leave it
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.trustsim.storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size payload slots in direct (off-heap) slabs, with a free list so released
+ * slots are reused before a new slab is allocated.
+ */
+final class OffHeapArena {
+    private static final int MAX_SLAB_BYTES = 1 << 30;
+
+    private final int slotSize;
+    private final int slotsPerSlab;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+
+    private int[] slotById;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int nextSlot;
+    private long usedSlots;
+
+    OffHeapArena(final int slotSize, final int expectedObjects) {
+        this.slotSize = slotSize;
+        this.slotsPerSlab = Math.max(1, Math.min(MAX_SLAB_BYTES / slotSize, Math.max(1, expectedObjects)));
+        this.slotById = new int[Math.max(1, expectedObjects)];
+        Arrays.fill(slotById, -1);
+    }
+
+    boolean contains(final int id) {
+        return id < slotById.length && slotById[id] >= 0;
+    }
+
+    void write(final int id, final byte[] src) {
+        int slot = id < slotById.length ? slotById[id] : -1;
+        if (slot < 0) slot = allocate(id);
+        slab(slot).put(offset(slot), src, 0, slotSize);
+    }
+
+    void read(final int id, final byte[] dst) {
+        final int slot = slotById[id];
+        slab(slot).get(offset(slot), dst, 0, slotSize);
+    }
+
+    void release(final int id) {
+        final int slot = slotById[id];
+        if (slot < 0) return;
+        slotById[id] = -1;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        usedSlots--;
+    }
+
+    long usedBytes() {
+        return usedSlots * slotSize;
+    }
+
+    long reservedBytes() {
+        return ((long) slabs.size()) * slotsPerSlab * slotSize;
+    }
+
+    private int allocate(final int id) {
+        if (id >= slotById.length) {
+            final int old = slotById.length;
+            slotById = Arrays.copyOf(slotById, Math.max(id + 1, old * 2));
+            Arrays.fill(slotById, old, slotById.length, -1);
+        }
+        final int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = nextSlot++;
+            if (slot / slotsPerSlab >= slabs.size()) {
+                slabs.add(ByteBuffer.allocateDirect(slotsPerSlab * slotSize));
+            }
+        }
+        slotById[id] = slot;
+        usedSlots++;
+        return slot;
+    }
+
+    private ByteBuffer slab(final int slot) {
+        return slabs.get(slot / slotsPerSlab);
+    }
+
+    private int offset(final int slot) {
+        return (slot % slotsPerSlab) * slotSize;
+    }
+}
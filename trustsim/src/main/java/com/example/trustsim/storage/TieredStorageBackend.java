@@ -0,0 +1,223 @@
+package com.example.trustsim.storage;
+
+import com.example.trustsim.model.DataObject;
+import com.example.trustsim.model.StateChangeListener;
+import com.example.trustsim.model.Tier;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Gives every object a real payload and turns tier transitions into I/O.
+ *
+ * HOT payloads live in an {@link OffHeapArena}. Archiving deflates the payload and
+ * appends it to a {@link ColdSegmentStore} segment; promoting back to HOT reads and
+ * inflates it. Deleting releases the arena slot or drops the cold record, which lets
+ * segment compaction reclaim the disk space.
+ *
+ * Registered as a {@link StateChangeListener}, so it sees exactly the transitions the
+ * decision path makes. Single-threaded, like the tick loop.
+ */
+public final class TieredStorageBackend implements StateChangeListener, Closeable {
+    // transition kinds for stats
+    private static final int ARCHIVE = 0;
+    private static final int RESTORE = 1;
+    private static final int DELETE_HOT = 2;
+    private static final int DELETE_COLD = 3;
+    private static final String[] KIND_NAMES = {"HOT->COLD", "COLD->HOT", "HOT->DELETED", "COLD->DELETED"};
+
+    private final int payloadSize;
+    private final OffHeapArena hot;
+    private final ColdSegmentStore cold;
+
+    private final byte[] payload;
+    private final byte[] compressed;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Inflater inflater = new Inflater();
+
+    private Tier pendingFrom;
+
+    private long objects;
+    private final long[] ops = new long[KIND_NAMES.length];
+    private final long[] nanos = new long[KIND_NAMES.length];
+    private final long[] bytesMoved = new long[KIND_NAMES.length];
+
+    public TieredStorageBackend(
+        final int payloadSize,
+        final Path coldDir,
+        final long segmentBytes,
+        final double compactThreshold,
+        final int expectedObjects
+    ) throws IOException {
+        this.payloadSize = payloadSize;
+        this.hot = new OffHeapArena(payloadSize, expectedObjects);
+        this.cold = new ColdSegmentStore(coldDir, segmentBytes, compactThreshold, expectedObjects);
+        this.payload = new byte[payloadSize];
+        // deflate worst case: input + 5 bytes per 16 KiB block + header
+        this.compressed = new byte[payloadSize + payloadSize / 16_384 * 5 + 64];
+    }
+
+    /**
+     * Creates the initial payload of every object in its current tier.
+     */
+    public void materializeAll(final List<DataObject> objects) throws IOException {
+        for (final DataObject obj : objects) materialize(obj);
+    }
+
+    /**
+     * Creates the initial payload of one object in its current tier; objects created
+     * mid-run must pass through here before their first tier change.
+     */
+    public void materialize(final DataObject obj) throws IOException {
+        if (obj.tier == Tier.DELETED) return;
+        fillPayload(obj.id, payload);
+        if (obj.tier == Tier.HOT) {
+            hot.write(obj.id, payload);
+        } else {
+            cold.append(obj.id, compressed, deflate());
+        }
+        this.objects++;
+    }
+
+    @Override
+    public void beforeChange(final DataObject obj) {
+        pendingFrom = obj.tier;
+    }
+
+    @Override
+    public void afterChange(final DataObject obj) {
+        final Tier from = pendingFrom;
+        final Tier to = obj.tier;
+        if (from == to) return;
+        try {
+            transition(obj.id, from, to);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Storage transition " + from + "->" + to + " failed for object " + obj.id, e);
+        }
+    }
+
+    private void transition(final int id, final Tier from, final Tier to) throws IOException {
+        final long start = System.nanoTime();
+        final int kind;
+        long moved = 0;
+        if (from == Tier.HOT && to == Tier.COLD) {
+            kind = ARCHIVE;
+            hot.read(id, payload);
+            final int n = deflate();
+            moved = payloadSize + cold.append(id, compressed, n);
+            hot.release(id);
+        } else if (from == Tier.COLD && to == Tier.HOT) {
+            kind = RESTORE;
+            final int n = cold.read(id, compressed);
+            inflate(n);
+            hot.write(id, payload);
+            moved = n + payloadSize + cold.remove(id);
+        } else if (from == Tier.HOT && to == Tier.DELETED) {
+            kind = DELETE_HOT;
+            hot.release(id);
+            objects--;
+        } else if (from == Tier.COLD && to == Tier.DELETED) {
+            kind = DELETE_COLD;
+            moved = cold.remove(id);
+            objects--;
+        } else {
+            return;
+        }
+        ops[kind]++;
+        nanos[kind] += System.nanoTime() - start;
+        bytesMoved[kind] += moved;
+    }
+
+    private int deflate() {
+        deflater.reset();
+        deflater.setInput(payload, 0, payloadSize);
+        deflater.finish();
+        int n = 0;
+        while (!deflater.finished()) {
+            n += deflater.deflate(compressed, n, compressed.length - n);
+        }
+        return n;
+    }
+
+    private void inflate(final int length) throws IOException {
+        inflater.reset();
+        inflater.setInput(compressed, 0, length);
+        try {
+            int n = 0;
+            while (n < payloadSize && !inflater.finished()) {
+                n += inflater.inflate(payload, n, payloadSize - n);
+            }
+            if (n != payloadSize) throw new IOException("Short payload: " + n + " of " + payloadSize + " bytes");
+        } catch (final DataFormatException e) {
+            throw new IOException("Corrupt cold record", e);
+        }
+    }
+
+    /**
+     * Deterministic, moderately compressible payload (word-like runs from a small alphabet).
+     */
+    private static void fillPayload(final int id, final byte[] dst) {
+        final SplittableRandom r = new SplittableRandom(0x9E3779B97F4A7C15L * (id + 1));
+        int i = 0;
+        while (i < dst.length) {
+            final int word = 3 + r.nextInt(8);
+            final byte base = (byte) ('a' + r.nextInt(16));
+            for (int k = 0; k < word && i < dst.length; k++) dst[i++] = (byte) (base + (k & 3));
+            if (i < dst.length) dst[i++] = ' ';
+        }
+    }
+
+    /** Bytes of payload currently resident in the HOT arena. */
+    public long hotBytes() {
+        return hot.usedBytes();
+    }
+
+    /** Compressed bytes of live COLD payloads on disk. */
+    public long coldBytes() {
+        return cold.liveBytes();
+    }
+
+    /** Payload size of one object; the unit storage costs are normalized to. */
+    public int payloadSize() {
+        return payloadSize;
+    }
+
+    public String report() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Tiered Storage Report").append('\n');
+        sb.append(String.format(Locale.ROOT, " - Payload size: %d B, live objects: %d%n", payloadSize, objects));
+        sb.append(String.format(Locale.ROOT, " - HOT arena: %.2f MiB used / %.2f MiB reserved off-heap%n",
+            hot.usedBytes() / 1048576.0, hot.reservedBytes() / 1048576.0));
+        sb.append(String.format(Locale.ROOT, " - COLD segments: %d files, %.2f MiB on disk, %.2f MiB live%n",
+            cold.segmentCount(), cold.fileBytes() / 1048576.0, cold.liveBytes() / 1048576.0));
+        sb.append(String.format(Locale.ROOT, " - Compactions: %d, %.2f MiB rewritten%n",
+            cold.compactions(), cold.compactedBytes() / 1048576.0));
+        for (int k = 0; k < KIND_NAMES.length; k++) {
+            final double seconds = nanos[k] / 1e9;
+            sb.append(String.format(Locale.ROOT,
+                " - %-14s ops=%-9d moved=%9.2f MiB  avg latency=%8.2f us  throughput=%8.2f MiB/s%n",
+                KIND_NAMES[k], ops[k], bytesMoved[k] / 1048576.0,
+                ops[k] == 0 ? 0.0 : nanos[k] / 1e3 / ops[k],
+                seconds <= 0 ? 0.0 : bytesMoved[k] / 1048576.0 / seconds));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Releases compression state and deletes the cold segment files.
+     */
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        inflater.end();
+        cold.close();
+    }
+}
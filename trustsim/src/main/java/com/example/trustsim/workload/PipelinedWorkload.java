@@ -0,0 +1,131 @@
+package com.example.trustsim.workload;
+
+import com.example.trustsim.model.AccessEventBatch;
+
+import java.io.Closeable;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Runs a {@link WorkloadGenerator} on a producer thread while the simulation evaluates,
+ * handing finished ticks over a bounded queue of {@code lookahead} batches.
+ *
+ * The producer runs at most {@code lookahead} ticks ahead of the tick being evaluated
+ * (plus the two ticks attack bursts can still reach), so memory stays a few ticks of
+ * events. The generator is the same serial or splittable one as in the batch mode and
+ * batches arrive in tick order, so the events of every tick are exactly those
+ * {@link WorkloadGenerator#generateBatches()} would produce.
+ */
+public final class PipelinedWorkload implements Closeable {
+    private static final AccessEventBatch FAILED = new AccessEventBatch(-1, 1);
+
+    private final WorkloadGenerator generator;
+    private final int duration;
+    private final int lookahead;
+    private final BlockingQueue<AccessEventBatch> queue;
+    private final Thread producer;
+    private volatile RuntimeException failure;
+
+    // consumer side
+    private AccessEventBatch next;
+    private int lastTime = -1;
+    private long waitNanos;
+    private long events;
+
+    // producer side, read after the producer is done
+    private volatile long startNanos;
+    private volatile long firstReadyNanos = -1;
+    private volatile long producerNanos;
+    private volatile long blockedNanos;
+
+    public PipelinedWorkload(final WorkloadGenerator generator, final int duration, final int lookahead) {
+        this.generator = generator;
+        this.duration = duration;
+        this.lookahead = Math.max(1, lookahead);
+        this.queue = new ArrayBlockingQueue<>(this.lookahead);
+        this.producer = new Thread(this::produce, "trustsim-workload-producer");
+        producer.setDaemon(true);
+    }
+
+    public void start() {
+        startNanos = System.nanoTime();
+        producer.start();
+    }
+
+    private void produce() {
+        try {
+            generator.generateTicks(batch -> {
+                if (firstReadyNanos < 0) firstReadyNanos = System.nanoTime() - startNanos;
+                final long t = System.nanoTime();
+                try {
+                    queue.put(batch);
+                } catch (final InterruptedException e) {
+                    throw new Stopped();
+                }
+                blockedNanos += System.nanoTime() - t;
+            });
+        } catch (final Stopped e) {
+            return; // closed before the workload was consumed
+        } catch (final RuntimeException e) {
+            failure = e;
+            try {
+                queue.put(FAILED);
+            } catch (final InterruptedException ignored) {
+                // simulation already stopped
+            }
+        } finally {
+            producerNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    /** Unwinds the generator when the producer is interrupted. */
+    private static final class Stopped extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Stopped() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * The events of tick {@code now}, waiting for the producer if needed; null if the tick
+     * has none. Ticks must be asked for in increasing order; ticks skipped over are dropped.
+     */
+    public AccessEventBatch take(final int now) {
+        try {
+            while (next == null || next.time < now) {
+                if (lastTime >= duration) return null;
+                final long t = System.nanoTime();
+                final AccessEventBatch b = queue.take();
+                waitNanos += System.nanoTime() - t;
+                if (b == FAILED) throw new IllegalStateException("Workload producer failed", failure);
+                next = b;
+                lastTime = b.time;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the workload", e);
+        }
+        if (next.time != now) return null;
+        final AccessEventBatch b = next;
+        next = null;
+        events += b.size();
+        return b;
+    }
+
+    public String report() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Pipelined Workload").append('\n');
+        sb.append(String.format(Locale.ROOT, " - Lookahead: %d ticks, %d events taken%n", lookahead, events));
+        sb.append(String.format(Locale.ROOT, " - First tick ready after %.1f ms; producer ran %.1f ms, %.1f ms of it blocked on a full queue%n",
+            firstReadyNanos / 1e6, producerNanos / 1e6, blockedNanos / 1e6));
+        sb.append(String.format(Locale.ROOT, " - Evaluation waited %.1f ms for events%n", waitNanos / 1e6));
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        producer.interrupt();
+    }
+}
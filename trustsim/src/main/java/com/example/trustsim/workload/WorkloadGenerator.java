@@ -2,13 +2,23 @@ package com.example.trustsim.workload;
 
 import com.example.trustsim.Config;
 import com.example.trustsim.model.AccessEvent;
+import com.example.trustsim.model.AccessEventBatch;
 import com.example.trustsim.model.DataObject;
 import com.example.trustsim.model.Role;
 import com.example.trustsim.model.Sensitivity;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
 
 /**
  * Generates access events across simulation time.
@@ -17,118 +27,333 @@ import java.util.Random;
  * - 25% WARM: periodic
  * - 60% COLD: rare
  * - Attack bursts: every ~30 time units pick some sensitive objects and generate suspicious burst events
+ * - Thin campaigns (optional): every 45 time units one suspicious access each on 1/12 of the
+ *   sensitive objects, spread over 3 ticks; drawn from a separate RNG so the rest is unchanged
+ *
+ * By default all events come from one {@link Random} in tick, then object order, so
+ * generation is serial. A {@link #splittable} generator instead draws each object's events
+ * for each block of {@code blockTicks} ticks from its own {@link SplittableRandom}, seeded
+ * by hashing (master seed, object id, block), and each tick's attack bursts from a stream
+ * keyed by the tick. Object ranges are then generated in parallel and merged per tick in
+ * id order, so the output depends on the seed and block size but not on the thread count.
+ * The two modes produce different (equally distributed) workloads.
+ *
+ * Object attributes are read once, at construction, so generation may run on another
+ * thread while the simulation mutates the objects (see {@link #generateTicks}).
  */
 public final class WorkloadGenerator {
     public enum Profile { HOT, WARM, COLD }
 
     private final Random rnd;
     private final int duration;
-    private final List<DataObject> objects;
+    private final DataObject[] objects;
+    private final boolean[] anonymized;   // as of construction
     private final Profile[] profileById;
+    private final Random campaignRnd;
+    private final long splitSeed;
+    private final int blockTicks;   // > 0 in splittable mode
+    private final int threads;
 
     public WorkloadGenerator(final Random rnd, final int duration, final List<DataObject> objects, final Profile[] profileById) {
+        this(rnd, 0L, 0, 1, duration, objects, profileById);
+    }
+
+    private WorkloadGenerator(
+        final Random rnd,
+        final long splitSeed,
+        final int blockTicks,
+        final int threads,
+        final int duration,
+        final List<DataObject> objects,
+        final Profile[] profileById
+    ) {
         this.rnd = rnd;
+        this.splitSeed = splitSeed;
+        this.blockTicks = blockTicks;
+        this.threads = threads;
         this.duration = duration;
-        this.objects = objects;
+        this.objects = objects.toArray(new DataObject[0]);
+        this.anonymized = new boolean[this.objects.length];
+        for (int i = 0; i < this.objects.length; i++) anonymized[i] = this.objects[i].anonymized;
         this.profileById = profileById;
+        this.campaignRnd = Config.WORKLOAD_THIN_CAMPAIGNS ? new Random(4242) : null;
+    }
+
+    /**
+     * Generator drawing from independent per-(object, tick block) streams derived from
+     * {@code seed}, run on {@code threads} threads (0 = all processors).
+     */
+    public static WorkloadGenerator splittable(
+        final long seed,
+        final int blockTicks,
+        final int threads,
+        final int duration,
+        final List<DataObject> objects,
+        final Profile[] profileById
+    ) {
+        if (blockTicks < 1) throw new IllegalArgumentException("Block ticks: " + blockTicks);
+        final int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new WorkloadGenerator(null, seed, blockTicks, n, duration, objects, profileById);
+    }
+
+    /** Receives generated events in generation order. */
+    private interface EventSink {
+        void add(int time, int dataId, Role role, boolean legitimate, double requestScore);
     }
 
     @SuppressWarnings("unchecked")
     public List<AccessEvent>[] generate() {
         final List<AccessEvent>[] byTime = new List[duration + 1];
         for (int t = 0; t <= duration; t++) byTime[t] = new ArrayList<>();
+        generate((time, dataId, role, legitimate, requestScore) ->
+            byTime[time].add(new AccessEvent(time, dataId, role, legitimate, requestScore)), t -> { });
+        return byTime;
+    }
+
+    /**
+     * Same events as {@link #generate()} (for the same seed), packed per tick.
+     */
+    public AccessEventBatch[] generateBatches() {
+        final AccessEventBatch[] byTime = new AccessEventBatch[duration + 1];
+        for (int t = 0; t <= duration; t++) byTime[t] = new AccessEventBatch(t);
+        generate((time, dataId, role, legitimate, requestScore) -> byTime[time].add(dataId, role, legitimate, requestScore), t -> { });
+        return byTime;
+    }
+
+    /**
+     * Same batches as {@link #generateBatches()}, handed to {@code consumer} in tick order
+     * as soon as each is complete (ticks 0 to {@code duration}). Only the ticks that later
+     * attack events can still reach are held, so a consumer may start on the first tick
+     * while the rest are being generated.
+     */
+    public void generateTicks(final Consumer<AccessEventBatch> consumer) {
+        final AccessEventBatch[] pending = new AccessEventBatch[duration + 1];
+        generate((time, dataId, role, legitimate, requestScore) -> {
+            if (pending[time] == null) pending[time] = new AccessEventBatch(time);
+            pending[time].add(dataId, role, legitimate, requestScore);
+        }, t -> {
+            consumer.accept(pending[t] != null ? pending[t] : new AccessEventBatch(t));
+            pending[t] = null;
+        });
+        consumer.accept(pending[duration] != null ? pending[duration] : new AccessEventBatch(duration));
+    }
+
+    /**
+     * Generates every event into {@code out}, calling {@code done} with each tick once no
+     * further events for it can follow.
+     */
+    private void generate(final EventSink out, final IntConsumer done) {
 
         // Precompute sensitive IDs for attack selection
-        final int[] sensitiveIds = objects.stream()
+        final int[] sensitiveIds = Arrays.stream(objects)
             .filter(o -> o.sensitivity != Sensitivity.NON_SENSITIVE)
             .mapToInt(o -> o.id)
             .toArray();
 
+        if (blockTicks > 0) {
+            generateSplit(out, done, sensitiveIds);
+            return;
+        }
+
         for (int t = 0; t < duration; t++) {
-            // baseline workload
-            for (final DataObject obj : objects) {
-                final Profile p = profileById[obj.id];
-                final double u = rnd.nextDouble();
-                if (p == Profile.HOT) {
-                    if (u < 0.25) byTime[t].add(makeLegitEvent(t, obj));
-                } else if (p == Profile.WARM) {
-                    if (t % 5 == 0 && u < 0.18) byTime[t].add(makeLegitEvent(t, obj));
-                } else {
-                    if (u < 0.01) byTime[t].add(makeLegitEvent(t, obj));
-                }
+            for (final DataObject obj : objects) baseline(rnd, out, t, obj);
+            attacks(rnd, out, t, sensitiveIds);
+            done.accept(t);
+        }
+    }
+
+    /** Baseline workload and background noise of one object at tick {@code t}. */
+    private void baseline(final RandomGenerator r, final EventSink out, final int t, final DataObject obj) {
+        final Profile p = profileById[obj.id];
+        final double u = r.nextDouble();
+        if (p == Profile.HOT) {
+            if (u < 0.25) makeLegitEvent(r, out, t, obj);
+        } else if (p == Profile.WARM) {
+            if (t % 5 == 0 && u < 0.18) makeLegitEvent(r, out, t, obj);
+        } else {
+            if (u < 0.01) makeLegitEvent(r, out, t, obj);
+        }
+
+        // small background noise of suspicious attempts
+        if (r.nextDouble() < 0.0015 && obj.sensitivity != Sensitivity.NON_SENSITIVE) {
+            makeSuspiciousEvent(r, out, t, obj);
+        }
+    }
 
-                // small background noise of suspicious attempts
-                if (rnd.nextDouble() < 0.0015 && obj.sensitivity != Sensitivity.NON_SENSITIVE) {
-                    byTime[t].add(makeSuspiciousEvent(t, obj));
+    /** Attack bursts and thin campaigns starting at tick {@code t}. */
+    private void attacks(final RandomGenerator r, final EventSink out, final int t, final int[] sensitiveIds) {
+        // attack bursts every ~30 time units
+        if (t > 0 && t % 30 == 0 && sensitiveIds.length > 0) {
+            final int burstTargets = Math.min(40, sensitiveIds.length);
+            for (int k = 0; k < burstTargets; k++) {
+                final int id = sensitiveIds[r.nextInt(sensitiveIds.length)];
+                final DataObject obj = objects[id];
+                // generate >=5 suspicious within 3 time units -> 6 events over t..t+2
+                for (int dt = 0; dt <= 2; dt++) {
+                    final int tt = t + dt;
+                    if (tt >= duration) continue;
+                    makeSuspiciousEvent(r, out, tt, obj);
+                    makeSuspiciousEvent(r, out, tt, obj);
                 }
             }
+        }
+
+        if (campaignRnd != null && t % 45 == 15 && sensitiveIds.length > 0) {
+            thinCampaign(out, t, sensitiveIds);
+        }
+    }
 
-            // attack bursts every ~30 time units
-            if (t > 0 && t % 30 == 0 && sensitiveIds.length > 0) {
-                final int burstTargets = Math.min(40, sensitiveIds.length);
-                for (int k = 0; k < burstTargets; k++) {
-                    final int id = sensitiveIds[rnd.nextInt(sensitiveIds.length)];
-                    final DataObject obj = objects.get(id);
-                    // generate >=5 suspicious within 3 time units -> 6 events over t..t+2
-                    for (int dt = 0; dt <= 2; dt++) {
-                        final int tt = t + dt;
-                        if (tt >= duration) continue;
-                        byTime[tt].add(makeSuspiciousEvent(tt, obj));
-                        byTime[tt].add(makeSuspiciousEvent(tt, obj));
+    /**
+     * Splittable mode, one block of ticks at a time: object ranges fill per-tick buffers
+     * in parallel, then each tick's buffers are replayed in range order followed by the
+     * tick's attacks, the same per-tick layout as the serial loop.
+     */
+    private void generateSplit(final EventSink out, final IntConsumer done, final int[] sensitiveIds) {
+        final int n = objects.length;
+        final int ranges = Math.max(1, Math.min(n, threads * 4));
+        final TickBuffer[][] buffers = new TickBuffer[ranges][];
+        final ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, ranges));
+        try {
+            final List<Future<TickBuffer[]>> futures = new ArrayList<>(ranges);
+            for (int start = 0; start < duration; start += blockTicks) {
+                final int block = start / blockTicks;
+                final int first = start;
+                final int end = Math.min(duration, start + blockTicks);
+                futures.clear();
+                for (int c = 0; c < ranges; c++) {
+                    final int from = (int) ((long) n * c / ranges);
+                    final int to = (int) ((long) n * (c + 1) / ranges);
+                    futures.add(pool.submit(() -> generateRange(from, to, block, first, end)));
+                }
+                for (int c = 0; c < ranges; c++) buffers[c] = futures.get(c).get();
+
+                for (int t = start; t < end; t++) {
+                    for (int c = 0; c < ranges; c++) {
+                        buffers[c][t - start].replay(out, t);
+                        buffers[c][t - start] = null;
                     }
+                    attacks(stream(-1L, t), out, t, sensitiveIds);
+                    done.accept(t);
                 }
             }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating the workload", e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException("Workload generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
         }
+    }
 
+    private TickBuffer[] generateRange(final int from, final int to, final int block, final int start, final int end) {
+        final TickBuffer[] byTime = new TickBuffer[end - start];
+        for (int i = 0; i < byTime.length; i++) byTime[i] = new TickBuffer();
+        final EventSink sink = (time, dataId, role, legitimate, requestScore) ->
+            byTime[time - start].add(dataId, role, legitimate, requestScore);
+        for (int id = from; id < to; id++) {
+            final DataObject obj = objects[id];
+            final SplittableRandom r = stream(obj.id, block);
+            for (int t = start; t < end; t++) baseline(r, sink, t, obj);
+        }
         return byTime;
     }
 
-    private AccessEvent makeLegitEvent(final int time, final DataObject obj) {
-        final Role role = pickLegitRole(obj);
-        final double requestScore = 0.70 + 0.30 * rnd.nextDouble();
+    /** Independent stream for {@code key} (an object id, or -1 for attacks) and {@code index}. */
+    private SplittableRandom stream(final long key, final int index) {
+        return new SplittableRandom(mix64(splitSeed ^ mix64((key << 32) ^ (index & 0xffffffffL))));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Events of one tick from one object range, in generation order. */
+    private static final class TickBuffer {
+        private static final Role[] ROLES = Role.values();
+
+        private int[] ids = new int[4];
+        private byte[] roleLegit = new byte[4];   // role ordinal << 1 | legitimate
+        private double[] scores = new double[4];
+        private int size;
+
+        void add(final int dataId, final Role role, final boolean legitimate, final double requestScore) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                roleLegit = Arrays.copyOf(roleLegit, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            ids[size] = dataId;
+            roleLegit[size] = (byte) (role.ordinal() << 1 | (legitimate ? 1 : 0));
+            scores[size++] = requestScore;
+        }
+
+        void replay(final EventSink out, final int time) {
+            for (int i = 0; i < size; i++) {
+                out.add(time, ids[i], ROLES[roleLegit[i] >> 1], (roleLegit[i] & 1) != 0, scores[i]);
+            }
+        }
+    }
+
+    private void thinCampaign(final EventSink out, final int t, final int[] sensitiveIds) {
+        final int targets = Math.max(1, sensitiveIds.length / 12);
+        for (int k = 0; k < targets; k++) {
+            final DataObject obj = objects[sensitiveIds[campaignRnd.nextInt(sensitiveIds.length)]];
+            final int tt = t + campaignRnd.nextInt(3);
+            if (tt >= duration) continue;
+            final double requestScore = 0.05 + 0.45 * campaignRnd.nextDouble();
+            out.add(tt, obj.id, Role.User, isLegitimate(Role.User, obj, requestScore), requestScore);
+        }
+    }
+
+    private void makeLegitEvent(final RandomGenerator r, final EventSink out, final int time, final DataObject obj) {
+        final Role role = pickLegitRole(r, obj);
+        final double requestScore = 0.70 + 0.30 * r.nextDouble();
         final boolean legitimate = isLegitimate(role, obj, requestScore);
-        return new AccessEvent(time, obj.id, role, legitimate, requestScore);
+        out.add(time, obj.id, role, legitimate, requestScore);
     }
 
-    private AccessEvent makeSuspiciousEvent(final int time, final DataObject obj) {
-        final Role role = pickSuspiciousRole(obj);
-        final double requestScore = 0.05 + 0.45 * rnd.nextDouble();
+    private void makeSuspiciousEvent(final RandomGenerator r, final EventSink out, final int time, final DataObject obj) {
+        final Role role = pickSuspiciousRole(r, obj);
+        final double requestScore = 0.05 + 0.45 * r.nextDouble();
         final boolean legitimate = isLegitimate(role, obj, requestScore);
-        return new AccessEvent(time, obj.id, role, legitimate, requestScore);
+        out.add(time, obj.id, role, legitimate, requestScore);
     }
 
-    private Role pickLegitRole(final DataObject obj) {
+    private static Role pickLegitRole(final RandomGenerator r, final DataObject obj) {
         // ensure role is usually compatible with sensitivity rules
         if (obj.sensitivity == Sensitivity.NON_SENSITIVE) {
-            final double u = rnd.nextDouble();
+            final double u = r.nextDouble();
             if (u < 0.55) return Role.User;
             if (u < 0.75) return Role.Analyst;
             if (u < 0.92) return Role.Service;
             return Role.Admin;
         }
         if (obj.sensitivity == Sensitivity.PII) {
-            return rnd.nextDouble() < 0.80 ? Role.Service : Role.Admin;
+            return r.nextDouble() < 0.80 ? Role.Service : Role.Admin;
         }
         return Role.Admin;
     }
 
-    private Role pickSuspiciousRole(final DataObject obj) {
+    private static Role pickSuspiciousRole(final RandomGenerator r, final DataObject obj) {
         // prefer roles that violate policy for sensitive objects
         if (obj.sensitivity == Sensitivity.NON_SENSITIVE) {
-            return rnd.nextDouble() < 0.7 ? Role.Service : Role.User;
+            return r.nextDouble() < 0.7 ? Role.Service : Role.User;
         }
-        final double u = rnd.nextDouble();
+        final double u = r.nextDouble();
         if (u < 0.50) return Role.User;
         if (u < 0.85) return Role.Analyst;
         return Role.Service;
     }
 
-    private static boolean isLegitimate(final Role role, final DataObject obj, final double requestScore) {
+    private boolean isLegitimate(final Role role, final DataObject obj, final double requestScore) {
         switch (role) {
             case Admin:
                 return true;
             case Analyst:
-                return obj.sensitivity == Sensitivity.NON_SENSITIVE || obj.anonymized;
+                return obj.sensitivity == Sensitivity.NON_SENSITIVE || anonymized[obj.id];
             case User:
                 return obj.sensitivity == Sensitivity.NON_SENSITIVE;
             case Service: